@@ -0,0 +1,295 @@
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Micro-benchmarks of the booking and pricing hot paths, run the way a JMH
+ * harness would: each benchmark is warmed up, then timed over several fixed-length
+ * iterations, for every combination of rooms per hotel, reservations per room and
+ * hotel count. Besides the time per operation, the bytes allocated per operation
+ * are measured from the thread's allocation counter, like JMH's gc profiler.
+ * Results are fed into a sink field so the JIT cannot drop the work.
+ *
+ * Every benchmark is timed through the same loop, whose call to the operation is
+ * inlined only while that call site has seen a single operation. So, as JMH forks,
+ * each benchmark and combination of parameters runs in a JVM of its own, started with
+ * the same class path and JVM options. With --in-process they all run in this JVM
+ * instead, which is quicker but times every benchmark after the first through a call
+ * that is no longer inlined, so only the first is measured as it runs in the program.
+ *
+ * Run it with: java Benchmarks [--bench=NAME,...] [--rooms=N,...] [--reservations=N,...]
+ * [--hotels=N,...] [--warmup=ITERATIONS] [--iterations=ITERATIONS] [--millis=PER_ITERATION]
+ * [--in-process]
+ */
+public class Benchmarks {
+    private static final int PROBES = 4096; // precomputed inputs, cycled so picking one costs nothing
+    private static final int BATCH = 256; // operations between clock reads
+
+    private static volatile long sink;
+
+    /**
+     * One operation being measured
+     */
+    private interface Operation {
+        /**
+         * @param i index of the operation, for picking an input
+         * @return anything derived from the result, so the work is not optimized away
+         */
+        long run(int i);
+    }
+
+    /**
+     * Hotels filled for one combination of parameters, plus random inputs to probe them with
+     */
+    private static class Fixture {
+        final HotelController controller;
+        final List<HotelModel> hotels = new ArrayList<>();
+        final Room[] rooms = new Room[PROBES];
+        final int[] roomNumbers = new int[PROBES];
+        final HotelModel[] roomHotels = new HotelModel[PROBES];
+        final String[] hotelNames = new String[PROBES];
+        final int[] days = new int[PROBES];
+        final Reservation[] stays = new Reservation[PROBES];
+
+        Fixture(int roomsPerHotel, int reservationsPerRoom, int hotelCount) {
+            int today = CalendarDays.today();
+            for (int h = 0; h < hotelCount; h++) {
+                HotelModel hotel = new HotelModel("Bench Hotel " + h);
+                for (int r = 0; r < roomsPerHotel; r++) {
+                    Room room = new Room(101 + r, 1299.0);
+                    hotel.addRoom(room);
+                    for (int k = 0; k < reservationsPerRoom; k++) {
+                        int checkIn = today + k * 3; // Two-night stays with a free night between them
+                        hotel.reserveRoom(room.getRoomNumber(), "Guest " + k, checkIn, checkIn + 2);
+                    }
+                }
+                hotel.setDayModifier(today + 10, today + 20, 120);
+                hotels.add(hotel);
+            }
+            controller = new HotelController(hotels, HotelView.headless());
+            Random random = new Random(1);
+            int span = Math.max(3, reservationsPerRoom * 3);
+            for (int i = 0; i < PROBES; i++) {
+                HotelModel hotel = hotels.get(random.nextInt(hotelCount));
+                roomHotels[i] = hotel;
+                hotelNames[i] = random.nextBoolean() ? hotel.getHotelName() : hotel.getHotelName().toUpperCase();
+                roomNumbers[i] = 101 + random.nextInt(roomsPerHotel);
+                rooms[i] = hotel.getRoom(roomNumbers[i]);
+                days[i] = today + random.nextInt(span);
+                int checkIn = days[i];
+                stays[i] = new Reservation(rooms[i], "Probe", roomNumbers[i], checkIn, checkIn + 1 + random.nextInt(7));
+            }
+        }
+    }
+
+    private final Map<String, Operation> benchmarks = new LinkedHashMap<>();
+    private int warmupIterations = 3;
+    private int measuredIterations = 5;
+    private long iterationMillis = 200;
+
+    /**
+     * Defines the benchmarks against a fixture
+     */
+    private void define(Fixture f) {
+        benchmarks.clear();
+        benchmarks.put("Room.isAvailable", i -> f.rooms[i].isAvailable(f.days[i], f.days[i] + 2) ? 1 : 0);
+        benchmarks.put("Room.isBookedOnDate", i -> f.rooms[i].isBookedOnDate(f.days[i]) ? 1 : 0);
+        benchmarks.put("HotelModel.getRoom", i -> f.roomHotels[i].getRoom(f.roomNumbers[i]).getRoomNumber());
+        benchmarks.put("HotelModel.countAvailableRooms", i -> f.roomHotels[i].countAvailableRooms(f.days[i]));
+        benchmarks.put("Reservation.calculateTotalPrice", i -> {
+            Reservation stay = f.stays[i];
+            stay.calculateTotalPrice(f.roomHotels[i]);
+            return (long) stay.getTotalPrice();
+        });
+        benchmarks.put("HotelModel.calculateEarnings", i -> (long) f.roomHotels[i].calculateEarnings());
+        benchmarks.put("HotelController.findHotelByName", i -> f.controller.findHotelByName(f.hotelNames[i]).hashCode());
+    }
+
+    /**
+     * Times one benchmark over the measured iterations, after warming it up
+     *
+     * @return average nanoseconds and allocated bytes per operation
+     */
+    private double[] measure(Operation operation) {
+        for (int w = 0; w < warmupIterations; w++) {
+            iterate(operation);
+        }
+        double nanos = 0;
+        double bytes = 0;
+        for (int m = 0; m < measuredIterations; m++) {
+            double[] result = iterate(operation);
+            nanos += result[0];
+            bytes += result[1];
+        }
+        return new double[]{nanos / measuredIterations, bytes / measuredIterations};
+    }
+
+    /**
+     * Runs an operation in batches until the iteration time is up
+     *
+     * @return nanoseconds and allocated bytes per operation in this iteration
+     */
+    private double[] iterate(Operation operation) {
+        long operations = 0;
+        long result = 0;
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        long end = start + iterationMillis * 1_000_000;
+        long now;
+        do {
+            for (int b = 0; b < BATCH; b++) {
+                result += operation.run((int) (operations++ & (PROBES - 1)));
+            }
+            now = System.nanoTime();
+        } while (now < end);
+        long allocated = allocatedBytes() - allocatedBefore;
+        sink = result;
+        return new double[]{(double) (now - start) / operations, (double) allocated / operations};
+    }
+
+    /**
+     * @return bytes allocated by the current thread so far, or 0 if the JVM cannot tell
+     */
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0;
+    }
+
+    /**
+     * Runs one benchmark for one combination of parameters in a new JVM, which prints its row of the table
+     *
+     * @throws IOException if the JVM cannot be started
+     * @throws InterruptedException if interrupted while waiting for it
+     * @throws IllegalStateException if the benchmark fails
+     */
+    private void fork(String benchmark, int roomsPerHotel, int reservationsPerRoom, int hotelCount)
+            throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(Benchmarks.class.getName());
+        command.add("--forked");
+        command.add("--bench=" + benchmark);
+        command.add("--rooms=" + roomsPerHotel);
+        command.add("--reservations=" + reservationsPerRoom);
+        command.add("--hotels=" + hotelCount);
+        command.add("--warmup=" + warmupIterations);
+        command.add("--iterations=" + measuredIterations);
+        command.add("--millis=" + iterationMillis);
+        System.out.flush(); // Rows already printed come before this one
+        int status = new ProcessBuilder(command).inheritIO().start().waitFor();
+        if (status != 0) {
+            throw new IllegalStateException(benchmark + " failed in its JVM with status " + status);
+        }
+    }
+
+    /**
+     * Runs the chosen benchmarks for every combination of parameters and prints a table
+     *
+     * @param args options, as described on the class
+     * @throws IOException if a benchmark's JVM cannot be started
+     * @throws InterruptedException if interrupted while waiting for a benchmark's JVM
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Benchmarks harness = new Benchmarks();
+        int[] roomCounts = {10, 100, 1000};
+        int[] reservationCounts = {1, 10, 50};
+        int[] hotelCounts = {1, 100};
+        List<String> chosen = null;
+        boolean inProcess = false;
+        boolean forked = false; // Running a single benchmark for a parent JVM, which printed the header
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            String name = equals < 0 ? arg : arg.substring(0, equals);
+            String value = equals < 0 ? "" : arg.substring(equals + 1);
+            switch (name) {
+                case "--bench":
+                    chosen = List.of(value.split(","));
+                    break;
+                case "--rooms":
+                    roomCounts = parseInts(value);
+                    break;
+                case "--reservations":
+                    reservationCounts = parseInts(value);
+                    break;
+                case "--hotels":
+                    hotelCounts = parseInts(value);
+                    break;
+                case "--warmup":
+                    harness.warmupIterations = Integer.parseInt(value);
+                    break;
+                case "--iterations":
+                    harness.measuredIterations = Integer.parseInt(value);
+                    break;
+                case "--millis":
+                    harness.iterationMillis = Long.parseLong(value);
+                    break;
+                case "--in-process":
+                    inProcess = true;
+                    break;
+                case "--forked":
+                    forked = true;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+        if (!forked) {
+            System.out.printf("%-34s %7s %7s %7s %12s %10s%n", "Benchmark", "rooms", "res", "hotels", "ns/op", "B/op");
+        }
+        if (!forked && !inProcess) {
+            harness.define(new Fixture(1, 1, 1)); // Only for the names
+            List<String> names = new ArrayList<>(harness.benchmarks.keySet());
+            for (int hotelCount : hotelCounts) {
+                for (int roomsPerHotel : roomCounts) {
+                    for (int reservationsPerRoom : reservationCounts) {
+                        for (String benchmark : names) {
+                            if (chosen == null || chosen.contains(benchmark)) {
+                                harness.fork(benchmark, roomsPerHotel, reservationsPerRoom, hotelCount);
+                            }
+                        }
+                    }
+                }
+            }
+            return;
+        }
+        for (int hotelCount : hotelCounts) {
+            for (int roomsPerHotel : roomCounts) {
+                for (int reservationsPerRoom : reservationCounts) {
+                    harness.define(new Fixture(roomsPerHotel, reservationsPerRoom, hotelCount));
+                    for (Map.Entry<String, Operation> benchmark : harness.benchmarks.entrySet()) {
+                        if (chosen != null && !chosen.contains(benchmark.getKey())) {
+                            continue;
+                        }
+                        double[] result = harness.measure(benchmark.getValue());
+                        System.out.printf("%-34s %7d %7d %7d %12.1f %10.1f%n", benchmark.getKey(),
+                                roomsPerHotel, reservationsPerRoom, hotelCount, result[0], result[1]);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @param list comma-separated whole numbers
+     * @return the numbers
+     */
+    private static int[] parseInts(String list) {
+        String[] parts = list.split(",");
+        int[] values = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            values[i] = Integer.parseInt(parts[i].trim());
+        }
+        return values;
+    }
+}
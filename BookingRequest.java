@@ -0,0 +1,63 @@
+/**
+ * One stay in a batch of bookings: a room, the guest and the nights
+ * [checkInDate, checkOutDate). Requests are immutable, so a batch can be
+ * checked and booked without the caller changing it halfway.
+ */
+public final class BookingRequest {
+    private final int roomNumber;
+    private final String guestName;
+    private final int checkInDate;
+    private final int checkOutDate;
+
+    /**
+     * Constructs a booking request
+     *
+     * @param roomNumber   number of the room to book
+     * @param guestName    name of the guest
+     * @param checkInDate  first night of the stay
+     * @param checkOutDate day after the last night of the stay
+     */
+    public BookingRequest(int roomNumber, String guestName, int checkInDate, int checkOutDate) {
+        this.roomNumber = roomNumber;
+        this.guestName = guestName;
+        this.checkInDate = checkInDate;
+        this.checkOutDate = checkOutDate;
+    }
+
+    /**
+     * @return number of the room to book
+     */
+    public int getRoomNumber() {
+        return roomNumber;
+    }
+
+    /**
+     * @return name of the guest
+     */
+    public String getGuestName() {
+        return guestName;
+    }
+
+    /**
+     * @return first night of the stay
+     */
+    public int getCheckInDate() {
+        return checkInDate;
+    }
+
+    /**
+     * @return day after the last night of the stay
+     */
+    public int getCheckOutDate() {
+        return checkOutDate;
+    }
+
+    /**
+     * @return the request in a readable form
+     */
+    @Override
+    public String toString() {
+        return "Room " + roomNumber + " for " + guestName + " from " + CalendarDays.format(checkInDate)
+                + " to " + CalendarDays.format(checkOutDate);
+    }
+}
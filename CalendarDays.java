@@ -0,0 +1,112 @@
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Helper methods for the calendar used by the hotel.
+ * Dates are stored as epoch days (days since 1970-01-01), so a stay can
+ * span months and years, and calendars split the days into fixed-size chunks.
+ */
+public final class CalendarDays {
+    public static final int CHUNK_SHIFT = 6;
+    public static final int CHUNK_DAYS = 1 << CHUNK_SHIFT; // 64 days, so a room's chunk fits in one long
+    public static final int MAX_STAY_NIGHTS = 365;
+
+    private CalendarDays() {
+    }
+
+    /**
+     * @param day epoch day
+     * @return number of the chunk the day belongs to
+     */
+    public static int chunkOf(int day) {
+        return day >> CHUNK_SHIFT;
+    }
+
+    /**
+     * @param day epoch day
+     * @return position of the day inside its chunk
+     */
+    public static int offsetOf(int day) {
+        return day & (CHUNK_DAYS - 1);
+    }
+
+    /**
+     * @param chunk chunk number
+     * @return epoch day of the first day in the chunk
+     */
+    public static int firstDayOf(int chunk) {
+        return chunk << CHUNK_SHIFT;
+    }
+
+    /**
+     * Checks that [checkInDate, checkOutDate) is a stay of at least one night and at most MAX_STAY_NIGHTS
+     *
+     * @param checkInDate first night of the stay
+     * @param checkOutDate day after the last night of the stay
+     * @return true if the stay is valid
+     */
+    public static boolean isValidStay(int checkInDate, int checkOutDate) {
+        return checkInDate >= 0 && checkOutDate > checkInDate && checkOutDate - checkInDate <= MAX_STAY_NIGHTS;
+    }
+
+    /**
+     * @param date calendar date
+     * @return epoch day of the date
+     */
+    public static int of(LocalDate date) {
+        return (int) date.toEpochDay();
+    }
+
+    /**
+     * @param day epoch day
+     * @return calendar date of the day
+     */
+    public static LocalDate toDate(int day) {
+        return LocalDate.ofEpochDay(day);
+    }
+
+    /**
+     * @return epoch day of today
+     */
+    public static int today() {
+        return of(LocalDate.now());
+    }
+
+    /**
+     * @param month calendar month
+     * @return epoch day of the first day of the month
+     */
+    public static int firstDayOf(YearMonth month) {
+        return of(month.atDay(1));
+    }
+
+    /**
+     * @param day epoch day
+     * @return the day written as YYYY-MM-DD
+     */
+    public static String format(int day) {
+        return toDate(day).toString();
+    }
+
+    /**
+     * Reads a date written either as YYYY-MM-DD or as a day of the current month
+     *
+     * @param text date typed by the user
+     * @return epoch day of the date, or -1 if the text is not a valid date
+     */
+    public static int parse(String text) {
+        String trimmed = text.trim();
+        try {
+            if (trimmed.indexOf('-') < 0) {
+                YearMonth month = YearMonth.now();
+                int dayOfMonth = Integer.parseInt(trimmed);
+                return month.isValidDay(dayOfMonth) ? of(month.atDay(dayOfMonth)) : -1;
+            }
+            LocalDate date = LocalDate.parse(trimmed);
+            return date.toEpochDay() >= 0 ? of(date) : -1;
+        } catch (NumberFormatException | DateTimeParseException e) {
+            return -1;
+        }
+    }
+}
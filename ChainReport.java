@@ -0,0 +1,248 @@
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Totals across every hotel of the chain: earnings, rooms, reservations, and the
+ * booked and available rooms of each night in a range of days. The hotels are
+ * split between the threads of a fork-join pool, each reading its hotels' latest
+ * snapshots without locking, and the partial totals are merged as the tasks join.
+ * The report also records the CPU time the work took on every thread put together
+ * against how long it took from start to finish, which is the speed-up gained.
+ */
+public final class ChainReport {
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private final int firstDay;
+    private final int lastDay;
+    private final int hotelCount;
+    private final int roomCount;
+    private final int reservationCount;
+    private final long earningsCents;
+    private final int[] bookedRooms; // bookedRooms[i] is for the night firstDay + i
+    private final int parallelism;
+    private final long workNanos;
+    private final long elapsedNanos;
+
+    /**
+     * Totals of a range of hotels, merged into the report once every task has joined
+     */
+    private static class Totals {
+        int hotels;
+        int rooms;
+        int reservations;
+        long earningsCents;
+        int[] bookedRooms;
+        long workNanos;
+
+        Totals(int days) {
+            this.bookedRooms = new int[days];
+        }
+
+        Totals merge(Totals other) {
+            hotels += other.hotels;
+            rooms += other.rooms;
+            reservations += other.reservations;
+            earningsCents += other.earningsCents;
+            for (int i = 0; i < bookedRooms.length; i++) {
+                bookedRooms[i] += other.bookedRooms[i];
+            }
+            workNanos += other.workNanos;
+            return this;
+        }
+    }
+
+    /**
+     * Totals the hotels in [from, to) of a list, splitting the range in half until one hotel is left
+     */
+    private static class HotelsTask extends RecursiveTask<Totals> {
+        private static final long serialVersionUID = 1L;
+
+        private final List<HotelModel> hotels;
+        private final int from;
+        private final int to;
+        private final int firstDay;
+        private final int lastDay;
+
+        HotelsTask(List<HotelModel> hotels, int from, int to, int firstDay, int lastDay) {
+            this.hotels = hotels;
+            this.from = from;
+            this.to = to;
+            this.firstDay = firstDay;
+            this.lastDay = lastDay;
+        }
+
+        @Override
+        protected Totals compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                HotelsTask left = new HotelsTask(hotels, from, middle, firstDay, lastDay);
+                left.fork();
+                Totals right = new HotelsTask(hotels, middle, to, firstDay, lastDay).compute();
+                return left.join().merge(right);
+            }
+            long start = workClock();
+            Totals totals = new Totals(Math.max(0, lastDay - firstDay + 1));
+            if (from < to) {
+                HotelSnapshot snapshot = hotels.get(from).getSnapshot(); // One moment per hotel, no locks taken
+                totals.hotels = 1;
+                totals.rooms = snapshot.getRoomCount();
+                totals.reservations = snapshot.getReservationCount();
+                totals.earningsCents = Math.round(snapshot.getEarnings() * 100);
+                totals.bookedRooms = snapshot.countBookedRooms(firstDay, lastDay);
+            }
+            totals.workNanos = workClock() - start;
+            return totals;
+        }
+    }
+
+    /**
+     * Reads the CPU time of the current thread, so time a thread spends waiting for a core
+     * is not counted as work. Falls back to the wall clock where the JVM cannot measure it.
+     *
+     * @return a time in nanoseconds, only meaningful against another reading on the same thread
+     */
+    private static long workClock() {
+        return THREADS.isCurrentThreadCpuTimeSupported() ? THREADS.getCurrentThreadCpuTime() : System.nanoTime();
+    }
+
+    private ChainReport(int firstDay, int lastDay, Totals totals, int parallelism, long elapsedNanos) {
+        this.firstDay = firstDay;
+        this.lastDay = lastDay;
+        this.hotelCount = totals.hotels;
+        this.roomCount = totals.rooms;
+        this.reservationCount = totals.reservations;
+        this.earningsCents = totals.earningsCents;
+        this.bookedRooms = totals.bookedRooms;
+        this.parallelism = parallelism;
+        this.workNanos = totals.workNanos;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Builds the report on the common fork-join pool
+     *
+     * @param hotels   hotels of the chain
+     * @param firstDay first night to count booked rooms for
+     * @param lastDay  last night to count booked rooms for, inclusive
+     * @return the report
+     */
+    public static ChainReport of(List<HotelModel> hotels, int firstDay, int lastDay) {
+        return of(hotels, firstDay, lastDay, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Builds the report on the given fork-join pool
+     *
+     * @param hotels   hotels of the chain
+     * @param firstDay first night to count booked rooms for
+     * @param lastDay  last night to count booked rooms for, inclusive
+     * @param pool     pool the hotels are split across
+     * @return the report
+     */
+    public static ChainReport of(List<HotelModel> hotels, int firstDay, int lastDay, ForkJoinPool pool) {
+        long start = System.nanoTime();
+        Totals totals = pool.invoke(new HotelsTask(hotels, 0, hotels.size(), firstDay, lastDay));
+        return new ChainReport(firstDay, lastDay, totals, pool.getParallelism(), System.nanoTime() - start);
+    }
+
+    /**
+     * @return first night of the report
+     */
+    public int getFirstDay() {
+        return firstDay;
+    }
+
+    /**
+     * @return last night of the report, inclusive
+     */
+    public int getLastDay() {
+        return lastDay;
+    }
+
+    /**
+     * @return number of hotels in the chain
+     */
+    public int getHotelCount() {
+        return hotelCount;
+    }
+
+    /**
+     * @return number of rooms across every hotel
+     */
+    public int getRoomCount() {
+        return roomCount;
+    }
+
+    /**
+     * @return number of reservations across every hotel
+     */
+    public int getReservationCount() {
+        return reservationCount;
+    }
+
+    /**
+     * @return total earnings across every hotel
+     */
+    public double getEarnings() {
+        return earningsCents / 100.0;
+    }
+
+    /**
+     * @param day a night from getFirstDay to getLastDay
+     * @return number of rooms booked across the chain on that night
+     */
+    public int getBookedRooms(int day) {
+        return bookedRooms[day - firstDay];
+    }
+
+    /**
+     * @param day a night from getFirstDay to getLastDay
+     * @return number of rooms free across the chain on that night
+     */
+    public int getAvailableRooms(int day) {
+        return roomCount - bookedRooms[day - firstDay];
+    }
+
+    /**
+     * @param day a night from getFirstDay to getLastDay
+     * @return percent of the chain's rooms booked on that night
+     */
+    public double getOccupancy(int day) {
+        return roomCount == 0 ? 0 : 100.0 * bookedRooms[day - firstDay] / roomCount;
+    }
+
+    /**
+     * @return number of threads the pool could run the report on
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * @return time the report took from start to finish, in nanoseconds
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * @return CPU time spent totalling hotels, added up over every thread, in nanoseconds
+     */
+    public long getWorkNanos() {
+        return workNanos;
+    }
+
+    /**
+     * Compares the CPU time spent on every hotel, as if done one after another, with the time
+     * the report actually took. Splitting and merging are not counted as work, so a report over
+     * few or small hotels, or on a single core, can show a speed-up below one.
+     *
+     * @return how many times faster the report ran than on a single thread
+     */
+    public double getSpeedUp() {
+        return elapsedNanos == 0 ? 1 : (double) workNanos / elapsedNanos;
+    }
+}
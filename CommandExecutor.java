@@ -0,0 +1,91 @@
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import javax.swing.SwingUtilities;
+
+/**
+ * Runs controller commands away from the Swing event dispatch thread, so slow
+ * work never freezes the window. Each command runs on its own virtual thread
+ * when the JVM has them (Java 21 and later), and on a pool of daemon threads
+ * otherwise. Results are handed back to the event dispatch thread through EDT.
+ */
+public class CommandExecutor {
+    /**
+     * Runs tasks on the Swing event dispatch thread
+     */
+    public static final Executor EDT = SwingUtilities::invokeLater;
+
+    private final ExecutorService workers;
+
+    /**
+     * Constructs an executor, using virtual threads if the JVM supports them
+     */
+    public CommandExecutor() {
+        this.workers = newWorkers();
+    }
+
+    /**
+     * Runs a command in the background
+     *
+     * @param command work that produces a result
+     * @param <T>     type of the result
+     * @return future completed with the command's result, or with the exception it threw
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> command) {
+        return CompletableFuture.supplyAsync(command, workers);
+    }
+
+    /**
+     * Runs a command without a result in the background
+     *
+     * @param command work to run
+     * @return future completed once the command finishes
+     */
+    public CompletableFuture<Void> submit(Runnable command) {
+        return CompletableFuture.runAsync(command, workers);
+    }
+
+    /**
+     * Stops accepting commands; commands already running are allowed to finish
+     */
+    public void shutdown() {
+        workers.shutdown();
+    }
+
+    /**
+     * Runs a task on the event dispatch thread, right away if already on it
+     *
+     * @param task task that touches Swing components
+     */
+    public static void onEdt(Runnable task) {
+        if (SwingUtilities.isEventDispatchThread()) {
+            task.run();
+        } else {
+            SwingUtilities.invokeLater(task);
+        }
+    }
+
+    /**
+     * Creates a virtual-thread-per-task executor when available. It is looked up by
+     * reflection so the program still compiles and runs on Java versions before 21.
+     *
+     * @return the executor commands run on
+     */
+    private static ExecutorService newWorkers() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger count = new AtomicInteger();
+            ThreadFactory factory = task -> {
+                Thread thread = new Thread(task, "hotel-command-" + count.incrementAndGet());
+                thread.setDaemon(true); // Never keeps the program open after the window closes
+                return thread;
+            };
+            return Executors.newCachedThreadPool(factory);
+        }
+    }
+}
@@ -0,0 +1,271 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Hammers a few rooms of a HotelController without a window from many threads at
+ * once, then checks that the hotels are still consistent. Threads book through
+ * makeReservation, book, bookEach and bookAll, cancel and move stays, change prices,
+ * and remove and add back rooms, all on the same handful of rooms and nights so
+ * they keep colliding. Once every thread has stopped, each hotel is checked:
+ * <ul>
+ *   <li>no room has two stays sharing a night;</li>
+ *   <li>the hotel's reservations are exactly the reservations held by its rooms;</li>
+ *   <li>the occupancy calendar counts the same booked rooms as the rooms themselves, day by day;</li>
+ *   <li>the earnings are the sum of the reservations' prices.</li>
+ * </ul>
+ * Every mismatch, and any exception a thread stopped on, is printed, and the check
+ * exits with status 1 if there was any.
+ *
+ * Run it with: java ConcurrencyCheck [--hotels=N] [--rooms=M] [--threads=T] [--seconds=S] [--seed=N]
+ */
+public class ConcurrencyCheck {
+    private static final int HORIZON_DAYS = 20; // stays start within this many days from today
+    private static final int MAX_NIGHTS = 4;
+    private static final int BATCH_SIZE = 3;
+    private static final String[] ROOM_TYPES = {"Standard", "Deluxe", "Executive"};
+
+    private int hotelCount = 2;
+    private int roomsPerHotel = 4;
+    private int threadCount = 8;
+    private long durationMillis = 5_000;
+    private long seed = 42;
+
+    /**
+     * Fills a new headless controller, runs every thread against it and checks the hotels
+     *
+     * @return the mismatches found, empty if the hotels are consistent
+     * @throws InterruptedException if interrupted while waiting for the threads
+     */
+    public List<String> run() throws InterruptedException {
+        HotelController controller = new HotelController(new ArrayList<>(), HotelView.headless());
+        List<String> names = new ArrayList<>(hotelCount);
+        for (int h = 0; h < hotelCount; h++) {
+            String name = "Check Hotel " + (h + 1);
+            names.add(name);
+            controller.addHotel(name); // Comes with room 101
+            for (int i = 1; i < roomsPerHotel; i++) {
+                controller.addRoomToHotel(name, 101 + i, ROOM_TYPES[i % ROOM_TYPES.length], 1299.0);
+            }
+        }
+        int today = CalendarDays.today();
+        long end = System.nanoTime() + durationMillis * 1_000_000;
+        List<String> mismatches = Collections.synchronizedList(new ArrayList<>());
+
+        List<Thread> threads = new ArrayList<>(threadCount);
+        for (int t = 0; t < threadCount; t++) {
+            Random random = new Random(seed * 31 + t);
+            Thread thread = new Thread(() -> {
+                try {
+                    while (System.nanoTime() < end) {
+                        String name = names.get(random.nextInt(names.size()));
+                        runOperation(controller, name, controller.findHotelByName(name), today, random);
+                    }
+                } catch (RuntimeException e) {
+                    mismatches.add(Thread.currentThread().getName() + " failed: " + e);
+                }
+            }, "check-" + t);
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        for (String name : names) {
+            check(controller.findHotelByName(name), today, mismatches);
+        }
+        return mismatches;
+    }
+
+    /**
+     * Runs one randomly chosen operation against a hotel
+     */
+    private void runOperation(HotelController controller, String hotelName, HotelModel hotel, int today, Random random) {
+        int roomNumber = 101 + random.nextInt(roomsPerHotel);
+        int checkInDate = today + random.nextInt(HORIZON_DAYS);
+        int checkOutDate = checkInDate + 1 + random.nextInt(MAX_NIGHTS);
+        switch (random.nextInt(9)) {
+            case 0:
+                controller.makeReservation(hotelName, roomNumber, checkInDate, checkOutDate, "Guest " + random.nextInt(100), null);
+                break;
+            case 1: {
+                Room room = hotel.getRoom(roomNumber);
+                if (room != null) {
+                    Reservation reservation = new Reservation(room, "Guest " + random.nextInt(100), roomNumber, checkInDate, checkOutDate);
+                    reservation.calculateTotalPrice(hotel);
+                    hotel.book(reservation);
+                }
+                break;
+            }
+            case 2: {
+                List<Reservation> batch = new ArrayList<>(BATCH_SIZE);
+                for (int i = 0; i < BATCH_SIZE; i++) {
+                    Room room = hotel.getRoom(101 + random.nextInt(roomsPerHotel));
+                    if (room != null) {
+                        int first = today + random.nextInt(HORIZON_DAYS);
+                        Reservation reservation = new Reservation(room, "Guest " + random.nextInt(100), room.getRoomNumber(),
+                                first, first + 1 + random.nextInt(MAX_NIGHTS));
+                        reservation.calculateTotalPrice(hotel);
+                        batch.add(reservation);
+                    }
+                }
+                hotel.bookEach(batch);
+                break;
+            }
+            case 3: {
+                List<BookingRequest> requests = new ArrayList<>(BATCH_SIZE);
+                for (int i = 0; i < BATCH_SIZE; i++) {
+                    int first = today + random.nextInt(HORIZON_DAYS);
+                    requests.add(new BookingRequest(101 + random.nextInt(roomsPerHotel), "Guest " + random.nextInt(100),
+                            first, first + 1 + random.nextInt(MAX_NIGHTS)));
+                }
+                try {
+                    hotel.bookAll(requests);
+                } catch (IllegalArgumentException e) {
+                    // A room is taken or gone; nothing was booked
+                }
+                break;
+            }
+            case 4:
+            case 5: {
+                Reservation reservation = anyReservation(hotel, random);
+                if (reservation != null) {
+                    hotel.cancelReservation(reservation);
+                }
+                break;
+            }
+            case 6: {
+                Reservation reservation = anyReservation(hotel, random);
+                if (reservation != null) {
+                    hotel.modifyReservation(reservation.getId(), checkInDate, checkOutDate);
+                }
+                break;
+            }
+            case 7:
+                controller.datePriceModifier(hotel, checkInDate, checkOutDate - 1, 50 + random.nextInt(101));
+                break;
+            default: {
+                Room room = hotel.getRoom(roomNumber);
+                if (room == null) {
+                    controller.addRoomToHotel(hotelName, roomNumber, ROOM_TYPES[random.nextInt(ROOM_TYPES.length)], 1299.0);
+                } else {
+                    for (Reservation reservation : room.getReservations()) {
+                        hotel.cancelReservation(reservation); // Empties the room, so the removal races the bookings
+                    }
+                    controller.removeRoomFromHotel(hotelName, roomNumber);
+                }
+                break;
+            }
+        }
+    }
+
+    /**
+     * @return one of the hotel's reservations, or null if it has none
+     */
+    private static Reservation anyReservation(HotelModel hotel, Random random) {
+        List<Reservation> reservations = hotel.getReservations();
+        return reservations.isEmpty() ? null : reservations.get(random.nextInt(reservations.size()));
+    }
+
+    /**
+     * Checks one hotel once nothing is changing it any more
+     *
+     * @param hotel      hotel to check
+     * @param today      first day stays were booked on
+     * @param mismatches list to add a line to for each mismatch found
+     */
+    private static void check(HotelModel hotel, int today, List<String> mismatches) {
+        String name = hotel.getHotelName();
+        Map<Reservation, Room> inRooms = new IdentityHashMap<>();
+        for (Room room : hotel.getRooms()) {
+            Reservation previous = null;
+            for (Reservation reservation : room.getReservations()) { // Ordered by check-in
+                if (previous != null && previous.getCheckOutDate() > reservation.getCheckInDate()) {
+                    mismatches.add(name + ": room " + room.getRoomNumber() + " has overlapping stays " + previous + " and " + reservation);
+                }
+                inRooms.put(reservation, room);
+                previous = reservation;
+            }
+        }
+
+        long cents = 0;
+        Map<Reservation, Boolean> indexed = new IdentityHashMap<>();
+        for (Reservation reservation : hotel.getReservations()) {
+            indexed.put(reservation, Boolean.TRUE);
+            cents += Math.round(reservation.getTotalPrice() * 100);
+            if (!inRooms.containsKey(reservation)) {
+                mismatches.add(name + ": reservation #" + reservation.getId() + " is not held by any room of the hotel");
+            }
+        }
+        for (Reservation reservation : inRooms.keySet()) {
+            if (!indexed.containsKey(reservation)) {
+                mismatches.add(name + ": room " + reservation.getRoomNumber() + " holds unrecorded stay " + reservation);
+            }
+        }
+
+        for (int day = today; day < today + HORIZON_DAYS + MAX_NIGHTS; day++) {
+            int booked = 0;
+            for (Room room : hotel.getRooms()) {
+                if (room.isBookedOnDate(day)) {
+                    booked++;
+                }
+            }
+            if (hotel.countBookedRooms(day) != booked) {
+                mismatches.add(name + ": " + CalendarDays.toDate(day) + " counts " + hotel.countBookedRooms(day)
+                        + " booked rooms, the rooms say " + booked);
+            }
+        }
+
+        long earnings = Math.round(hotel.calculateEarnings() * 100);
+        if (earnings != cents) {
+            mismatches.add(name + ": earnings are " + earnings + " cents, the reservations add up to " + cents);
+        }
+    }
+
+    /**
+     * Runs the check from the command line, printing what it found
+     *
+     * @param args options, as described on the class
+     * @throws InterruptedException if interrupted while running
+     */
+    public static void main(String[] args) throws InterruptedException {
+        ConcurrencyCheck check = new ConcurrencyCheck();
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            String name = equals < 0 ? arg : arg.substring(0, equals);
+            String value = equals < 0 ? "" : arg.substring(equals + 1);
+            switch (name) {
+                case "--hotels":
+                    check.hotelCount = Integer.parseInt(value);
+                    break;
+                case "--rooms":
+                    check.roomsPerHotel = Integer.parseInt(value);
+                    break;
+                case "--threads":
+                    check.threadCount = Integer.parseInt(value);
+                    break;
+                case "--seconds":
+                    check.durationMillis = (long) (Double.parseDouble(value) * 1000);
+                    break;
+                case "--seed":
+                    check.seed = Long.parseLong(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+        List<String> mismatches = check.run();
+        for (String mismatch : mismatches) {
+            System.out.println(mismatch);
+        }
+        if (!mismatches.isEmpty()) {
+            System.out.println(mismatches.size() + " mismatches");
+            System.exit(1);
+        }
+        System.out.println("No mismatches");
+    }
+}
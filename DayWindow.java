@@ -0,0 +1,149 @@
+import java.util.ArrayDeque;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * A rolling window of day chunks, each covering CalendarDays.CHUNK_DAYS days.
+ * Chunks are allocated only when something is stored in them, so empty months
+ * cost nothing, and looking up the chunk of a day takes constant time.
+ * Chunks before the retirement point are dropped and reused for later days.
+ *
+ * @param <T> type of the per-chunk storage
+ */
+public class DayWindow<T> {
+    private final Supplier<T> factory;
+    private final Consumer<T> reset;
+    private final ArrayDeque<T> recycled;
+    private Object[] chunks; // ring buffer, chunk c lives at floorMod(c, chunks.length)
+    private int firstChunk; // lowest chunk number in the window
+    private int chunkCount; // number of chunk numbers covered, including unallocated ones
+    private int retiredBefore; // chunks numbered below this have been retired
+
+    /**
+     * Constructs an empty window
+     *
+     * @param factory creates the storage of a new chunk
+     * @param reset   clears the storage of a retired chunk so it can be reused
+     */
+    public DayWindow(Supplier<T> factory, Consumer<T> reset) {
+        this.factory = factory;
+        this.reset = reset;
+        this.recycled = new ArrayDeque<>();
+        this.chunks = new Object[8];
+        this.firstChunk = 0;
+        this.chunkCount = 0;
+        this.retiredBefore = Integer.MIN_VALUE;
+    }
+
+    /**
+     * @return lowest chunk number in the window
+     */
+    public int getFirstChunk() {
+        return firstChunk;
+    }
+
+    /**
+     * @return chunk number just past the window
+     */
+    public int getEndChunk() {
+        return firstChunk + chunkCount;
+    }
+
+    /**
+     * @return first epoch day that has not been retired
+     */
+    public int getFirstOpenDay() {
+        return retiredBefore == Integer.MIN_VALUE ? Integer.MIN_VALUE : CalendarDays.firstDayOf(retiredBefore);
+    }
+
+    /**
+     * Retrieves the storage of a chunk without allocating it
+     *
+     * @param chunk chunk number
+     * @return the chunk's storage, or null if nothing was stored in it
+     */
+    @SuppressWarnings("unchecked")
+    public T get(int chunk) {
+        if (chunk < firstChunk || chunk >= firstChunk + chunkCount) {
+            return null;
+        }
+        return (T) chunks[Math.floorMod(chunk, chunks.length)];
+    }
+
+    /**
+     * Retrieves the storage of a chunk, allocating it if needed
+     *
+     * @param chunk chunk number
+     * @return the chunk's storage
+     * @throws IllegalArgumentException if the chunk has been retired
+     */
+    @SuppressWarnings("unchecked")
+    public T getOrCreate(int chunk) {
+        if (chunk < retiredBefore) {
+            throw new IllegalArgumentException("Day " + CalendarDays.format(CalendarDays.firstDayOf(chunk)) + " has been retired");
+        }
+        cover(chunk);
+        int index = Math.floorMod(chunk, chunks.length);
+        if (chunks[index] == null) {
+            T storage = recycled.poll();
+            chunks[index] = storage != null ? storage : factory.get();
+        }
+        return (T) chunks[index];
+    }
+
+    /**
+     * Retires every chunk that ends before the given day, keeping its storage for reuse
+     *
+     * @param day first epoch day to keep
+     */
+    @SuppressWarnings("unchecked")
+    public void retireBefore(int day) {
+        int chunk = CalendarDays.chunkOf(day);
+        if (chunk <= retiredBefore) {
+            return;
+        }
+        retiredBefore = chunk;
+        while (chunkCount > 0 && firstChunk < chunk) {
+            int index = Math.floorMod(firstChunk, chunks.length);
+            if (chunks[index] != null) {
+                T storage = (T) chunks[index];
+                reset.accept(storage);
+                recycled.push(storage);
+                chunks[index] = null;
+            }
+            firstChunk++;
+            chunkCount--;
+        }
+        if (chunkCount == 0) {
+            firstChunk = chunk;
+        }
+    }
+
+    /**
+     * Widens the window so it covers a chunk, growing the ring buffer if needed
+     *
+     * @param chunk chunk number to cover
+     */
+    private void cover(int chunk) {
+        if (chunkCount == 0) {
+            firstChunk = chunk;
+            chunkCount = 1;
+            return;
+        }
+        int newFirst = Math.min(firstChunk, chunk);
+        int newCount = Math.max(firstChunk + chunkCount, chunk + 1) - newFirst;
+        if (newCount > chunks.length) {
+            int capacity = chunks.length;
+            while (capacity < newCount) {
+                capacity <<= 1;
+            }
+            Object[] grown = new Object[capacity];
+            for (int c = firstChunk; c < firstChunk + chunkCount; c++) {
+                grown[Math.floorMod(c, capacity)] = chunks[Math.floorMod(c, chunks.length)];
+            }
+            chunks = grown;
+        }
+        firstChunk = newFirst;
+        chunkCount = newCount;
+    }
+}
@@ -1,18 +1,108 @@
-import java.util.ArrayList;
-import java.util.List;
-
-public class Driver {
-    public static void main(String[] args) {
-        // Initialize the list of hotels
-        List<HotelModel> hotels = new ArrayList<>();
-
-        // Create the view first
-        HotelView view = new HotelView();
-
-        // Create the controller
-        HotelController controller = new HotelController(hotels, view);
-
-        // Set the controller in the view
-        view.setController(controller);
-    }
-}
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.swing.SwingUtilities;
+
+public class Driver {
+    private static final String DEFAULT_JOURNAL = "hotels.journal";
+    private static final String DEFAULT_SNAPSHOT = "hotels.snapshot";
+    private static final long SNAPSHOT_MINUTES = 5;
+    private static final long RETIRE_HOURS = 1; // how soon after midnight the day before is retired
+
+    public static void main(String[] args) throws InterruptedException {
+        if (args.length > 0 && args[0].equals("--load")) {
+            // Run the headless load generator instead of the window, e.g. --load --threads=8 --seconds=30
+            LoadGenerator.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        // Changes are kept in a journal file, --journal=PATH to choose it or --journal= for none,
+        // with periodic snapshots so startup replays only the recent changes, --snapshot=PATH or --snapshot= for none
+        Path journalFile = Paths.get(DEFAULT_JOURNAL);
+        Path snapshotFile = Paths.get(DEFAULT_SNAPSHOT);
+        for (String arg : args) {
+            if (arg.startsWith("--journal=")) {
+                String path = arg.substring("--journal=".length());
+                journalFile = path.isEmpty() ? null : Paths.get(path);
+            } else if (arg.startsWith("--snapshot=")) {
+                String path = arg.substring("--snapshot=".length());
+                snapshotFile = path.isEmpty() ? null : Paths.get(path);
+            }
+        }
+
+        // Rebuild the hotels from the snapshot and journal before the window opens
+        List<HotelModel> hotels = new ArrayList<>();
+        Journal journal = null;
+        if (journalFile != null) {
+            try {
+                journal = Journal.open(journalFile, snapshotFile);
+                hotels.addAll(journal.getHotels());
+                System.out.printf("Loaded %d hotel(s) and replayed %d change(s) from %s in %.1f ms%n", hotels.size(),
+                        journal.getReplayedRecords(), journalFile, journal.getReplayNanos() / 1e6);
+            } catch (IOException e) {
+                System.err.println("Could not open the journal " + journalFile + ", changes will not be saved: " + e.getMessage());
+            }
+        }
+        Journal controllerJournal = journal;
+        Path controllerSnapshot = journal == null ? null : snapshotFile;
+
+        // Build the window on the Swing event dispatch thread
+        SwingUtilities.invokeLater(() -> {
+            // Create the view first
+            HotelView view = new HotelView();
+
+            // Create the controller
+            HotelController controller = new HotelController(hotels, view);
+
+            // Set the controller in the view
+            view.setController(controller);
+
+            // Record every change from now on
+            controller.setJournal(controllerJournal);
+
+            // Stays in the past were kept by the replay, but no new ones can be booked
+            controller.retirePastDays();
+            ScheduledExecutorService maintenance = startMaintenance(controller, controllerSnapshot);
+            if (controllerJournal != null) {
+                Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                    maintenance.shutdown(); // No scheduled save starts after this; one under way finishes before the last
+                    if (controllerSnapshot != null) {
+                        controller.saveSnapshot(controllerSnapshot);
+                    }
+                    try {
+                        controllerJournal.close(); // Writes out anything not flushed yet
+                    } catch (IOException e) {
+                        System.err.println("Could not close the journal: " + e.getMessage());
+                    }
+                }));
+            }
+        });
+    }
+
+    /**
+     * Retires the past days of the hotels every hour, so the calendars roll forward as the
+     * days go by, and saves a snapshot of the hotels every few minutes, in the background
+     *
+     * @param controller controller managing the hotels
+     * @param file       path of the snapshot file, or null for none
+     * @return the executor running the maintenance, to be shut down on exit
+     */
+    private static ScheduledExecutorService startMaintenance(HotelController controller, Path file) {
+        ScheduledExecutorService maintenance = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "hotel-maintenance");
+            thread.setDaemon(true);
+            return thread;
+        });
+        maintenance.scheduleWithFixedDelay(controller::retirePastDays, RETIRE_HOURS, RETIRE_HOURS, TimeUnit.HOURS);
+        if (file != null) {
+            maintenance.scheduleWithFixedDelay(() -> controller.saveSnapshot(file), SNAPSHOT_MINUTES, SNAPSHOT_MINUTES,
+                    TimeUnit.MINUTES);
+        }
+        return maintenance;
+    }
+}
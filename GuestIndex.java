@@ -0,0 +1,193 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Indexes the reservations of a hotel by guest name. Names are kept sorted by
+ * their case-folded form, so an exact name or every name starting with a
+ * prefix is found in O(log g) for g guests plus the size of the answer.
+ * Each guest's name is stored once and shared by all of their reservations.
+ */
+public class GuestIndex {
+    private final TreeMap<String, Guest> guests; // case-folded name -> guest
+
+    /**
+     * A guest together with the reservations made under their name
+     */
+    private static class Guest {
+        final List<String> spellings; // each spelling booked under, shared by the guest's reservations
+        final IntMap<Reservation> reservations; // reservation ID -> reservation
+
+        Guest() {
+            this.spellings = new ArrayList<>(1);
+            this.reservations = new IntMap<>();
+        }
+
+        String canonical(String guestName) {
+            for (String spelling : spellings) {
+                if (spelling.equals(guestName)) {
+                    return spelling;
+                }
+            }
+            spellings.add(guestName);
+            return guestName;
+        }
+    }
+
+    /**
+     * Constructs an empty index
+     */
+    public GuestIndex() {
+        this.guests = new TreeMap<>();
+    }
+
+    /**
+     * Folds a guest name into the key used by the index
+     *
+     * @param guestName name of the guest
+     * @return the trimmed name in a form that ignores case
+     */
+    public static String normalize(String guestName) {
+        return HotelRegistry.normalize(guestName.trim());
+    }
+
+    /**
+     * Adds a reservation under its guest's name. If the guest already booked
+     * under the same spelling, the reservation is given that name instance
+     * so the string is not stored twice.
+     *
+     * @param reservation reservation to be indexed, with its ID already assigned
+     */
+    public void add(Reservation reservation) {
+        String guestName = reservation.getGuestName();
+        if (guestName == null) {
+            return;
+        }
+        Guest guest = guests.computeIfAbsent(normalize(guestName), key -> new Guest());
+        reservation.setGuestName(guest.canonical(guestName));
+        guest.reservations.put(reservation.getId(), reservation);
+    }
+
+    /**
+     * Adds many reservations at once, as when a hotel is loaded. Reservations that share
+     * a name instance are filed under their guest without folding the name again.
+     *
+     * @param reservations reservations to be indexed, with their IDs already assigned
+     */
+    public void addAll(List<Reservation> reservations) {
+        Map<String, Guest> byInstance = new IdentityHashMap<>();
+        for (Reservation reservation : reservations) {
+            String guestName = reservation.getGuestName();
+            if (guestName == null) {
+                continue;
+            }
+            Guest guest = byInstance.get(guestName);
+            if (guest == null) {
+                guest = guests.computeIfAbsent(normalize(guestName), key -> new Guest());
+                byInstance.put(guestName, guest);
+            }
+            reservation.setGuestName(guest.canonical(guestName));
+            guest.reservations.put(reservation.getId(), reservation);
+        }
+    }
+
+    /**
+     * Removes a reservation from the index, dropping its guest once they have no reservations left
+     *
+     * @param reservation reservation to be removed
+     */
+    public void remove(Reservation reservation) {
+        String guestName = reservation.getGuestName();
+        if (guestName == null) {
+            return;
+        }
+        String key = normalize(guestName);
+        Guest guest = guests.get(key);
+        if (guest != null && guest.reservations.get(reservation.getId()) == reservation) {
+            guest.reservations.remove(reservation.getId());
+            if (guest.reservations.size() == 0) {
+                guests.remove(key);
+            }
+        }
+    }
+
+    /**
+     * @return number of guests with at least one reservation
+     */
+    public int getGuestCount() {
+        return guests.size();
+    }
+
+    /**
+     * Finds the reservations of a guest, ignoring case
+     *
+     * @param guestName name of the guest
+     * @return the guest's reservations ordered by ID, or an empty list if there are none
+     */
+    public List<Reservation> find(String guestName) {
+        Guest guest = guestName == null ? null : guests.get(normalize(guestName));
+        if (guest == null) {
+            return Collections.emptyList();
+        }
+        List<Reservation> found = guest.reservations.values();
+        found.sort(Comparator.comparingInt(Reservation::getId));
+        return found;
+    }
+
+    /**
+     * Finds the reservations of every guest whose name starts with a prefix, ignoring case
+     *
+     * @param prefix start of the guest name
+     * @param limit  maximum number of reservations to return
+     * @return the reservations ordered by guest name, then by ID
+     */
+    public List<Reservation> findByPrefix(String prefix, int limit) {
+        List<Reservation> found = new ArrayList<>();
+        for (Guest guest : guestsStartingWith(prefix).values()) {
+            List<Reservation> stays = guest.reservations.values();
+            stays.sort(Comparator.comparingInt(Reservation::getId));
+            for (Reservation reservation : stays) {
+                if (found.size() >= limit) {
+                    return found;
+                }
+                found.add(reservation);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Suggests guest names that start with a prefix, ignoring case, for autocompletion
+     *
+     * @param prefix start of the guest name
+     * @param limit  maximum number of names to return
+     * @return the guest names in alphabetical order
+     */
+    public List<String> suggest(String prefix, int limit) {
+        List<String> names = new ArrayList<>();
+        for (Map.Entry<String, Guest> entry : guestsStartingWith(prefix).entrySet()) {
+            if (names.size() >= limit) {
+                break;
+            }
+            names.add(entry.getValue().spellings.get(0));
+        }
+        return names;
+    }
+
+    /**
+     * @param prefix start of the guest name
+     * @return view of the guests whose folded name starts with the folded prefix
+     */
+    private NavigableMap<String, Guest> guestsStartingWith(String prefix) {
+        String key = prefix == null ? "" : normalize(prefix);
+        if (key.isEmpty()) {
+            return guests;
+        }
+        return guests.subMap(key, true, key + Character.MAX_VALUE, false);
+    }
+}
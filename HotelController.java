@@ -1,588 +1,1015 @@
-import java.util.ArrayList;
-import java.util.List;
-
-import javax.swing.JOptionPane;
-
-
-/**
- * The HotelController class manages operations related to hotels and rooms,
- * providing methods to add hotels, add rooms to hotels, manage reservations,
- * and perform various operations related to hotel management and booking.
- * It interacts with HotelModel for data storage and HotelView for user interface.
- */
-public class HotelController {
-    private List<HotelModel> hotels; // List of hotels managed by the controller
-    private HotelView view; // View component for displaying messages and data
-    private List<Reservation> reservations;
-
-
-    // Default price for a room when added without specifying a price
-    private static final double DEFAULT_ROOM_PRICE = 1299.0;
-
-    /**
-     * Constructor to initialize the HotelController with a list of hotels and a view.
-     *
-     * @param hotels List of HotelModel objects representing the hotels managed by the controller
-     * @param view   HotelView object for displaying messages and data to the user
-     */
-    public HotelController(List<HotelModel> hotels, HotelView view) {
-        this.hotels = hotels;
-        this.view = view;
-        this.view.setController(this); // Set the controller in the view
-        this.hotels = new ArrayList<>();
-        this.reservations = new ArrayList<>();
-    }
-
-    /**
-     * Helper Method to find a hotel by name
-     * 
-     * @param hotelName Name of the hotel to be searched
-     * @return          HotelModel object with the name hotelName
-     */
-    public HotelModel findHotelByName(String hotelName) {
-        for (HotelModel hotel : hotels) {
-            if (hotel.getHotelName().equalsIgnoreCase(hotelName)) {
-                return hotel;
-            }
-        }
-        return null;
-    }
-
-    /**
-     * Adds a new hotel with the specified name to the list of hotels.
-     * Automatically adds a default room with room number 101 to the new hotel.
-     * Displays a success message upon successful addition.
-     *
-     * @param hotelName Name of the hotel to be added
-     */
-    public void addHotel(String hotelName) {
-        if (findHotelByName(hotelName) != null) {
-            view.displayEnterAnother("hotel name.");
-        } else {
-            HotelModel newHotel = new HotelModel(hotelName);
-            hotels.add(newHotel);
-            view.displaySuccess("Added hotel " + hotelName);
-            addRoomToHotel(hotelName, 101, "Standard", 1);
-            view.displayHotelDetails(newHotel);
-        }
-    }
-
-    /**
-     * 
-     * @return The list of reservations
-     */
-    public List<Reservation> getReservations() {
-        return reservations;
-    }
-
-    /**
-     * Removes the hotel with the specified name from the list of hotels.
-     * Displays a success message upon successful removal.
-     *
-     * @param hotelName Name of the hotel to be removed
-     * @return true if the hotel was successfully removed, false otherwise
-     */
-    public boolean removeHotel(String hotelName) {
-        HotelModel hotel = findHotelByName(hotelName);
-        if (hotel != null) {
-            hotels.remove(hotel);
-            view.displaySuccess("Hotel removed");
-            return true;
-        } else {
-            view.displayHotelNotFound(hotelName);
-            return false;
-        }
-    }
-
-    /**
-     * Adds the specified number of rooms with consecutive room numbers starting from the given roomNumber
-     * to the hotel with the specified name. Each room is added with the default room price.
-     * Displays a success message upon successful addition of rooms.
-     *
-     * @param hotelName  Name of the hotel to which rooms are to be added
-     * @param roomNumber Starting room number of the first room to be added
-     * @param roomType   Type of room to be added
-     * @param count      Number of rooms to be added
-     */
-    public void addRoomToHotel(String hotelName, int roomNumber, String roomType, int count) {
-        int successes = 0;
-        
-        HotelModel hotel = findHotelByName(hotelName);
-        if (hotel != null) {
-            Room room = hotel.getRoom(roomNumber);
-            if(hotel.getRooms().size() >= 50) // Ensure the maximum is enforced
-            {
-                view.displayMaxRooms();
-                return;
-            } else if(room == null && (roomType.equalsIgnoreCase("Standard") || roomType.equalsIgnoreCase("Deluxe") || roomType.equalsIgnoreCase("Executive"))) 
-            {
-                double price = DEFAULT_ROOM_PRICE;
-                if(hotel.getRooms().size()>0) {
-                    price = hotel.getRooms().get(0).getPrice(); // If there exists a room already, automatically set it to have the same base price
-                }
-                for(int i=0;i<count;i++){
-                    successes += addRoomToHotel(hotelName, roomNumber+i, roomType, price);
-                }
-                view.displaySuccess("Added " + successes + " room(s)");
-                return;
-            }
-            else {
-                view.displayEnterAnother("room number or appropriate type of room.");
-            }
-        }
-    }
-
-     /**
-     * Adds a room with the specified room number and price to the hotel with the specified name.
-     * Displays a success message upon successful addition of the room.
-     *
-     * @param hotelName  Name of the hotel to which the room is to be added
-     * @param roomNumber Room number of the room to be added
-     * @param roomType   Type of room to be added
-     * @param price      Price of the room to be added
-     * @return 1 if the room was successfully added, 0 otherwise
-     */
-    public int addRoomToHotel(String hotelName, int roomNumber, String roomType, double price) {
-        HotelModel hotel = findHotelByName(hotelName);
-        if (hotel != null) {
-            Room room = hotel.getRoom(roomNumber);
-            if (room == null) {
-                if(roomType.equalsIgnoreCase("Deluxe"))
-                    hotel.addRoom((Room)new Deluxe(roomNumber, price));
-                else if(roomType.equalsIgnoreCase("Executive"))
-                    hotel.addRoom((Room)new Executive(roomNumber, price));
-                else if(roomType.equalsIgnoreCase("Standard"))
-                    hotel.addRoom(new Room(roomNumber, price));
-                view.displaySuccess("Room "+ roomNumber + " added");
-                return 1;
-            } else {
-                view.displayEnterAnother("room number.");
-                return 0;
-            }
-        } else {
-            view.displayHotelNotFound(hotelName);
-            return 0;
-        }
-    }
-
-    /**
-     * Removes the room with the specified room number from the hotel with the specified name.
-     * Displays a success message upon successful removal of the room.
-     *
-     * @param hotelName  Name of the hotel from which the room is to be removed
-     * @param roomNumber Room number of the room to be removed
-     * @return true if the room was successfully removed, false otherwise
-     */
-    public boolean removeRoomFromHotel(String hotelName, int roomNumber) {
-        HotelModel hotel = findHotelByName(hotelName);
-        if (hotel != null) {
-            Room room = hotel.getRoom(roomNumber);
-            if (room != null && hotel.getRooms().size()>1 && !room.isBooked()) {
-                hotel.getRooms().remove(room);
-                view.displaySuccess("Room removed");
-                return true;
-            } else if(hotel.getRooms().size() == 1) {
-                view.displayMinRooms();
-                return false;
-            } else if(room.isBooked()) {
-                view.displayError("Unable to remove a room that is reserved.");
-                return false;
-            }
-            else {
-                view.displayRoomNotFound(roomNumber);
-                return false;
-            }
-        } else {
-            view.displayHotelNotFound(hotelName);
-            return false;
-        }
-    }
-
-    /**
-     * Updates the price of all rooms in the hotel with the specified name to the new price,
-     * provided that the new price is greater than 100.0 and the hotel has zero reservations.
-     * Displays a success message upon successful update of room prices.
-     *
-     * @param hotelName Name of the hotel whose room prices are to be updated
-     * @param newPrice  New price for the rooms in the hotel
-     */
-    public void updateRoomPrice(String hotelName, double newPrice) {
-        if (newPrice < 100) {
-            view.displayEnterAnother("price. Must be greater than 100.0.");
-            return;
-        }
-
-        HotelModel hotel = findHotelByName(hotelName);
-        if (hotel != null && hotel.getReservations().size()==0) {
-            for(Room room : hotel.getRooms())
-                room.setPrice(newPrice);
-            view.displaySuccess("Room prices updated");
-            return;
-        } else if(hotel.getReservations().size()>0){
-            view.displayEnterAnother("hotel. Only hotels with zero reservations can update price.");
-        }
-        else {
-            view.displayHotelNotFound(hotelName);
-        }
-    }
-
-    /**
-     * Changes the name of the hotel with the oldName to the newName, ensuring that no other hotel
-     * with the newName exists. Displays a success message upon successful name change.
-     *
-     * @param oldName Old name of the hotel to be renamed
-     * @param newName New name for the hotel
-     * @return true if the hotel name was successfully changed, false otherwise
-     */
-    public boolean changeHotelName(String oldName, String newName) {
-        if (findHotelByName(newName) != null) {
-            view.displayEnterAnother("new hotel name.");
-            return false;
-        }
-
-        HotelModel hotel = findHotelByName(oldName);
-        if (hotel != null) {
-            hotel.setHotelName(newName);
-            view.displaySuccess("Hotel name changed");
-            return true;
-        } else {
-            view.displayHotelNotFound(oldName);
-            return false;
-        }
-    }
-
-     /**
-     * Estimates the earnings for the hotel with the specified name, calculating the total earnings
-     * from all booked rooms in the hotel.
-     *
-     * @param hotelName Name of the hotel for which earnings are to be estimated
-     * @return Estimated earnings for the hotel
-     */
-    public double estimateEarnings(String hotelName) {
-        HotelModel hotel = findHotelByName(hotelName);
-        if (hotel != null) {
-            return hotel.calculateEarnings();
-        } else {
-            view.displayHotelNotFound(hotelName);
-            return 0;
-        }
-    }
-
-    /**
-     * Retrieves a list of rooms that are currently booked in the hotel with the specified name.
-     *
-     * @param hotelName Name of the hotel for which booked rooms are to be retrieved
-     * @return List of booked rooms in the hotel
-     */
-    public List<Room> getBookedRooms(String hotelName, int date) {
-        HotelModel hotel = findHotelByName(hotelName);
-        if (hotel != null) {
-            List<Room> bookedRooms = new ArrayList<>();
-            for (Room room : hotel.getRooms()) {
-                if (room.isBooked()) {
-                    bookedRooms.add(room);
-                }
-            }
-            return bookedRooms;
-        } else {
-            view.displayHotelNotFound(hotelName);
-            return null;
-        }
-    }
-
-   /**
-     * Retrieves a list of rooms that are currently available (not booked) in the hotel with the specified name.
-     *
-     * @param hotelName Name of the hotel for which available rooms are to be retrieved
-     * @return List of available rooms in the hotel
-     */
-    public List<Room> getAvailableRooms(String hotelName, int date) {
-        HotelModel hotel = findHotelByName(hotelName);
-        if (hotel != null) {
-            List<Room> availableRooms = new ArrayList<>();
-            for (Room room : hotel.getRooms()) {
-                if (!room.isBooked()) {
-                    availableRooms.add(room);
-                }
-            }
-            return availableRooms;
-        } else {
-            view.displayHotelNotFound(hotelName);
-            return null;
-        }
-    }
-
-     /**
-     * Retrieves the count of available rooms in the hotel with the specified name for the given date range.
-     *
-     * @param hotelName   Name of the hotel for which available rooms count is to be retrieved
-     * @param checkInDate Check-in date for the reservation
-     * @param checkOutDate Check-out date for the reservation
-     * @return Count of available rooms in the hotel for the specified date range
-     */
-    public int getAvailableRoomsCount(String hotelName, int checkInDate, int checkOutDate) {
-        HotelModel hotel = getHotel(hotelName);
-        if (hotel != null) {
-            int count = 0;
-            for (Room room : hotel.getRooms()) {
-                if (room.isAvailable(checkInDate, checkOutDate)) {
-                    count++;
-                }
-            }
-            return count;
-        }
-        return 0;
-    }
-
-     /**
-     * Retrieves the count of booked rooms in the hotel with the specified name for the given date range.
-     *
-     * @param hotelName   Name of the hotel for which booked rooms count is to be retrieved
-     * @param checkInDate Check-in date for the reservation
-     * @param checkOutDate Check-out date for the reservation
-     * @return Count of booked rooms in the hotel for the specified date range
-     */
-    public int getBookedRoomsCount(String hotelName, int checkInDate, int checkOutDate) {
-        HotelModel hotel = getHotel(hotelName);
-        if (hotel != null) {
-            int count = 0;
-            for (Room room : hotel.getRooms()) {
-                if (!room.isAvailable(checkInDate, checkOutDate)) {
-                    count++;
-                }
-            }
-            return count;
-        }
-        return 0;
-    }
-
-    /**
-     * Makes a reservation for the specified guest in the room with the given roomNumber
-     * at the hotel with the specified hotelName for the provided check-in and check-out dates.
-     * Displays a success message upon successful reservation.
-     *
-     * @param hotelName   Name of the hotel for which reservation is to be made
-     * @param roomNumber  Room number of the room for which reservation is to be made
-     * @param guestName   Name of the guest making the reservation
-     * @param checkInDate Check-in date for the reservation
-     * @param checkOutDate Check-out date for the reservation
-     */
-    public void makeReservation(String hotelName, int roomNumber, int checkInDate, int checkOutDate, String guestName, String discountCode) {
-        HotelModel hotel = findHotelByName(hotelName);
-        if (hotel != null) {
-            Room room = hotel.getRoom(roomNumber);
-            if (room != null) {
-                if (isOverlappingReservation(room, checkInDate, checkOutDate)) {
-                    view.displayEnterAnother("date range. The room is already booked for the selected dates.");
-                } else {
-                    Reservation reservation = new Reservation(room, guestName, roomNumber, checkInDate, checkOutDate);
-                    reservation.calculateTotalPrice(hotel);
-                    reservation.applyDiscount(discountCode);
-                    room.addReservation(reservation);
-                    hotel.addReservation(reservation);
-                    view.displaySuccess("Reservation made with total price: " + reservation.getTotalPrice());
-                    view.displaySuccess("Reservation made for " + guestName);
-                }
-            } else {
-                view.displayRoomNotFound(roomNumber);
-            }
-        } else {
-            view.displayHotelNotFound(hotelName);
-        }
-    }    
-    
-
-    /**
-     * Helper method to check for overlapping reservations
-     * @param room Room for which reservation is to be made
-     * @param checkInDate Check-in date for the reservation
-     * @param checkOutDate Check-out date for the reservation
-     * @return
-     */
-    private boolean isOverlappingReservation(Room room, int checkInDate, int checkOutDate) {
-        for (Reservation existingReservation : room.getReservations()) {
-            int existingCheckIn = existingReservation.getCheckInDate();
-            int existingCheckOut = existingReservation.getCheckOutDate();
-
-            // Check for overlap
-            if ((checkInDate >= existingCheckIn && checkInDate <= existingCheckOut) || 
-                (checkOutDate >= existingCheckIn && checkOutDate <= existingCheckOut) ||
-                (checkInDate < existingCheckIn && checkOutDate > existingCheckOut)) {
-                return true;
-            }
-        }
-        return false;
-    }
-
-    /**
-     * Cancels the reservation for the specified room in the hotel with the specified hotelName
-     * for the provided check-in and check-out dates.
-     * Displays a success message upon successful cancellation.
-     *
-     * @param hotelName   Name of the hotel for which reservation is to be cancelled
-     * @param roomNumber  Room number of the room for which reservation is to be cancelled
-     * @param checkInDate Check-in date for the reservation
-     * @param checkOutDate Check-out date for the reservation
-     */
-    public void cancelReservation(String hotelName, int roomNumber, int checkInDate, int checkOutDate) {
-        HotelModel hotel = findHotelByName(hotelName);
-        if (hotel != null) {
-            Room room = hotel.getRoom(roomNumber);
-            if (room != null) {
-                if (room.isBooked(checkInDate, checkOutDate)) {
-                    hotel.removeReservation(roomNumber, checkInDate, checkOutDate);
-                    view.displaySuccess("Reservation cancelled");
-                } else {
-                    view.displayEnterAnother("reservation. The specified dates do not match any reservation.");
-                }
-            } else {
-                view.displayRoomNotFound(roomNumber);
-            }
-        } else {
-            view.displayHotelNotFound(hotelName);
-        }
-    }
-
-    /**
-     * Retrieves the list of hotels managed by the controller.
-     *
-     * @return List of HotelModel objects representing the hotels managed by the controller
-     */
-    public List<HotelModel> getHotels() {
-        return hotels;
-    }
-
-     /**
-     * Retrieves the availability details of the room with the specified roomNumber in the hotel with the specified hotelName
-     * across the month, providing a list of Room objects representing the availability status for each day.
-     *
-     * @param hotelName  Name of the hotel for which room availability is to be retrieved
-     * @param roomNumber Room number of the room for which availability is to be retrieved
-     * @return List of Room objects representing the availability status across the month
-     */
-    public List<Room> getRoomAvailabilityAcrossMonth(String hotelName, int roomNumber) {
-        HotelModel hotel = getHotel(hotelName);
-        if (hotel != null) {
-            Room room = hotel.getRoom(roomNumber);
-            if (room != null) {
-                return room.getAvailabilityAcrossMonth(); // Ensure Room class has this method
-            }
-        }
-        return new ArrayList<>();
-    }
-
-     /**
-     * Retrieves the HotelModel object representing the hotel with the specified name.
-     *
-     * @param hotelName Name of the hotel to be retrieved
-     * @return HotelModel object representing the hotel with the specified name,
-     *         or null if no such hotel exists
-     */
-    public HotelModel getHotel(String hotelName) {
-        HotelModel hotel = findHotelByName(hotelName);
-        if (hotel != null) {
-            return hotel;
-        } else {
-            view.displayHotelNotFound(hotelName);
-            return null;
-        }
-    }
-
-   /**
-     * Retrieves the reservation details for the specified room in the hotel with the specified hotelName,
-     * for the provided check-in and check-out dates.
-     *
-     * @param hotelName   Name of the hotel for which reservation details are to be retrieved
-     * @param roomNumber  Room number of the room for which reservation details are to be retrieved
-     * @param checkInDate Check-in date for the reservation
-     * @param checkOutDate Check-out date for the reservation
-     * @return Reservation object representing the reservation details,
-     *         or null if no such reservation exists
-     */
-    public Reservation getReservationDetails(String hotelName, int roomNumber, int checkInDate, int checkOutDate) {
-        HotelModel hotel = getHotel(hotelName);
-        if (hotel == null) {
-            return null;
-        }
-    
-        Room room = hotel.getRoom(roomNumber);
-        if (room == null) {
-            return null;
-        }
-    
-        for (Reservation reservation : hotel.getReservations()) {
-            if (reservation.getRoom() != null && // Null check
-                reservation.getRoom().getRoomNumber() == roomNumber &&
-                reservation.getCheckInDate() == checkInDate &&
-                reservation.getCheckOutDate() == checkOutDate) {
-                return reservation;
-            }
-        }
-        return null;
-    }
-    
-    /**
-     * Method to set a percent modifier for a specific date
-     * @param day day in which price is being modified
-     * @param percent percent from 50% to 150% on price to modify
-     */
-    public void datePriceModifier(HotelModel hotel, int day, int percent){
-        hotel.setDayModifier(day, percent);
-    }
-
-    /**
-     * Method to set a percent modifier for a date range
-     * @param day1 first day in which price is being modified
-     * @param day2 last day in which price is being modified
-     * @param percent percent from 50% to 150% on price to modify
-     */
-    public void datePriceModifier(HotelModel hotel, int day1, int day2, int percent){
-        for(int i=day1;i<=day2;i++){
-            datePriceModifier(hotel,i,percent);
-        }
-    }
-
-    /**
-     * 
-     * @param hotelName Name of the hotel for which reservation details are to be retrieved
-     * @param date      Day in which user wants to check available/booked rooms 
-     */
-    public void showRoomCountsForDate(String hotelName, int date) {
-        HotelModel hotel = findHotelByName(hotelName);
-        if (hotel != null) {
-            int availableRooms = 0;
-            int bookedRooms = 0;
-            for (Room room : hotel.getRooms()) {
-                if (room.isBookedOnDate(date)) {
-                    bookedRooms++;
-                } else {
-                    availableRooms++;
-                }
-            }
-            view.displayRoomCountsForDate(availableRooms, bookedRooms);
-        } else {
-            view.displayHotelNotFound(hotelName);
-        }
-    }
-
-    /**
-     * 
-     * @param hotel Hotel in which room is from
-     * @param room  Room in which information is being shown
-     */
-    public void showRoomInfoAcrossMonth(HotelModel hotel, Room room) {
-        //if (hotel != null) {
-            StringBuilder sb = new StringBuilder("Room information for the month:\n");
-            //for (Room room : hotel.getRooms()) {
-                sb.append("Room ").append(room.getRoomNumber()).append(":\n");
-                for (int day = 1; day <= 31; day++) { // Assuming a maximum of 31 days in a month
-                    sb.append("  Day ").append(day).append(": ");
-                    if (room.isBookedOnDate(day)) {
-                        sb.append("Booked\n");
-                    } else {
-                        sb.append("Available\n");
-                    }
-                }
-            view.displayRoomInfoAcrossMonth(sb.toString());
-    }
-}
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import javax.swing.JOptionPane;
+
+
+/**
+ * The HotelController class manages operations related to hotels and rooms,
+ * providing methods to add hotels, add rooms to hotels, manage reservations,
+ * and perform various operations related to hotel management and booking.
+ * It interacts with HotelModel for data storage and HotelView for user interface.
+ */
+public class HotelController {
+    private HotelRegistry hotels; // Hotels managed by the controller, indexed by name
+    private HotelView view; // View component for displaying messages and data
+    private List<Reservation> reservations;
+    private CommandExecutor commands; // Runs slow operations off the Swing event dispatch thread
+    private Journal journal; // Keeps every change on disk, or null if changes are only kept in memory
+    // Latencies and outcomes of the busiest operations, published over JMX
+    private OperationStats reservationStats;
+    private OperationStats cancellationStats;
+    private OperationStats earningsStats;
+    private OperationStats freeRoomStats;
+    private OperationStats availabilityStats; // booked and available room counts and lists
+
+
+    // Default price for a room when added without specifying a price
+    private static final double DEFAULT_ROOM_PRICE = 1299.0;
+    // Rejected rows listed in the summary of a CSV import
+    private static final int IMPORT_REJECTS_SHOWN = 10;
+
+    /**
+     * Constructor to initialize the HotelController with a list of hotels and a view.
+     *
+     * @param hotels List of HotelModel objects representing the hotels managed by the controller
+     * @param view   HotelView object for displaying messages and data to the user
+     */
+    public HotelController(List<HotelModel> hotels, HotelView view) {
+        this.view = view;
+        this.view.setController(this); // Set the controller in the view
+        this.hotels = new HotelRegistry();
+        for (HotelModel hotel : hotels) {
+            this.hotels.add(hotel);
+        }
+        this.reservations = new ArrayList<>();
+        this.commands = new CommandExecutor();
+        this.reservationStats = OperationStats.register("makeReservation");
+        this.cancellationStats = OperationStats.register("cancelReservation");
+        this.earningsStats = OperationStats.register("estimateEarnings");
+        this.freeRoomStats = OperationStats.register("findAvailableRooms");
+        this.availabilityStats = OperationStats.register("roomAvailability");
+    }
+
+    /**
+     * @return Latencies and outcomes of the controller's operations, in the order they are published
+     */
+    public List<OperationStats> getOperationStats() {
+        return List.of(reservationStats, cancellationStats, earningsStats, freeRoomStats, availabilityStats);
+    }
+
+    /**
+     * Starts recording every change to the hotels in a journal, so they survive a restart.
+     * Hotels not recorded in the journal yet are recorded whole. Once a change is recorded,
+     * its success is only shown after the journal has it on disk.
+     *
+     * @param journal Journal to record changes in, or null to keep changes only in memory
+     */
+    public void setJournal(Journal journal) {
+        this.journal = journal;
+        hotels.setJournal(journal);
+    }
+
+    /**
+     * @return Journal recording the changes, or null if there is none
+     */
+    public Journal getJournal() {
+        return journal;
+    }
+
+    /**
+     * Saves a snapshot of every hotel, so the next start only replays the journal from here.
+     *
+     * @param file Path of the snapshot file
+     * @return true if the snapshot was saved, false otherwise
+     */
+    public boolean saveSnapshot(Path file) {
+        try {
+            hotels.writeSnapshot(file);
+            return true;
+        } catch (IOException | UncheckedIOException e) {
+            view.displayError("Could not save a snapshot of the hotels: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Waits until the changes made so far are on disk, if there is a journal.
+     * Changes made on many threads at once share a single disk flush.
+     */
+    private void awaitJournal() {
+        if (journal != null) {
+            try {
+                journal.sync();
+            } catch (UncheckedIOException e) {
+                view.displayError("The change was made but could not be saved: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Retires the days before today in every hotel, so stays can no longer be booked in the past.
+     * Run at startup, once the journal has been replayed, and again every day.
+     */
+    public void retirePastDays() {
+        hotels.retireDaysBefore(CalendarDays.today());
+    }
+
+    /**
+     * Runs any controller operation in the background, off the Swing event dispatch thread.
+     * Messages the operation shows through the view are still displayed on the event dispatch thread.
+     *
+     * @param command Operation to run
+     * @param <T>     Type of the operation's result
+     * @return Future completed with the operation's result
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> command) {
+        return commands.submit(command);
+    }
+
+    /**
+     * Helper Method to find a hotel by name, ignoring case
+     * 
+     * @param hotelName Name of the hotel to be searched
+     * @return          HotelModel object with the name hotelName
+     */
+    public HotelModel findHotelByName(String hotelName) {
+        return hotels.find(hotelName);
+    }
+
+    /**
+     * Adds a new hotel with the specified name to the list of hotels.
+     * Automatically adds a default room with room number 101 to the new hotel.
+     * Displays a success message upon successful addition.
+     *
+     * @param hotelName Name of the hotel to be added
+     */
+    public void addHotel(String hotelName) {
+        if (!Journal.isRecordable(hotelName)) {
+            view.displayEnterAnother("hotel name. The name is too long.");
+            return;
+        }
+        HotelModel newHotel = new HotelModel(hotelName);
+        if (!hotels.add(newHotel)) {
+            view.displayEnterAnother("hotel name.");
+        } else {
+            awaitJournal();
+            view.displaySuccess("Added hotel " + hotelName);
+            addRoomToHotel(hotelName, 101, "Standard", 1);
+            view.displayHotelDetails(newHotel);
+        }
+    }
+
+    /**
+     * 
+     * @return The list of reservations
+     */
+    public List<Reservation> getReservations() {
+        return reservations;
+    }
+
+    /**
+     * Removes the hotel with the specified name from the list of hotels.
+     * Displays a success message upon successful removal.
+     *
+     * @param hotelName Name of the hotel to be removed
+     * @return true if the hotel was successfully removed, false otherwise
+     */
+    public boolean removeHotel(String hotelName) {
+        HotelModel hotel = findHotelByName(hotelName);
+        if (hotel != null && hotels.remove(hotel)) {
+            awaitJournal();
+            view.displaySuccess("Hotel removed");
+            return true;
+        } else {
+            view.displayHotelNotFound(hotelName);
+            return false;
+        }
+    }
+
+    /**
+     * Adds the specified number of rooms with consecutive room numbers starting from the given roomNumber
+     * to the hotel with the specified name. Each room is added with the default room price.
+     * Displays a success message upon successful addition of rooms.
+     *
+     * @param hotelName  Name of the hotel to which rooms are to be added
+     * @param roomNumber Starting room number of the first room to be added
+     * @param roomType   Type of room to be added
+     * @param count      Number of rooms to be added
+     */
+    public void addRoomToHotel(String hotelName, int roomNumber, String roomType, int count) {
+        int successes = 0;
+        
+        HotelModel hotel = findHotelByName(hotelName);
+        if (hotel != null) {
+            Room room = hotel.getRoom(roomNumber);
+            if(hotel.getRoomCount() >= HotelModel.MAX_ROOMS) // Ensure the maximum is enforced
+            {
+                view.displayMaxRooms();
+                return;
+            } else if(room == null && (roomType.equalsIgnoreCase("Standard") || roomType.equalsIgnoreCase("Deluxe") || roomType.equalsIgnoreCase("Executive"))) 
+            {
+                double price = DEFAULT_ROOM_PRICE;
+                if(hotel.getRooms().size()>0) {
+                    price = hotel.getRooms().get(0).getPrice(); // If there exists a room already, automatically set it to have the same base price
+                }
+                for(int i=0;i<count;i++){
+                    successes += addRoomToHotel(hotelName, roomNumber+i, roomType, price);
+                }
+                view.displaySuccess("Added " + successes + " room(s)");
+                return;
+            }
+            else {
+                view.displayEnterAnother("room number or appropriate type of room.");
+            }
+        }
+    }
+
+    /**
+     * Adds rooms with consecutive room numbers to the hotel with the specified name in the background.
+     *
+     * @param hotelName  Name of the hotel to which rooms are to be added
+     * @param roomNumber Starting room number of the first room to be added
+     * @param roomType   Type of room to be added
+     * @param count      Number of rooms to be added
+     * @return Future completed once the rooms are added
+     */
+    public CompletableFuture<Void> addRoomToHotelAsync(String hotelName, int roomNumber, String roomType, int count) {
+        return commands.submit(() -> addRoomToHotel(hotelName, roomNumber, roomType, count));
+    }
+
+     /**
+     * Adds a room with the specified room number and price to the hotel with the specified name.
+     * Displays a success message upon successful addition of the room.
+     *
+     * @param hotelName  Name of the hotel to which the room is to be added
+     * @param roomNumber Room number of the room to be added
+     * @param roomType   Type of room to be added
+     * @param price      Price of the room to be added
+     * @return 1 if the room was successfully added, 0 otherwise
+     */
+    public int addRoomToHotel(String hotelName, int roomNumber, String roomType, double price) {
+        HotelModel hotel = findHotelByName(hotelName);
+        if (hotel != null) {
+            Room room = hotel.getRoom(roomNumber);
+            if (room == null) {
+                if(roomType.equalsIgnoreCase("Deluxe"))
+                    hotel.addRoom((Room)new Deluxe(roomNumber, price));
+                else if(roomType.equalsIgnoreCase("Executive"))
+                    hotel.addRoom((Room)new Executive(roomNumber, price));
+                else if(roomType.equalsIgnoreCase("Standard"))
+                    hotel.addRoom(new Room(roomNumber, price));
+                awaitJournal();
+                view.displaySuccess("Room "+ roomNumber + " added");
+                return 1;
+            } else {
+                view.displayEnterAnother("room number.");
+                return 0;
+            }
+        } else {
+            view.displayHotelNotFound(hotelName);
+            return 0;
+        }
+    }
+
+    /**
+     * Removes the room with the specified room number from the hotel with the specified name.
+     * Displays a success message upon successful removal of the room.
+     *
+     * @param hotelName  Name of the hotel from which the room is to be removed
+     * @param roomNumber Room number of the room to be removed
+     * @return true if the room was successfully removed, false otherwise
+     */
+    public boolean removeRoomFromHotel(String hotelName, int roomNumber) {
+        HotelModel hotel = findHotelByName(hotelName);
+        if (hotel != null) {
+            Room room = hotel.getRoom(roomNumber);
+            if (room != null && hotel.getRoomCount()>1) {
+                if (!hotel.removeRoom(roomNumber)) { // Checked again under the room's lock
+                    view.displayError("Unable to remove a room that is reserved.");
+                    return false;
+                }
+                awaitJournal();
+                view.displaySuccess("Room removed");
+                return true;
+            } else if(room != null) {
+                view.displayMinRooms();
+                return false;
+            }
+            else {
+                view.displayRoomNotFound(roomNumber);
+                return false;
+            }
+        } else {
+            view.displayHotelNotFound(hotelName);
+            return false;
+        }
+    }
+
+    /**
+     * Updates the price of all rooms in the hotel with the specified name to the new price,
+     * provided that the new price is greater than 100.0 and the hotel has zero reservations.
+     * Displays a success message upon successful update of room prices.
+     *
+     * @param hotelName Name of the hotel whose room prices are to be updated
+     * @param newPrice  New price for the rooms in the hotel
+     */
+    public void updateRoomPrice(String hotelName, double newPrice) {
+        if (newPrice < 100) {
+            view.displayEnterAnother("price. Must be greater than 100.0.");
+            return;
+        }
+
+        HotelModel hotel = findHotelByName(hotelName);
+        if (hotel != null && hotel.getReservationCount()==0) {
+            for(Room room : hotel.getRooms())
+                hotel.updateRoomPrice(room.getRoomNumber(), newPrice);
+            awaitJournal();
+            view.displaySuccess("Room prices updated");
+            return;
+        } else if(hotel != null && hotel.getReservationCount()>0){
+            view.displayEnterAnother("hotel. Only hotels with zero reservations can update price.");
+        }
+        else {
+            view.displayHotelNotFound(hotelName);
+        }
+    }
+
+    /**
+     * Changes the name of the hotel with the oldName to the newName, ensuring that no other hotel
+     * with the newName exists. Displays a success message upon successful name change.
+     *
+     * @param oldName Old name of the hotel to be renamed
+     * @param newName New name for the hotel
+     * @return true if the hotel name was successfully changed, false otherwise
+     */
+    public boolean changeHotelName(String oldName, String newName) {
+        if (!Journal.isRecordable(newName)) {
+            view.displayEnterAnother("new hotel name. The name is too long.");
+            return false;
+        }
+        if (findHotelByName(newName) != null) {
+            view.displayEnterAnother("new hotel name.");
+            return false;
+        }
+
+        HotelModel hotel = findHotelByName(oldName);
+        if (hotel != null) {
+            if (!hotels.rename(hotel, newName)) {
+                view.displayEnterAnother("new hotel name.");
+                return false;
+            }
+            awaitJournal();
+            view.displaySuccess("Hotel name changed");
+            return true;
+        } else {
+            view.displayHotelNotFound(oldName);
+            return false;
+        }
+    }
+
+     /**
+     * Estimates the earnings for the hotel with the specified name, calculating the total earnings
+     * from all booked rooms in the hotel.
+     *
+     * @param hotelName Name of the hotel for which earnings are to be estimated
+     * @return Estimated earnings for the hotel
+     */
+    public double estimateEarnings(String hotelName) {
+        long start = System.nanoTime();
+        ReservationEvent phase = ReservationEvent.begin("estimateEarnings", "lookup");
+        HotelModel hotel = findHotelByName(hotelName);
+        phase.end(hotelName, 0, 0, hotel != null ? "found" : "hotel not found");
+        if (hotel != null) {
+            phase = ReservationEvent.begin("estimateEarnings", "earnings");
+            double earnings = hotel.getSnapshot().getEarnings();
+            phase.end(hotelName, 0, 0, "estimated");
+            earningsStats.record(start, true);
+            return earnings;
+        } else {
+            view.displayHotelNotFound(hotelName);
+            earningsStats.record(start, false);
+            return 0;
+        }
+    }
+
+    /**
+     * Estimates the earnings of the hotel with the specified name in the background.
+     *
+     * @param hotelName Name of the hotel for which earnings are to be estimated
+     * @return Future completed with the estimated earnings for the hotel
+     */
+    public CompletableFuture<Double> estimateEarningsAsync(String hotelName) {
+        return commands.submit(() -> estimateEarnings(hotelName));
+    }
+
+    /**
+     * Retrieves a list of rooms that are currently booked in the hotel with the specified name.
+     *
+     * @param hotelName Name of the hotel for which booked rooms are to be retrieved
+     * @return List of booked rooms in the hotel
+     */
+    public List<Room> getBookedRooms(String hotelName, int date) {
+        long start = System.nanoTime();
+        HotelModel hotel = findHotelByName(hotelName);
+        if (hotel != null) {
+            List<Room> bookedRooms = new ArrayList<>();
+            for (Room room : hotel.getRooms()) {
+                if (room.isBooked()) {
+                    bookedRooms.add(room);
+                }
+            }
+            availabilityStats.record(start, true);
+            return bookedRooms;
+        } else {
+            view.displayHotelNotFound(hotelName);
+            availabilityStats.record(start, false);
+            return null;
+        }
+    }
+
+   /**
+     * Retrieves a list of rooms that are currently available (not booked) in the hotel with the specified name.
+     *
+     * @param hotelName Name of the hotel for which available rooms are to be retrieved
+     * @return List of available rooms in the hotel
+     */
+    public List<Room> getAvailableRooms(String hotelName, int date) {
+        long start = System.nanoTime();
+        HotelModel hotel = findHotelByName(hotelName);
+        if (hotel != null) {
+            List<Room> availableRooms = new ArrayList<>();
+            for (Room room : hotel.getRooms()) {
+                if (!room.isBooked()) {
+                    availableRooms.add(room);
+                }
+            }
+            availabilityStats.record(start, true);
+            return availableRooms;
+        } else {
+            view.displayHotelNotFound(hotelName);
+            availabilityStats.record(start, false);
+            return null;
+        }
+    }
+
+    /**
+     * Finds the first rooms of a type in the hotel with the specified name that are free
+     * for every night of the given stay.
+     *
+     * @param hotelName    Name of the hotel to search
+     * @param roomType     Type of room ("Standard", "Deluxe" or "Executive"), or null for any type
+     * @param checkInDate  Check-in date for the stay
+     * @param checkOutDate Check-out date for the stay
+     * @param limit        Maximum number of rooms to return
+     * @return Free rooms in the hotel, or null if the hotel was not found
+     */
+    public List<Room> findAvailableRooms(String hotelName, String roomType, int checkInDate, int checkOutDate, int limit) {
+        long start = System.nanoTime();
+        HotelModel hotel = findHotelByName(hotelName);
+        if (hotel == null) {
+            view.displayHotelNotFound(hotelName);
+            freeRoomStats.record(start, false);
+            return null;
+        }
+        List<Room> found = hotel.findAvailableRooms(roomType, checkInDate, checkOutDate, limit);
+        freeRoomStats.record(start, true);
+        return found;
+    }
+
+     /**
+     * Retrieves the count of available rooms in the hotel with the specified name for the given date range.
+     *
+     * @param hotelName   Name of the hotel for which available rooms count is to be retrieved
+     * @param checkInDate Check-in date for the reservation
+     * @param checkOutDate Check-out date for the reservation
+     * @return Count of available rooms in the hotel for the specified date range
+     */
+    public int getAvailableRoomsCount(String hotelName, int checkInDate, int checkOutDate) {
+        long start = System.nanoTime();
+        HotelModel hotel = getHotel(hotelName);
+        if (hotel != null) {
+            int count = 0;
+            for (Room room : hotel.getRooms()) {
+                if (room.isAvailable(checkInDate, checkOutDate)) {
+                    count++;
+                }
+            }
+            availabilityStats.record(start, true);
+            return count;
+        }
+        availabilityStats.record(start, false);
+        return 0;
+    }
+
+     /**
+     * Retrieves the count of booked rooms in the hotel with the specified name for the given date range.
+     *
+     * @param hotelName   Name of the hotel for which booked rooms count is to be retrieved
+     * @param checkInDate Check-in date for the reservation
+     * @param checkOutDate Check-out date for the reservation
+     * @return Count of booked rooms in the hotel for the specified date range
+     */
+    public int getBookedRoomsCount(String hotelName, int checkInDate, int checkOutDate) {
+        long start = System.nanoTime();
+        HotelModel hotel = getHotel(hotelName);
+        if (hotel != null) {
+            int count = 0;
+            for (Room room : hotel.getRooms()) {
+                if (!room.isAvailable(checkInDate, checkOutDate)) {
+                    count++;
+                }
+            }
+            availabilityStats.record(start, true);
+            return count;
+        }
+        availabilityStats.record(start, false);
+        return 0;
+    }
+
+    /**
+     * Makes a reservation for the specified guest in the room with the given roomNumber
+     * at the hotel with the specified hotelName for the provided check-in and check-out dates.
+     * Displays a success message upon successful reservation.
+     *
+     * @param hotelName   Name of the hotel for which reservation is to be made
+     * @param roomNumber  Room number of the room for which reservation is to be made
+     * @param guestName   Name of the guest making the reservation
+     * @param checkInDate Check-in date for the reservation
+     * @param checkOutDate Check-out date for the reservation
+     * @return true if the reservation was made, false otherwise
+     */
+    public boolean makeReservation(String hotelName, int roomNumber, int checkInDate, int checkOutDate, String guestName, String discountCode) {
+        long start = System.nanoTime();
+        return reservationStats.record(start, reserve(hotelName, roomNumber, checkInDate, checkOutDate, guestName, discountCode));
+    }
+
+    /**
+     * Makes a reservation and shows the outcome; makeReservation times it.
+     *
+     * @return true if the reservation was made, false otherwise
+     */
+    private boolean reserve(String hotelName, int roomNumber, int checkInDate, int checkOutDate, String guestName, String discountCode) {
+        int nights = checkOutDate - checkInDate;
+        ReservationEvent phase = ReservationEvent.begin("makeReservation", "lookup");
+        HotelModel hotel = findHotelByName(hotelName);
+        Room room = hotel != null ? hotel.getRoom(roomNumber) : null;
+        phase.end(hotelName, roomNumber, nights, hotel == null ? "hotel not found" : room == null ? "room not found" : "found");
+        if (!Journal.isRecordable(guestName)) {
+            view.displayEnterAnother("guest name. The name is too long.");
+        } else if (hotel != null) {
+            if (room != null) {
+                phase = ReservationEvent.begin("makeReservation", "overlap check");
+                boolean bookable = hotel.isBookable(checkInDate, checkOutDate);
+                boolean overlapping = bookable && isOverlappingReservation(room, checkInDate, checkOutDate);
+                phase.end(hotelName, roomNumber, nights, !bookable ? "invalid dates" : overlapping ? "overlapping" : "free");
+                if (!bookable) {
+                    view.displayEnterAnother("date range. Check-out must be after check-in, within " + CalendarDays.MAX_STAY_NIGHTS + " nights, and not in the past.");
+                } else if (overlapping) {
+                    view.displayEnterAnother("date range. The room is already booked for the selected dates.");
+                } else {
+                    phase = ReservationEvent.begin("makeReservation", "pricing"); // Includes any discount dialog
+                    Reservation reservation = new Reservation(room, guestName, roomNumber, checkInDate, checkOutDate);
+                    reservation.calculateTotalPrice(hotel);
+                    double fullPrice = reservation.getTotalPrice();
+                    reservation.applyDiscount(discountCode);
+                    phase.end(hotelName, roomNumber, nights, reservation.getTotalPrice() < fullPrice ? "discounted" : "full price");
+                    phase = ReservationEvent.begin("makeReservation", "booking");
+                    boolean booked = hotel.book(reservation);
+                    phase.end(hotelName, roomNumber, nights, booked ? "booked" : "overlapping");
+                    if (booked) {
+                        awaitJournal();
+                        view.displaySuccess("Reservation made with total price: " + reservation.getTotalPrice());
+                        view.displaySuccess("Reservation #" + reservation.getId() + " made for " + guestName);
+                        return true;
+                    } else {
+                        view.displayEnterAnother("date range. The room is already booked for the selected dates.");
+                    }
+                }
+            } else {
+                view.displayRoomNotFound(roomNumber);
+            }
+        } else {
+            view.displayHotelNotFound(hotelName);
+        }
+        return false;
+    }    
+    
+
+    /**
+     * Books a batch of stays in the hotel with the specified name, all of them or none.
+     * The hotel is looked up once and a single summary message is shown for the whole batch.
+     *
+     * @param hotelName Name of the hotel in which the stays are to be booked
+     * @param requests  Stays to be booked, each with its room, guest and dates
+     * @return The booked reservations in request order, or null if nothing was booked
+     */
+    public List<Reservation> makeReservations(String hotelName, List<BookingRequest> requests) {
+        HotelModel hotel = findHotelByName(hotelName);
+        if (hotel == null) {
+            view.displayHotelNotFound(hotelName);
+            return null;
+        }
+        List<Reservation> booked;
+        try {
+            booked = hotel.bookAll(requests);
+        } catch (IllegalArgumentException e) {
+            view.displayError("No rooms were booked. " + e.getMessage());
+            return null;
+        }
+        awaitJournal();
+        double total = 0;
+        for (Reservation reservation : booked) {
+            total += reservation.getTotalPrice();
+        }
+        if (booked.isEmpty()) {
+            view.displaySuccess("No rooms to book");
+        } else {
+            view.displaySuccess("Booked " + booked.size() + " reservation(s), #" + booked.get(0).getId()
+                    + " to #" + booked.get(booked.size() - 1).getId() + ", with total price: " + total);
+        }
+        return booked;
+    }
+
+    /**
+     * Imports hotels, rooms and reservations from a CSV file, checking every row against the
+     * same rules as the menus. A single summary is shown, with the first rows rejected.
+     *
+     * @param file        CSV file to import, in the format described by CsvImporter
+     * @param rejectsFile File every rejected row is written to, or null for none
+     * @return What was added and rejected, or null if the file could not be read
+     */
+    public CsvImporter.Report importCsv(Path file, Path rejectsFile) {
+        CsvImporter.Report report;
+        try {
+            report = new CsvImporter(hotels).importFile(file, rejectsFile);
+        } catch (IOException | UncheckedIOException e) {
+            view.displayError("Could not import " + file.getFileName() + ": " + e.getMessage());
+            return null;
+        }
+        awaitJournal();
+        StringBuilder message = new StringBuilder(report.toString());
+        List<String> rejects = report.getRejects();
+        for (int i = 0; i < Math.min(rejects.size(), IMPORT_REJECTS_SHOWN); i++) {
+            message.append("\n").append(rejects.get(i));
+        }
+        if (report.getRejected() > IMPORT_REJECTS_SHOWN && rejectsFile != null) {
+            message.append("\nEvery rejected row is listed in ").append(rejectsFile);
+        }
+        view.displaySuccess(message.toString());
+        return report;
+    }
+
+    /**
+     * Exports a report on every hotel to a file, streaming it from the hotels' snapshots
+     * so a chain of any size is written without gathering the report in memory.
+     *
+     * @param file     File to write the report to, replacing it if it exists
+     * @param report   Report to write
+     * @param format   Format to write it in
+     * @param firstDay First night of an occupancy grid, or the night of a room list
+     * @param lastDay  Last night of an occupancy grid, inclusive
+     * @return true if the report was written, false otherwise
+     */
+    public boolean exportReport(Path file, ReportExporter.Report report, ReportExporter.Format format, int firstDay, int lastDay) {
+        long start = System.nanoTime();
+        ReportExporter exporter;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            exporter = new ReportExporter(channel, format);
+            exporter.export(report, hotels.getHotels(), firstDay, lastDay);
+        } catch (IOException | IllegalArgumentException e) {
+            view.displayError("Could not export the report: " + e.getMessage());
+            return false;
+        }
+        view.displaySuccess(String.format("%s exported to %s: %.1f MB in %.1f ms", report, file,
+                exporter.getBytesWritten() / 1e6, (System.nanoTime() - start) / 1e6));
+        return true;
+    }
+
+    /**
+     * Helper method to check for overlapping reservations.
+     * Stays are half-open, so a guest may check in on the day another checks out.
+     * @param room Room for which reservation is to be made
+     * @param checkInDate Check-in date for the reservation
+     * @param checkOutDate Check-out date for the reservation
+     * @return true if an existing reservation overlaps the dates, false otherwise
+     */
+    private boolean isOverlappingReservation(Room room, int checkInDate, int checkOutDate) {
+        return room.findOverlapping(checkInDate, checkOutDate) != null;
+    }
+
+    /**
+     * Cancels the reservation for the specified room in the hotel with the specified hotelName
+     * for the provided check-in and check-out dates.
+     * Displays a success message upon successful cancellation.
+     *
+     * @param hotelName   Name of the hotel for which reservation is to be cancelled
+     * @param roomNumber  Room number of the room for which reservation is to be cancelled
+     * @param checkInDate Check-in date for the reservation
+     * @param checkOutDate Check-out date for the reservation
+     */
+    public void cancelReservation(String hotelName, int roomNumber, int checkInDate, int checkOutDate) {
+        long start = System.nanoTime();
+        int nights = checkOutDate - checkInDate;
+        ReservationEvent phase = ReservationEvent.begin("cancelReservation", "lookup");
+        HotelModel hotel = findHotelByName(hotelName);
+        Room room = hotel != null ? hotel.getRoom(roomNumber) : null;
+        Reservation reservation = room != null ? room.getReservation(checkInDate, checkOutDate) : null;
+        phase.end(hotelName, roomNumber, nights, hotel == null ? "hotel not found" : room == null ? "room not found"
+                : reservation == null ? "reservation not found" : "found");
+        if (hotel != null) {
+            if (room != null) {
+                if (cancellationStats.record(start, reservation != null && cancel(hotel, reservation))) {
+                    view.displaySuccess("Reservation #" + reservation.getId() + " cancelled");
+                } else {
+                    view.displayEnterAnother("reservation. The specified dates do not match any reservation.");
+                }
+            } else {
+                cancellationStats.record(start, false);
+                view.displayRoomNotFound(roomNumber);
+            }
+        } else {
+            cancellationStats.record(start, false);
+            view.displayHotelNotFound(hotelName);
+        }
+    }
+
+    /**
+     * Cancels a reservation already found in a hotel, recording the phase for the flight recorder,
+     * and waits for the journal to have the cancellation on disk.
+     *
+     * @param hotel       Hotel the reservation was found in
+     * @param reservation Reservation to cancel
+     * @return true if the reservation was cancelled, false if it was cancelled by someone else first
+     */
+    private boolean cancel(HotelModel hotel, Reservation reservation) {
+        ReservationEvent phase = ReservationEvent.begin("cancelReservation", "cancel");
+        boolean cancelled = hotel.cancelReservation(reservation);
+        phase.end(hotel.getHotelName(), reservation.getRoomNumber(),
+                reservation.getCheckOutDate() - reservation.getCheckInDate(), cancelled ? "cancelled" : "not found");
+        if (cancelled) {
+            awaitJournal();
+        }
+        return cancelled;
+    }
+
+    /**
+     * Cancels the reservation with the specified ID in the hotel with the specified hotelName.
+     * Displays a success message upon successful cancellation.
+     *
+     * @param hotelName     Name of the hotel for which reservation is to be cancelled
+     * @param reservationId ID of the reservation to be cancelled
+     * @return true if the reservation was cancelled, false otherwise
+     */
+    public boolean cancelReservation(String hotelName, int reservationId) {
+        long start = System.nanoTime();
+        ReservationEvent phase = ReservationEvent.begin("cancelReservation", "lookup");
+        HotelModel hotel = findHotelByName(hotelName);
+        Reservation reservation = hotel != null ? hotel.getReservation(reservationId) : null;
+        phase.end(hotelName, reservation != null ? reservation.getRoomNumber() : 0,
+                reservation != null ? reservation.getCheckOutDate() - reservation.getCheckInDate() : 0,
+                hotel == null ? "hotel not found" : reservation == null ? "reservation not found" : "found");
+        if (hotel == null) {
+            view.displayHotelNotFound(hotelName);
+            return cancellationStats.record(start, false);
+        }
+        if (cancellationStats.record(start, reservation != null && cancel(hotel, reservation))) {
+            view.displaySuccess("Reservation #" + reservationId + " cancelled");
+            return true;
+        }
+        view.displayEnterAnother("reservation ID. No reservation has ID " + reservationId + ".");
+        return false;
+    }
+
+    /**
+     * Finds the reservations of every guest whose name starts with the given prefix,
+     * ignoring case, across all hotels managed by the controller.
+     *
+     * @param prefix Start of the guest name; an exact name matches that guest and any longer names
+     * @param limit  Maximum number of reservations to return
+     * @return Matching reservations, grouped by hotel in the order the hotels were added
+     */
+    public List<Reservation> findReservationsByGuest(String prefix, int limit) {
+        List<Reservation> found = new ArrayList<>();
+        for (HotelModel hotel : hotels.getHotels()) {
+            if (found.size() >= limit) {
+                break;
+            }
+            found.addAll(hotel.findReservationsByGuestPrefix(prefix, limit - found.size()));
+        }
+        return found;
+    }
+
+    /**
+     * Builds the chain-wide report of earnings, rooms and nightly occupancy across every hotel,
+     * totalling the hotels in parallel on the common fork-join pool.
+     *
+     * @param firstDay First night to report occupancy for
+     * @param lastDay  Last night to report occupancy for, inclusive
+     * @return The report, including the speed-up gained from running in parallel
+     */
+    public ChainReport reportChain(int firstDay, int lastDay) {
+        return ChainReport.of(hotels.getHotels(), firstDay, lastDay);
+    }
+
+    /**
+     * Builds the chain-wide report in the background.
+     *
+     * @param firstDay First night to report occupancy for
+     * @param lastDay  Last night to report occupancy for, inclusive
+     * @return Future completed with the report
+     */
+    public CompletableFuture<ChainReport> reportChainAsync(int firstDay, int lastDay) {
+        return commands.submit(() -> reportChain(firstDay, lastDay));
+    }
+
+    /**
+     * Retrieves the list of hotels managed by the controller.
+     *
+     * @return List of HotelModel objects representing the hotels managed by the controller
+     */
+    public List<HotelModel> getHotels() {
+        return hotels.getHotels();
+    }
+
+    /**
+     * Retrieves the list of hotels managed by the controller in the background.
+     *
+     * @return Future completed with the hotels managed by the controller
+     */
+    public CompletableFuture<List<HotelModel>> getHotelsAsync() {
+        return commands.submit(this::getHotels);
+    }
+
+     /**
+     * Retrieves the availability details of the room with the specified roomNumber in the hotel with the specified hotelName
+     * across the month, providing a list of Room objects representing the availability status for each day.
+     *
+     * @param hotelName  Name of the hotel for which room availability is to be retrieved
+     * @param roomNumber Room number of the room for which availability is to be retrieved
+     * @return List of Room objects representing the availability status across the month
+     */
+    public List<Room> getRoomAvailabilityAcrossMonth(String hotelName, int roomNumber) {
+        HotelModel hotel = getHotel(hotelName);
+        if (hotel != null) {
+            Room room = hotel.getRoom(roomNumber);
+            if (room != null) {
+                return room.getAvailabilityAcrossMonth(); // Ensure Room class has this method
+            }
+        }
+        return new ArrayList<>();
+    }
+
+     /**
+     * Retrieves the HotelModel object representing the hotel with the specified name.
+     *
+     * @param hotelName Name of the hotel to be retrieved
+     * @return HotelModel object representing the hotel with the specified name,
+     *         or null if no such hotel exists
+     */
+    public HotelModel getHotel(String hotelName) {
+        HotelModel hotel = findHotelByName(hotelName);
+        if (hotel != null) {
+            return hotel;
+        } else {
+            view.displayHotelNotFound(hotelName);
+            return null;
+        }
+    }
+
+   /**
+     * Retrieves the reservation details for the specified room in the hotel with the specified hotelName,
+     * for the provided check-in and check-out dates.
+     *
+     * @param hotelName   Name of the hotel for which reservation details are to be retrieved
+     * @param roomNumber  Room number of the room for which reservation details are to be retrieved
+     * @param checkInDate Check-in date for the reservation
+     * @param checkOutDate Check-out date for the reservation
+     * @return Reservation object representing the reservation details,
+     *         or null if no such reservation exists
+     */
+    public Reservation getReservationDetails(String hotelName, int roomNumber, int checkInDate, int checkOutDate) {
+        HotelModel hotel = getHotel(hotelName);
+        if (hotel == null) {
+            return null;
+        }
+    
+        Room room = hotel.getRoom(roomNumber);
+        if (room == null) {
+            return null;
+        }
+    
+        return room.getReservation(checkInDate, checkOutDate);
+    }
+
+    /**
+     * Retrieves the reservation with the specified ID in the hotel with the specified hotelName.
+     *
+     * @param hotelName     Name of the hotel for which reservation details are to be retrieved
+     * @param reservationId ID of the reservation
+     * @return Reservation object representing the reservation details,
+     *         or null if no such reservation exists
+     */
+    public Reservation getReservationDetails(String hotelName, int reservationId) {
+        HotelModel hotel = getHotel(hotelName);
+        if (hotel == null) {
+            return null;
+        }
+        return hotel.getReservation(reservationId);
+    }
+    
+    /**
+     * Method to set a percent modifier for a specific date
+     * @param day day in which price is being modified
+     * @param percent percent from 50% to 150% on price to modify
+     */
+    public void datePriceModifier(HotelModel hotel, int day, int percent){
+        hotel.setDayModifier(day, percent);
+        awaitJournal();
+    }
+
+    /**
+     * Method to set a percent modifier for a date range
+     * @param day1 first day in which price is being modified
+     * @param day2 last day in which price is being modified
+     * @param percent percent from 50% to 150% on price to modify
+     */
+    public void datePriceModifier(HotelModel hotel, int day1, int day2, int percent){
+        hotel.setDayModifier(day1, day2, percent);
+        awaitJournal();
+    }
+
+    /**
+     * Method to set a percent modifier for a date range in the background,
+     * since every reservation in the range is repriced
+     * @param day1 first day in which price is being modified
+     * @param day2 last day in which price is being modified
+     * @param percent percent from 50% to 150% on price to modify
+     * @return future completed once the prices are updated
+     */
+    public CompletableFuture<Void> datePriceModifierAsync(HotelModel hotel, int day1, int day2, int percent){
+        return commands.submit(() -> datePriceModifier(hotel, day1, day2, percent));
+    }
+
+    /**
+     * 
+     * @param hotelName Name of the hotel for which reservation details are to be retrieved
+     * @param date      Day in which user wants to check available/booked rooms 
+     */
+    public void showRoomCountsForDate(String hotelName, int date) {
+        long start = System.nanoTime();
+        HotelModel hotel = findHotelByName(hotelName);
+        if (hotel != null) {
+            int bookedRooms = hotel.countBookedRooms(date);
+            int availableRooms = hotel.getRooms().size() - bookedRooms;
+            availabilityStats.record(start, true);
+            view.displayRoomCountsForDate(availableRooms, bookedRooms);
+        } else {
+            availabilityStats.record(start, false);
+            view.displayHotelNotFound(hotelName);
+        }
+    }
+
+    /**
+     * 
+     * @param hotel Hotel in which room is from
+     * @param room  Room in which information is being shown
+     */
+    public void showRoomInfoAcrossMonth(HotelModel hotel, Room room) {
+        showRoomInfoAcrossMonth(hotel, room, YearMonth.now());
+    }
+
+    /**
+     * 
+     * @param hotel Hotel in which room is from
+     * @param room  Room in which information is being shown
+     * @param month Month to show
+     */
+    public void showRoomInfoAcrossMonth(HotelModel hotel, Room room, YearMonth month) {
+        //if (hotel != null) {
+            StringBuilder sb = new StringBuilder("Room information for " + month + ":\n");
+            // Read the whole month from one snapshot so a booking made meanwhile never shows half-way
+            HotelSnapshot.RoomView snapshotRoom = hotel.getSnapshot().getRoom(room.getRoomNumber());
+            //for (Room room : hotel.getRooms()) {
+                sb.append("Room ").append(room.getRoomNumber()).append(":\n");
+                int firstDay = CalendarDays.firstDayOf(month);
+                for (int day = firstDay; day < firstDay + month.lengthOfMonth(); day++) {
+                    sb.append("  Day ").append(day - firstDay + 1).append(": ");
+                    if (snapshotRoom != null ? snapshotRoom.isBookedOnDate(day) : room.isBookedOnDate(day)) {
+                        sb.append("Booked\n");
+                    } else {
+                        sb.append("Available\n");
+                    }
+                }
+            view.displayRoomInfoAcrossMonth(sb.toString());
+    }
+}
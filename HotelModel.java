@@ -1,276 +1,1131 @@
-
-import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.List;
-
-/**
- * Represents a hotel with rooms and reservations.
- */
-public class HotelModel {
-    private String hotelName;
-    private List<Room> rooms;
-    private List<Reservation> reservations;
-    private int[] dayModifier = new int[31];
-
-    /**
-     * Constructs a new HotelModel with the specified hotel name.
-     * @param hotelName The name of the hotel.
-     */
-    public HotelModel(String hotelName) {
-        this.hotelName = hotelName;
-        this.rooms = new ArrayList<>();
-        this.reservations = new ArrayList<>();
-        this.dayModifier = new int[31];
-        for(int i=0;i<31;i++){
-            dayModifier[i]=100; // initializes all days to 100% price
-        }
-    }
-
-    /**
-     * Retrieves the name of the hotel.
-     * @return The name of the hotel.
-     */
-    public String getHotelName() {
-        return hotelName;
-    }
-
-    /**
-     * Sets the name of the hotel.
-     * @param hotelName The new name of the hotel.
-     */
-    public void setHotelName(String hotelName) {
-        this.hotelName = hotelName;
-    }
-
-    /**
-     * Retrieves the list of rooms in the hotel.
-     * @return The list of rooms.
-     */
-    public List<Room> getRooms() {
-        return rooms;
-    }
-
-    /**
-     * Retrieves the list of reservations made in the hotel.
-     * @return The list of reservations.
-     */
-    public List<Reservation> getReservations() {
-        return reservations;
-    }
-
-    /**
-     * Adds a reservation to the hotel.
-     * @param reservation The reservation to add.
-     */
-    public void addReservation(Reservation reservation) {
-        this.reservations.add(reservation);
-    }
-
-    /**
-     * Adds a room to the hotel.
-     * @param room The room to add.
-     */
-    public void addRoom(Room room) {
-        this.rooms.add(room);
-    }
-
-    /**
-     * Retrieves a room by its room number.
-     * @param roomNumber The number of the room to retrieve.
-     * @return The room with the specified room number, or null if not found.
-     */
-    public Room getRoom(int roomNumber) {
-        for (Room room : rooms) {
-            if (room.getRoomNumber() == roomNumber) {
-                return room;
-            }
-        }
-        return null; // Room not found
-    }
-
-    /**
-     * Removes a room from the hotel by its room number.
-     * @param roomNumber The number of the room to remove.
-     * @return true if the room was successfully removed, false otherwise.
-     */
-    public boolean removeRoom(int roomNumber) {
-        Iterator<Room> iterator = rooms.iterator();
-        while (iterator.hasNext()) {
-            Room room = iterator.next();
-            if (room.getRoomNumber() == roomNumber) {
-                iterator.remove();
-                return true; // Room removed
-            }
-        }
-        return false; // Room not found
-    }
-
-    /**
-     * Updates the price of a room in the hotel.
-     * @param roomNumber The number of the room to update.
-     * @param newPrice The new price of the room.
-     * @return true if the room's price was successfully updated, false otherwise.
-     */
-    public boolean updateRoomPrice(int roomNumber, double newPrice) {
-        Room room = getRoom(roomNumber);
-        if (room != null) {
-            room.setPrice(newPrice);
-            return true; // Price updated
-        }
-        return false; // Room not found
-    }
-
-    /**
-     * Calculates the total earnings from booked rooms in the hotel.
-     * @return The total earnings from booked rooms.
-     */
-    public double calculateEarnings() {
-        double earnings = 0;
-        for (Reservation reservation : reservations) {
-            reservation.calculateTotalPrice(this);
-            earnings += reservation.getTotalPrice();
-        }
-        return earnings;
-    }
-
-    /**
-     * Retrieves a list of rooms that are currently booked in the hotel.
-     * @return The list of booked rooms.
-     */
-    public List<Room> getBookedRooms() {
-        List<Room> bookedRooms = new ArrayList<>();
-        for (Room room : rooms) {
-            if (room.isBooked()) {
-                bookedRooms.add(room);
-            }
-        }
-        return bookedRooms;
-    }
-
-    /**
-     * Retrieves a list of rooms that are currently available in the hotel.
-     * @return The list of available rooms.
-     */
-    public List<Room> getAvailableRooms() {
-        List<Room> availableRooms = new ArrayList<>();
-        for (Room room : rooms) {
-            if (!room.isBooked()) {
-                availableRooms.add(room);
-            }
-        }
-        return availableRooms;
-    }
-
-    /**
-     * Reserves a room in the hotel for a specified guest and date range.
-     * @param roomNumber The number of the room to reserve.
-     * @param guestName The name of the guest reserving the room.
-     * @param checkInDate The check-in date for the reservation.
-     * @param checkOutDate The check-out date for the reservation.
-     * @return true if the room was successfully reserved, false otherwise.
-     */
-    public boolean reserveRoom(int roomNumber, String guestName, int checkInDate, int checkOutDate) {
-        Room room = getRoom(roomNumber);
-        if (room != null && !room.isBooked(checkInDate, checkOutDate)) {
-            Reservation reservation = new Reservation(room, guestName, roomNumber, checkInDate, checkOutDate);
-            room.addReservation(reservation);
-            reservations.add(reservation);
-            return true; // Room reserved
-        }
-        return false; // Room not available or already booked
-    }
-
-    /**
-     * Cancels a reservation in the hotel by the room number.
-     * @param roomNumber The number of the room whose reservation should be cancelled.
-     * @return true if the reservation was successfully cancelled, false otherwise.
-     */
-    public boolean cancelReservation(int roomNumber) {
-        Iterator<Reservation> reservationIterator = reservations.iterator();
-        while (reservationIterator.hasNext()) {
-            Reservation reservation = reservationIterator.next();
-            if (reservation.getRoomNumber() == roomNumber) {
-                reservationIterator.remove(); // Remove the reservation
-                Room room = getRoom(roomNumber);
-                if (room != null) {
-                    room.removeReservation(reservation); // Unbook the room
-                }
-                return true; // Reservation cancelled
-            }
-        }
-        return false; // Reservation not found
-    }
-
-    /**
-     * Counts the number of available rooms in the hotel for a given date.
-     * @param date The date for which availability is checked.
-     * @return The number of available rooms.
-     */
-    public int countAvailableRooms(int date) {
-        int availableCount = 0;
-        for (Room room : rooms) {
-            if (!room.isBookedOnDate(date)) {
-                availableCount++;
-            }
-        }
-        return availableCount;
-    }
-
-    /**
-     * Counts the number of booked rooms in the hotel for a given date.
-     * @param date The date for which bookings are checked.
-     * @return The number of booked rooms.
-     */
-    public int countBookedRooms(int date) {
-        int bookedCount = 0;
-        for (Room room : rooms) {
-            if (room.isBookedOnDate(date)) {
-                bookedCount++;
-            }
-        }
-        return bookedCount;
-    }
-
-    /**
-     * Removes a reservation from the hotel by room number and dates.
-     * @param roomNumber The number of the room for which the reservation should be removed.
-     * @param checkInDate The check-in date of the reservation to be removed.
-     * @param checkOutDate The check-out date of the reservation to be removed.
-     */
-    public void removeReservation(int roomNumber, int checkInDate, int checkOutDate) {
-        reservations.removeIf(reservation -> reservation.getRoomNumber() == roomNumber &&
-                                             reservation.getCheckInDate() == checkInDate &&
-                                             reservation.getCheckOutDate() == checkOutDate);
-        Room room = getRoom(roomNumber);
-        if (room != null) {
-            room.removeReservation(checkInDate, checkOutDate);
-        }
-    }
-
-    /**
-     * 
-     * @return the array of modifiers for each day
-     */
-    public int[] getDayModifier(){
-        return this.dayModifier;
-    }
-
-    /**
-     * Method to set a percent modifier for a specific date
-     * @param day day in which price is being modified
-     * @param modifier percent from 50% to 150% on price to modify
-     */
-    public void setDayModifier(int day, int modifier){
-        this.dayModifier[day-1] = modifier;
-    }
-
-    public Room getRoomByNumber(int roomNumber) {
-        for (Room room : rooms) {
-            if (room.getRoomNumber() == roomNumber) {
-                return room;
-            }
-        }
-        return null; // Room not found
-    }
-
-}
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Represents a hotel with rooms and reservations.
+ * New bookings claim their room's nights with compare-and-set and never lock
+ * the room; cancellations and date changes lock only the reservation's room so
+ * they cannot interleave. The hotel-wide indexes and calendars are guarded by
+ * the hotel's own monitor, held only briefly to record the result.
+ * Every change under the monitor ends by publishing a new HotelSnapshot,
+ * which reports and the view read without taking any lock.
+ */
+public class HotelModel {
+    private static final RoomLocks ROOM_LOCKS = new RoomLocks(256); // orders changes to existing reservations, keyed by (hotel, room)
+    public static final int MAX_ROOMS = 50; // most rooms a hotel may have
+
+    private String hotelName;
+    private List<Room> rooms;
+    private IntMap<Room> roomIndex; // room number -> room, kept in sync with rooms
+    private List<Room> roomsBySlot; // occupancy slot -> room, null for a free slot
+    private Map<String, BitSet> slotsByType; // case-folded room type -> slots of the rooms of that type
+    private BitSet roomSlots; // slots of every room
+    private IntMap<Reservation> reservations; // reservation ID -> reservation
+    private int nextReservationId;
+    private GuestIndex guests; // reservations by guest name
+    private OccupancyCalendar occupancy; // booked rooms per night, one bit per room
+    private PriceCalendar priceCalendar; // percent modifier of each day, with running totals
+    private AtomicLong earningsCents; // running total of every reservation's price, in cents
+    private BitSet dirtySlots; // slots of the rooms to copy whole into the next snapshot
+    private long[] dirtyStays; // (slot, check-in date) of the stays changed since the last snapshot
+    private int dirtyStayCount;
+    private volatile HotelSnapshot snapshot; // latest published state, replaced after every change
+    private Journal journal; // records every change, or null if the hotel is not journaled
+    private int journalId; // the hotel's ID in the journal, 0 if it is not journaled
+    private int firstOpenDay; // stays checking in before this day can no longer be booked
+
+    /**
+     * Constructs a new HotelModel with the specified hotel name.
+     * @param hotelName The name of the hotel.
+     */
+    public HotelModel(String hotelName) {
+        this.hotelName = hotelName;
+        this.rooms = new ArrayList<>();
+        this.roomIndex = new IntMap<>();
+        this.roomsBySlot = new ArrayList<>();
+        this.slotsByType = new HashMap<>();
+        this.roomSlots = new BitSet();
+        this.reservations = new IntMap<>();
+        this.nextReservationId = 1;
+        this.guests = new GuestIndex();
+        this.occupancy = new OccupancyCalendar();
+        this.priceCalendar = new PriceCalendar(); // initializes all days to 100% price
+        this.earningsCents = new AtomicLong();
+        this.dirtySlots = new BitSet();
+        this.dirtyStays = new long[8];
+        this.dirtyStayCount = 0;
+        this.firstOpenDay = Integer.MIN_VALUE;
+        this.snapshot = HotelSnapshot.empty(hotelName);
+    }
+
+    /**
+     * Retrieves the name of the hotel.
+     * @return The name of the hotel.
+     */
+    public String getHotelName() {
+        return hotelName;
+    }
+
+    /**
+     * Sets the name of the hotel.
+     * @param hotelName The new name of the hotel.
+     * @throws IllegalArgumentException if the name is too long to be recorded, in which case
+     *         the name is not changed.
+     */
+    public synchronized void setHotelName(String hotelName) {
+        if (!Journal.isRecordable(hotelName)) {
+            throw new IllegalArgumentException("Hotel name is too long");
+        }
+        this.hotelName = hotelName;
+        if (journal != null) {
+            journal.renameHotel(journalId, hotelName);
+        }
+        publish();
+    }
+
+    /**
+     * Starts or stops recording the hotel's changes in a journal.
+     * Every change is recorded while the hotel's monitor is held, so the journal
+     * has them in the order they took effect.
+     * @param journal The journal to record changes in, or null to stop recording.
+     * @param journalId The hotel's ID in that journal.
+     */
+    public synchronized void setJournal(Journal journal, int journalId) {
+        this.journal = journal;
+        this.journalId = journal == null ? 0 : journalId;
+    }
+
+    /**
+     * @return The hotel's ID in its journal, or 0 if its changes are not recorded.
+     */
+    public synchronized int getJournalId() {
+        return journalId;
+    }
+
+    /**
+     * Retrieves the latest published snapshot of the hotel.
+     * The snapshot never changes, so it can be read from any thread without locking,
+     * and every part of it reflects the same moment.
+     * @return The hotel's current snapshot.
+     */
+    public HotelSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Retrieves the list of rooms in the hotel.
+     * The list is a read-only copy; use addRoom and removeRoom so the room index stays in sync.
+     * @return The list of rooms.
+     */
+    public synchronized List<Room> getRooms() {
+        return Collections.unmodifiableList(new ArrayList<>(rooms));
+    }
+
+    /**
+     * Retrieves the number of rooms in the hotel without copying them.
+     * @return The number of rooms.
+     */
+    public synchronized int getRoomCount() {
+        return rooms.size();
+    }
+
+    /**
+     * Retrieves the list of reservations made in the hotel.
+     * @return A copy of the reservations, in the order they were made.
+     */
+    public synchronized List<Reservation> getReservations() {
+        List<Reservation> list = reservations.values();
+        list.sort(Comparator.comparingInt(Reservation::getId));
+        return list;
+    }
+
+    /**
+     * Retrieves the number of reservations made in the hotel.
+     * @return The number of reservations.
+     */
+    public synchronized int getReservationCount() {
+        return reservations.size();
+    }
+
+    /**
+     * Retrieves a reservation by its ID in constant time.
+     * @param reservationId The ID of the reservation.
+     * @return The reservation, or null if not found.
+     */
+    public synchronized Reservation getReservation(int reservationId) {
+        return reservations.get(reservationId);
+    }
+
+    /**
+     * Retrieves the reservations made under a guest's name, ignoring case.
+     * @param guestName The name of the guest.
+     * @return The guest's reservations, ordered by ID.
+     */
+    public synchronized List<Reservation> findReservationsByGuest(String guestName) {
+        return guests.find(guestName);
+    }
+
+    /**
+     * Retrieves the reservations of every guest whose name starts with a prefix, ignoring case.
+     * @param prefix The start of the guest name.
+     * @param limit The maximum number of reservations to return.
+     * @return The reservations, ordered by guest name and then by ID.
+     */
+    public synchronized List<Reservation> findReservationsByGuestPrefix(String prefix, int limit) {
+        return guests.findByPrefix(prefix, limit);
+    }
+
+    /**
+     * Suggests the names of guests with reservations that start with a prefix, ignoring case.
+     * @param prefix The start of the guest name.
+     * @param limit The maximum number of names to return.
+     * @return The guest names, in alphabetical order.
+     */
+    public synchronized List<String> suggestGuestNames(String prefix, int limit) {
+        return guests.suggest(prefix, limit);
+    }
+
+    /**
+     * Adds a reservation to the hotel, giving it the next reservation ID
+     * unless it already has one, as when it is restored from a journal.
+     * The reservation must already be in its room; book does both.
+     * @param reservation The reservation to add.
+     * @return true if the reservation was added, false if its room was removed from the hotel,
+     *         in which case the reservation is taken out of the room again.
+     */
+    public synchronized boolean addReservation(Reservation reservation) {
+        if (!record(reservation)) {
+            return false;
+        }
+        publish();
+        return true;
+    }
+
+    /**
+     * Records a reservation in the hotel's indexes without publishing a snapshot.
+     * The room's nights are claimed before the monitor is taken, so the room may have been
+     * removed meanwhile; the claim is then given back and nothing is recorded. So is a claim
+     * whose guest name or discount code is too long to be recorded.
+     * @param reservation The reservation to record.
+     * @return true if the reservation was recorded, false if its room is no longer in the hotel
+     *         or its names cannot be recorded.
+     */
+    private boolean record(Reservation reservation) {
+        Room room = reservation.getRoom();
+        if (roomIndex.get(room.getRoomNumber()) != room || !isRecordable(reservation)) {
+            room.removeReservation(reservation); // Room removed after the nights were claimed, or names too long
+            return false;
+        }
+        if (reservation.getId() == 0) {
+            reservation.setId(nextReservationId++);
+        } else {
+            nextReservationId = Math.max(nextReservationId, reservation.getId() + 1);
+        }
+        this.reservations.put(reservation.getId(), reservation);
+        guests.add(reservation);
+        markBooked(reservation);
+        earningsCents.addAndGet(toCents(reservation.getTotalPrice()));
+        if (journal != null) {
+            journal.addReservation(journalId, reservation);
+        }
+        return true;
+    }
+
+    /**
+     * @return true if the reservation's guest name and discount code are short enough to be recorded.
+     */
+    private static boolean isRecordable(Reservation reservation) {
+        return Journal.isRecordable(reservation.getGuestName()) && Journal.isRecordable(reservation.getDiscountCode());
+    }
+
+    /**
+     * Cancels a reservation, freeing its room and removing its price from the earnings.
+     * @param reservation The reservation to cancel.
+     * @return true if the reservation was cancelled, false if it is not in this hotel.
+     */
+    public boolean cancelReservation(Reservation reservation) {
+        ReentrantLock lock = ROOM_LOCKS.lockFor(this, reservation.getRoomNumber());
+        lock.lock();
+        try {
+            synchronized (this) {
+                if (reservations.get(reservation.getId()) != reservation) {
+                    return false; // Reservation not found
+                }
+                reservations.remove(reservation.getId());
+                guests.remove(reservation);
+                markFree(reservation);
+                earningsCents.addAndGet(-toCents(reservation.getTotalPrice()));
+                if (journal != null) {
+                    journal.cancelReservation(journalId, reservation.getId());
+                }
+                publish(); // Snapshots only show reservations still in the index, so the room may follow
+            }
+            reservation.getRoom().removeReservation(reservation); // Unbook the room
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Cancels a reservation by its ID.
+     * @param reservationId The ID of the reservation to cancel.
+     * @return true if the reservation was cancelled, false if not found.
+     */
+    public boolean cancelReservationById(int reservationId) {
+        Reservation reservation = getReservation(reservationId);
+        return reservation != null && cancelReservation(reservation);
+    }
+
+    /**
+     * Moves a reservation to new dates in the same room, keeping its ID, and reprices it.
+     * The reservation is left unchanged if the room is not free for the new dates.
+     * @param reservationId The ID of the reservation to modify.
+     * @param checkInDate The new check-in date.
+     * @param checkOutDate The new check-out date.
+     * @return true if the reservation was modified, false otherwise.
+     */
+    public boolean modifyReservation(int reservationId, int checkInDate, int checkOutDate) {
+        Reservation reservation = getReservation(reservationId);
+        if (reservation == null || !isBookable(checkInDate, checkOutDate)) {
+            return false;
+        }
+        ReentrantLock lock = ROOM_LOCKS.lockFor(this, reservation.getRoomNumber());
+        lock.lock();
+        try {
+            if (getReservation(reservationId) != reservation) {
+                return false; // Cancelled while waiting for the room
+            }
+            Room room = reservation.getRoom();
+            int oldCheckIn = reservation.getCheckInDate();
+            int oldCheckOut = reservation.getCheckOutDate();
+            synchronized (this) { // Moved under the monitor so a snapshot never sees half-changed dates
+                if (!room.moveReservation(reservation, checkInDate, checkOutDate)) {
+                    return false; // New nights are taken
+                }
+                markFree(room, oldCheckIn, oldCheckOut);
+                markBooked(reservation);
+                reprice(reservation);
+                if (journal != null) {
+                    journal.moveReservation(journalId, reservation);
+                }
+                publish();
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Books a priced reservation into its room and records it in the hotel.
+     * The room's nights are claimed with compare-and-set before the reservation is
+     * published anywhere, so two bookings can never take the same night of a room,
+     * and a booking never waits on another booking of the same room.
+     * @param reservation The reservation to book, with its price already calculated.
+     * @return true if the reservation was booked, false if the stay cannot be booked,
+     *         the room is not in this hotel, the room is taken on one of the nights,
+     *         or the guest name is too long to be recorded.
+     */
+    public boolean book(Reservation reservation) {
+        Room room = reservation.getRoom();
+        if (room == null || !isBookable(reservation.getCheckInDate(), reservation.getCheckOutDate())
+                || !isRecordable(reservation)) {
+            return false;
+        }
+        if (getRoom(room.getRoomNumber()) != room || !room.addReservation(reservation)) {
+            return false; // Room not in this hotel or already booked
+        }
+        return addReservation(reservation); // Fails if the room was removed meanwhile
+    }
+
+    /**
+     * Books each of a batch of priced reservations on its own, as book does, but records
+     * every one that was booked under a single hold of the hotel's monitor and publishes
+     * one snapshot for the whole batch. Reservations of the same room are claimed in order,
+     * so a later stay overlapping an earlier one in the batch is the one left out.
+     * @param batch The reservations to book, with their prices already calculated.
+     * @return For each reservation, in order, true if it was booked, false if the stay cannot
+     *         be booked, the room is not in this hotel, the room is taken on one of the nights,
+     *         or the guest name is too long to be recorded.
+     */
+    public boolean[] bookEach(List<Reservation> batch) {
+        boolean[] booked = new boolean[batch.size()];
+        int bookedCount = 0;
+        for (int i = 0; i < booked.length; i++) {
+            Reservation reservation = batch.get(i);
+            Room room = reservation.getRoom();
+            booked[i] = room != null && isBookable(reservation.getCheckInDate(), reservation.getCheckOutDate())
+                    && isRecordable(reservation) && getRoom(room.getRoomNumber()) == room && room.addReservation(reservation);
+            if (booked[i]) {
+                bookedCount++;
+            }
+        }
+        if (bookedCount > 0) {
+            synchronized (this) {
+                for (int i = 0; i < booked.length; i++) {
+                    if (booked[i]) {
+                        booked[i] = record(batch.get(i)); // Fails if the room was removed meanwhile
+                    }
+                }
+                publish(); // One snapshot for the whole batch
+            }
+        }
+        return booked;
+    }
+
+    /**
+     * Books a batch of stays all at once, or none of them. Every request is checked and
+     * priced first; then the rooms' locks are taken in increasing stripe order, which
+     * never deadlocks, and the nights of every stay are claimed. If any stay cannot be
+     * claimed, the nights already claimed are released and nothing is booked. Otherwise
+     * the reservations are published to their rooms and recorded in the hotel together.
+     * Stays in the batch may share a room as long as their nights do not overlap.
+     * @param requests The stays to book.
+     * @return The booked reservations, in the order of the requests.
+     * @throws IllegalArgumentException if a room does not exist, a stay cannot be booked or a
+     *         guest name is too long to be recorded, in which case nothing is booked.
+     */
+    public List<Reservation> bookAll(List<BookingRequest> requests) {
+        List<Reservation> batch = new ArrayList<>(requests.size());
+        synchronized (this) {
+            for (BookingRequest request : requests) {
+                Room room = roomIndex.get(request.getRoomNumber());
+                if (room == null) {
+                    throw new IllegalArgumentException("Room not found: " + request.getRoomNumber());
+                }
+                if (!isBookable(request.getCheckInDate(), request.getCheckOutDate())) {
+                    throw new IllegalArgumentException("Dates cannot be booked: " + request);
+                }
+                if (!Journal.isRecordable(request.getGuestName())) {
+                    throw new IllegalArgumentException("Guest name is too long: room " + request.getRoomNumber());
+                }
+                Reservation reservation = new Reservation(room, request.getGuestName(), request.getRoomNumber(),
+                        request.getCheckInDate(), request.getCheckOutDate());
+                reservation.calculateTotalPrice(this);
+                batch.add(reservation);
+            }
+        }
+        int[] stripes = new int[batch.size()];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = ROOM_LOCKS.stripeOf(this, batch.get(i).getRoomNumber());
+        }
+        Arrays.sort(stripes);
+        int locked = 0;
+        try {
+            for (int i = 0; i < stripes.length; i++) {
+                if (i == 0 || stripes[i] != stripes[i - 1]) {
+                    ROOM_LOCKS.lockAt(stripes[i]).lock();
+                    locked = i + 1;
+                }
+            }
+            int claimed = 0;
+            while (claimed < batch.size()) {
+                Reservation reservation = batch.get(claimed);
+                if (!reservation.getRoom().claimNights(reservation.getCheckInDate(), reservation.getCheckOutDate())) {
+                    break;
+                }
+                claimed++;
+            }
+            if (claimed < batch.size()) {
+                for (int i = 0; i < claimed; i++) {
+                    Reservation reservation = batch.get(i);
+                    reservation.getRoom().releaseNights(reservation.getCheckInDate(), reservation.getCheckOutDate());
+                }
+                throw new IllegalArgumentException("Room is already booked: " + requests.get(claimed));
+            }
+            synchronized (this) {
+                // Rooms were looked up before their locks were taken; removing a room takes its lock, so
+                // a room still in the hotel now stays in it until the batch is recorded
+                for (Reservation removed : batch) {
+                    if (roomIndex.get(removed.getRoomNumber()) != removed.getRoom()) {
+                        for (Reservation reservation : batch) {
+                            reservation.getRoom().releaseNights(reservation.getCheckInDate(), reservation.getCheckOutDate());
+                        }
+                        throw new IllegalArgumentException("Room not found: " + removed.getRoomNumber());
+                    }
+                }
+                for (Reservation reservation : batch) {
+                    reservation.getRoom().addClaimedReservation(reservation);
+                    record(reservation);
+                }
+                publish(); // One snapshot for the whole batch
+            }
+            return batch;
+        } finally {
+            for (int i = locked - 1; i >= 0; i--) {
+                if (i == 0 || stripes[i] != stripes[i - 1]) {
+                    ROOM_LOCKS.lockAt(stripes[i]).unlock();
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds a room to the hotel.
+     * A room whose number is already taken is not added.
+     * @param room The room to add.
+     */
+    public synchronized void addRoom(Room room) {
+        if (!index(room)) {
+            return; // Room number already taken
+        }
+        if (journal != null) {
+            journal.addRoom(journalId, room);
+        }
+        publish();
+    }
+
+    /**
+     * Adds a room to the hotel's indexes without recording or publishing it.
+     * @param room The room to add.
+     * @return true if the room was added, false if its number is already taken.
+     */
+    private boolean index(Room room) {
+        if (roomIndex.containsKey(room.getRoomNumber())) {
+            return false;
+        }
+        this.rooms.add(room);
+        this.roomIndex.put(room.getRoomNumber(), room);
+        int slot = occupancy.assignSlot();
+        room.setSlot(slot);
+        while (roomsBySlot.size() <= slot) {
+            roomsBySlot.add(null);
+        }
+        roomsBySlot.set(slot, room);
+        roomSlots.set(slot);
+        slotsByType.computeIfAbsent(typeKey(room.getRoomType()), key -> new BitSet()).set(slot);
+        for (Reservation reservation : room.getReservations()) {
+            markBooked(reservation);
+        }
+        dirtySlots.set(slot);
+        return true;
+    }
+
+    /**
+     * Loads rooms, day modifiers and reservations into an empty hotel all at once, as when
+     * it is read back from a snapshot file. The indexes are filled directly and a single
+     * snapshot is published at the end, rather than one per room and reservation.
+     * Reservations keep their IDs and prices, and nothing is recorded in the journal.
+     * @param rooms The rooms to add, with no reservations of their own yet.
+     * @param modifierRuns Day modifiers as (first day, last day, modifier) triples, one after another.
+     * @param reservations The reservations to add, each in one of the rooms and with its ID set.
+     *        A reservation whose nights are already taken is left out.
+     * @param nextReservationId The ID to give the next new reservation.
+     * @throws IllegalStateException if the hotel already has rooms.
+     */
+    public synchronized void restore(List<Room> rooms, int[] modifierRuns, List<Reservation> reservations, int nextReservationId) {
+        if (!this.rooms.isEmpty()) {
+            throw new IllegalStateException("Only an empty hotel can be restored");
+        }
+        for (Room room : rooms) {
+            index(room);
+        }
+        HotelSnapshot.Modifiers modifiers = snapshot.getModifiers();
+        for (int i = 0; i + 2 < modifierRuns.length; i += 3) {
+            priceCalendar.setModifier(modifierRuns[i], modifierRuns[i + 1], modifierRuns[i + 2]);
+            for (int chunk = CalendarDays.chunkOf(modifierRuns[i]); chunk <= CalendarDays.chunkOf(modifierRuns[i + 1]); chunk++) {
+                int[] days = priceCalendar.copyModifiers(chunk);
+                if (days != null) {
+                    modifiers = modifiers.with(chunk, days);
+                }
+            }
+        }
+        List<Reservation> restored = new ArrayList<>(reservations.size());
+        long cents = 0;
+        for (Reservation reservation : reservations) {
+            Room room = reservation.getRoom();
+            if (roomIndex.get(room.getRoomNumber()) == room && room.addReservation(reservation)) {
+                this.reservations.put(reservation.getId(), reservation);
+                this.nextReservationId = Math.max(this.nextReservationId, reservation.getId() + 1);
+                occupancy.mark(room.getSlot(), reservation.getCheckInDate(), reservation.getCheckOutDate());
+                cents += toCents(reservation.getTotalPrice());
+                restored.add(reservation);
+            }
+        }
+        guests.addAll(restored);
+        earningsCents.addAndGet(cents);
+        this.nextReservationId = Math.max(this.nextReservationId, nextReservationId);
+        dirtyStayCount = 0; // Every room is copied whole
+        publish(modifiers);
+    }
+
+    /**
+     * Retrieves a room by its room number in constant time.
+     * @param roomNumber The number of the room to retrieve.
+     * @return The room with the specified room number, or null if not found.
+     */
+    public synchronized Room getRoom(int roomNumber) {
+        return roomIndex.get(roomNumber);
+    }
+
+    /**
+     * Removes a room from the hotel by its room number, unless it has reservations.
+     * The room's lock is held so no change to its reservations runs meanwhile; a booking
+     * that claimed the room's nights without the lock is refused when it is recorded.
+     * @param roomNumber The number of the room to remove.
+     * @return true if the room was successfully removed, false if it was not found or is booked.
+     */
+    public boolean removeRoom(int roomNumber) {
+        ReentrantLock lock = ROOM_LOCKS.lockFor(this, roomNumber);
+        lock.lock();
+        try {
+            synchronized (this) {
+                Room room = roomIndex.get(roomNumber);
+                if (room == null || room.isBooked()) {
+                    return false; // Room not found or still reserved
+                }
+                roomIndex.remove(roomNumber);
+                rooms.remove(room);
+                roomsBySlot.set(room.getSlot(), null);
+                roomSlots.clear(room.getSlot());
+                BitSet typeSlots = slotsByType.get(typeKey(room.getRoomType()));
+                if (typeSlots != null) {
+                    typeSlots.clear(room.getSlot());
+                }
+                occupancy.releaseSlot(room.getSlot());
+                dirtySlots.set(room.getSlot());
+                room.setSlot(-1);
+                if (journal != null) {
+                    journal.removeRoom(journalId, roomNumber);
+                }
+                publish();
+                return true; // Room removed
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Updates the price of a room in the hotel.
+     * @param roomNumber The number of the room to update.
+     * @param newPrice The new price of the room.
+     * @return true if the room's price was successfully updated, false otherwise.
+     */
+    public synchronized boolean updateRoomPrice(int roomNumber, double newPrice) {
+        Room room = getRoom(roomNumber);
+        if (room != null) {
+            room.setPrice(newPrice);
+            for (Reservation reservation : room.getReservations()) {
+                reprice(reservation);
+            }
+            dirtySlots.set(room.getSlot());
+            if (journal != null) {
+                journal.setRoomPrice(journalId, roomNumber, newPrice);
+            }
+            publish();
+            return true; // Price updated
+        }
+        return false; // Room not found
+    }
+
+    /**
+     * Calculates the total earnings from booked rooms in the hotel.
+     * The total is kept up to date as reservations and prices change,
+     * so this is a constant-time read.
+     * @return The total earnings from booked rooms.
+     */
+    public double calculateEarnings() {
+        return earningsCents.get() / 100.0;
+    }
+
+    /**
+     * Recalculates the price of a reservation and moves the earnings by the difference.
+     * Stays that began before the retired days keep the price they were booked at, and
+     * a reservation the room holds but the hotel has not recorded, or no longer does, is left alone.
+     * @param reservation The reservation to reprice.
+     */
+    private void reprice(Reservation reservation) {
+        if (reservations.get(reservation.getId()) != reservation) {
+            return; // In the room but not recorded yet, or already cancelled; its price is not in the earnings
+        }
+        if (reservation.getCheckInDate() < getFirstOpenDay()) {
+            return;
+        }
+        long before = toCents(reservation.getTotalPrice());
+        reservation.reprice(this);
+        earningsCents.addAndGet(toCents(reservation.getTotalPrice()) - before);
+        markDirty(reservation.getRoom(), reservation.getCheckInDate());
+    }
+
+    /**
+     * Reprices every reservation with a night in the given range of days.
+     * @param firstDay The first day whose price changed.
+     * @param lastDay The last day whose price changed, inclusive.
+     */
+    private void repriceDays(int firstDay, int lastDay) {
+        for (Room room : rooms) {
+            for (Reservation reservation : room.getReservationsBetween(firstDay, lastDay + 1)) {
+                reprice(reservation);
+            }
+        }
+    }
+
+    /**
+     * Converts a price to whole cents, so the earnings total adds and subtracts exactly.
+     * @param price The price to convert.
+     * @return The price in cents.
+     */
+    private static long toCents(double price) {
+        return Math.round(price * 100);
+    }
+
+    /**
+     * Retrieves a list of rooms that are currently booked in the hotel.
+     * @return The list of booked rooms.
+     */
+    public synchronized List<Room> getBookedRooms() {
+        List<Room> bookedRooms = new ArrayList<>();
+        for (Room room : rooms) {
+            if (room.isBooked()) {
+                bookedRooms.add(room);
+            }
+        }
+        return bookedRooms;
+    }
+
+    /**
+     * Retrieves a list of rooms that are currently available in the hotel.
+     * @return The list of available rooms.
+     */
+    public synchronized List<Room> getAvailableRooms() {
+        List<Room> availableRooms = new ArrayList<>();
+        for (Room room : rooms) {
+            if (!room.isBooked()) {
+                availableRooms.add(room);
+            }
+        }
+        return availableRooms;
+    }
+
+    /**
+     * Finds the rooms of a type that are free for a whole stay, without checking each room.
+     * The free rooms are found from the per-type room bitmaps and the nightly occupancy
+     * bitmaps, and are handed out one at a time in slot order as the caller iterates,
+     * so stopping after the first few costs nothing more. Each room is looked up and
+     * checked again under the hotel's monitor as it is handed out, so a room removed,
+     * replaced in its slot by a room of another type, or booked since the search began
+     * is skipped.
+     * @param roomType The type of room ("Standard", "Deluxe" or "Executive", ignoring case), or null for any type.
+     * @param checkInDate The first night of the stay.
+     * @param checkOutDate The day after the last night of the stay.
+     * @return The free rooms; empty if the stay cannot be booked or no room of the type exists.
+     */
+    public synchronized Iterable<Room> availableRooms(String roomType, int checkInDate, int checkOutDate) {
+        BitSet candidates = roomType == null ? roomSlots : slotsByType.get(typeKey(roomType));
+        if (candidates == null || !isBookable(checkInDate, checkOutDate)) {
+            return Collections.emptyList();
+        }
+        BitSet free = occupancy.freeSlots(candidates, checkInDate, checkOutDate);
+        String type = roomType == null ? null : typeKey(roomType);
+        return new Iterable<Room>() {
+            @Override
+            public Iterator<Room> iterator() {
+                return new Iterator<Room>() {
+                    private int slot = -1; // slot of the room to hand out next
+                    private Room room = findFrom(0);
+
+                    /**
+                     * @return the first room still free for the stay at or after the slot, or null if there is none
+                     */
+                    private Room findFrom(int from) {
+                        synchronized (HotelModel.this) {
+                            for (slot = free.nextSetBit(from); slot >= 0 && slot < roomsBySlot.size();
+                                 slot = free.nextSetBit(slot + 1)) {
+                                Room candidate = roomsBySlot.get(slot);
+                                if (candidate != null && roomIndex.get(candidate.getRoomNumber()) == candidate
+                                        && (type == null || typeKey(candidate.getRoomType()).equals(type))
+                                        && candidate.isAvailable(checkInDate, checkOutDate)) {
+                                    return candidate;
+                                }
+                            }
+                            return null;
+                        }
+                    }
+
+                    @Override
+                    public boolean hasNext() {
+                        return room != null;
+                    }
+
+                    @Override
+                    public Room next() {
+                        if (room == null) {
+                            throw new NoSuchElementException();
+                        }
+                        Room found = room;
+                        room = findFrom(slot + 1);
+                        return found;
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * Finds the first rooms of a type that are free for a whole stay.
+     * @param roomType The type of room, or null for any type.
+     * @param checkInDate The first night of the stay.
+     * @param checkOutDate The day after the last night of the stay.
+     * @param limit The maximum number of rooms to return.
+     * @return Up to limit free rooms, in the order they were added to the hotel's slots.
+     */
+    public List<Room> findAvailableRooms(String roomType, int checkInDate, int checkOutDate, int limit) {
+        List<Room> found = new ArrayList<>();
+        for (Room room : availableRooms(roomType, checkInDate, checkOutDate)) {
+            if (found.size() >= limit) {
+                break;
+            }
+            found.add(room);
+        }
+        return found;
+    }
+
+    /**
+     * Folds a room type into the key of the per-type room bitmaps.
+     * @param roomType The type of room.
+     * @return The type in a form that ignores case.
+     */
+    private static String typeKey(String roomType) {
+        return HotelRegistry.normalize(roomType.trim());
+    }
+
+    /**
+     * Reserves a room in the hotel for a specified guest and date range.
+     * @param roomNumber The number of the room to reserve.
+     * @param guestName The name of the guest reserving the room.
+     * @param checkInDate The check-in date for the reservation.
+     * @param checkOutDate The check-out date for the reservation.
+     * @return true if the room was successfully reserved, false otherwise.
+     */
+    public boolean reserveRoom(int roomNumber, String guestName, int checkInDate, int checkOutDate) {
+        Room room = getRoom(roomNumber);
+        if (room != null) {
+            Reservation reservation = new Reservation(room, guestName, roomNumber, checkInDate, checkOutDate);
+            reservation.calculateTotalPrice(this);
+            return book(reservation); // Room reserved unless already booked
+        }
+        return false; // Room not found
+    }
+
+    /**
+     * Cancels a reservation in the hotel by the room number.
+     * @param roomNumber The number of the room whose reservation should be cancelled.
+     * @return true if the reservation was successfully cancelled, false otherwise.
+     */
+    public boolean cancelReservation(int roomNumber) {
+        Room room = getRoom(roomNumber);
+        List<Reservation> roomReservations = room == null ? Collections.emptyList() : room.getReservations();
+        if (roomReservations.isEmpty()) {
+            return false; // Reservation not found
+        }
+        return cancelReservation(roomReservations.get(0));
+    }
+
+    /**
+     * Counts the number of available rooms in the hotel for a given date.
+     * @param date The date for which availability is checked.
+     * @return The number of available rooms.
+     */
+    public synchronized int countAvailableRooms(int date) {
+        return rooms.size() - countBookedRooms(date);
+    }
+
+    /**
+     * Counts the number of booked rooms in the hotel for a given date.
+     * Retired days are no longer in the occupancy calendar, so for them each room is asked instead.
+     * @param date The date for which bookings are checked.
+     * @return The number of booked rooms.
+     */
+    public synchronized int countBookedRooms(int date) {
+        if (date >= occupancy.getFirstOpenDay()) {
+            return occupancy.countBooked(date);
+        }
+        int booked = 0;
+        for (Room room : rooms) {
+            if (room.isBookedOnDate(date)) {
+                booked++;
+            }
+        }
+        return booked;
+    }
+
+    /**
+     * Removes a reservation from the hotel by room number and dates.
+     * @param roomNumber The number of the room for which the reservation should be removed.
+     * @param checkInDate The check-in date of the reservation to be removed.
+     * @param checkOutDate The check-out date of the reservation to be removed.
+     */
+    public void removeReservation(int roomNumber, int checkInDate, int checkOutDate) {
+        Room room = getRoom(roomNumber);
+        if (room != null) {
+            Reservation reservation = room.getReservation(checkInDate, checkOutDate);
+            if (reservation != null) {
+                cancelReservation(reservation);
+            }
+        }
+    }
+
+    /**
+     * Marks the nights of a reservation as booked in the occupancy calendar.
+     * @param reservation The reservation whose nights are booked.
+     */
+    private void markBooked(Reservation reservation) {
+        Room room = reservation.getRoom();
+        if (room != null && room.getSlot() >= 0 && getRoom(room.getRoomNumber()) == room) {
+            occupancy.mark(room.getSlot(), reservation.getCheckInDate(), reservation.getCheckOutDate());
+            markDirty(room, reservation.getCheckInDate());
+        }
+    }
+
+    /**
+     * Marks the nights of a reservation as free in the occupancy calendar.
+     * @param reservation The reservation whose nights are released.
+     */
+    private void markFree(Reservation reservation) {
+        markFree(reservation.getRoom(), reservation.getCheckInDate(), reservation.getCheckOutDate());
+    }
+
+    /**
+     * Marks the nights of a room as free in the occupancy calendar.
+     * @param room The room whose nights are released.
+     * @param checkInDate The first night to release.
+     * @param checkOutDate The day after the last night to release.
+     */
+    private void markFree(Room room, int checkInDate, int checkOutDate) {
+        if (room != null && room.getSlot() >= 0 && getRoom(room.getRoomNumber()) == room) {
+            occupancy.unmark(room.getSlot(), checkInDate, checkOutDate);
+            markDirty(room, checkInDate);
+        }
+    }
+
+    /**
+     * Marks the stay of a room checking in on a day as changed, so the next snapshot copies it again.
+     * @param room The room whose stay changed.
+     * @param checkInDate The check-in date of the stay, before the change if it moved.
+     */
+    private void markDirty(Room room, int checkInDate) {
+        if (room == null || room.getSlot() < 0 || getRoom(room.getRoomNumber()) != room) {
+            return;
+        }
+        if (dirtyStayCount == dirtyStays.length) {
+            dirtyStays = Arrays.copyOf(dirtyStays, dirtyStayCount * 2);
+        }
+        dirtyStays[dirtyStayCount++] = (long) room.getSlot() << 32 | (checkInDate & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Publishes a snapshot of the hotel as it is now, keeping the day modifiers of the last one.
+     */
+    private void publish() {
+        publish(snapshot.getModifiers());
+    }
+
+    /**
+     * Publishes a snapshot of the hotel as it is now. Only the rooms and stays changed since the
+     * last snapshot are copied, along with the blocks and chunks holding them; everything else is shared.
+     * A room view lists only the reservations recorded in this hotel, so a booking that has
+     * claimed its room but is not recorded yet, or a cancellation already recorded, never shows
+     * up in one place without the other.
+     * Must be called while holding the hotel's monitor.
+     * @param modifiers The day modifiers of the new snapshot.
+     */
+    private void publish(HotelSnapshot.Modifiers modifiers) {
+        HotelSnapshot previous = snapshot;
+        HotelSnapshot.RoomView[][] blocks = previous.getBlocks();
+        if (!dirtySlots.isEmpty() || dirtyStayCount > 0) {
+            int blockCount = (roomsBySlot.size() + HotelSnapshot.BLOCK_SIZE - 1) >> HotelSnapshot.BLOCK_SHIFT;
+            blocks = Arrays.copyOf(blocks, Math.max(blocks.length, blockCount));
+            BitSet copied = new BitSet(blocks.length);
+            for (int slot = dirtySlots.nextSetBit(0); slot >= 0; slot = dirtySlots.nextSetBit(slot + 1)) {
+                Room room = slot < roomsBySlot.size() ? roomsBySlot.get(slot) : null;
+                setView(blocks, copied, slot, room == null ? null : viewOf(room));
+            }
+            Arrays.sort(dirtyStays, 0, dirtyStayCount);
+            for (int i = 0; i < dirtyStayCount; i++) {
+                int slot = (int) (dirtyStays[i] >>> 32);
+                int checkInDate = (int) dirtyStays[i];
+                Room room = roomsBySlot.get(slot);
+                if ((i > 0 && dirtyStays[i] == dirtyStays[i - 1]) || dirtySlots.get(slot) || room == null) {
+                    continue; // Already copied
+                }
+                HotelSnapshot.RoomView[] block = blocks[slot >> HotelSnapshot.BLOCK_SHIFT];
+                HotelSnapshot.RoomView view = block == null ? null : block[slot & (HotelSnapshot.BLOCK_SIZE - 1)];
+                setView(blocks, copied, slot, view == null ? viewOf(room) : view.withStay(checkInDate, stayOf(room, checkInDate)));
+            }
+            dirtySlots.clear();
+            dirtyStayCount = 0;
+        }
+        snapshot = new HotelSnapshot(hotelName, previous.getVersion() + 1, blocks, rooms.size(),
+                reservations.size(), nextReservationId, calculateEarnings(), modifiers);
+    }
+
+    /**
+     * Puts a room view into the blocks of a new snapshot, copying its block the first time it changes.
+     * @param blocks The blocks of the new snapshot.
+     * @param copied The blocks already copied for the new snapshot.
+     * @param slot The room's slot.
+     * @param view The room's view, or null for a free slot.
+     */
+    private static void setView(HotelSnapshot.RoomView[][] blocks, BitSet copied, int slot, HotelSnapshot.RoomView view) {
+        int block = slot >> HotelSnapshot.BLOCK_SHIFT;
+        if (!copied.get(block)) {
+            blocks[block] = blocks[block] == null ? new HotelSnapshot.RoomView[HotelSnapshot.BLOCK_SIZE] : blocks[block].clone();
+            copied.set(block);
+        }
+        blocks[block][slot & (HotelSnapshot.BLOCK_SIZE - 1)] = view;
+    }
+
+    /**
+     * Copies a room and its recorded reservations into an immutable view.
+     * @param room The room to copy.
+     * @return The room's view.
+     */
+    private HotelSnapshot.RoomView viewOf(Room room) {
+        List<HotelSnapshot.Stay> stays = new ArrayList<>();
+        for (Reservation reservation : room.getReservations()) {
+            if (isRecorded(reservation)) {
+                stays.add(new HotelSnapshot.Stay(reservation));
+            }
+        }
+        return HotelSnapshot.RoomView.of(room, stays);
+    }
+
+    /**
+     * Copies the recorded reservation of a room checking in on a day.
+     * @param room The room.
+     * @param checkInDate The check-in date.
+     * @return The stay, or null if no recorded reservation checks in on that day.
+     */
+    private HotelSnapshot.Stay stayOf(Room room, int checkInDate) {
+        Reservation reservation = room.findOverlapping(checkInDate, checkInDate + 1);
+        if (reservation == null || reservation.getCheckInDate() != checkInDate || !isRecorded(reservation)) {
+            return null;
+        }
+        return new HotelSnapshot.Stay(reservation);
+    }
+
+    /**
+     * @param reservation A reservation of one of this hotel's rooms.
+     * @return true if the reservation is recorded in this hotel's index.
+     */
+    private boolean isRecorded(Reservation reservation) {
+        return reservation.getId() != 0 && reservations.get(reservation.getId()) == reservation;
+    }
+
+    /**
+     * @param day epoch day
+     * @return the percent modifier of the day
+     */
+    public synchronized int getDayModifier(int day){
+        return priceCalendar.getModifier(day);
+    }
+
+    /**
+     * Method to set a percent modifier for a specific date
+     * @param day day in which price is being modified
+     * @param modifier percent from 50% to 150% on price to modify
+     */
+    public synchronized void setDayModifier(int day, int modifier){
+        setDayModifier(day, day, modifier);
+    }
+
+    /**
+     * Method to set a percent modifier for a range of dates.
+     * Days that have been retired are left unchanged.
+     * @param firstDay first day in which price is being modified
+     * @param lastDay last day in which price is being modified, inclusive
+     * @param modifier percent from 50% to 150% on price to modify
+     */
+    public synchronized void setDayModifier(int firstDay, int lastDay, int modifier){
+        firstDay = Math.max(firstDay, getFirstOpenDay());
+        if (lastDay < firstDay) {
+            return;
+        }
+        priceCalendar.setModifier(firstDay, lastDay, modifier);
+        repriceDays(firstDay, lastDay);
+        HotelSnapshot.Modifiers modifiers = snapshot.getModifiers();
+        for (int chunk = CalendarDays.chunkOf(firstDay); chunk <= CalendarDays.chunkOf(lastDay); chunk++) {
+            int[] days = priceCalendar.copyModifiers(chunk);
+            if (days != null) {
+                modifiers = modifiers.with(chunk, days);
+            }
+        }
+        if (journal != null) {
+            journal.setDayModifier(journalId, firstDay, lastDay, modifier);
+        }
+        publish(modifiers);
+    }
+
+    /**
+     * Retires every day before the given one, so stays can no longer check in or be
+     * repriced before it. The calendars drop the whole chunks of days before it and
+     * reuse their storage for later days. Reservations are kept.
+     * @param day The first day to keep.
+     */
+    public synchronized void retireDaysBefore(int day){
+        if (day <= firstOpenDay) {
+            return; // Already retired
+        }
+        firstOpenDay = day;
+        occupancy.retireBefore(day);
+        priceCalendar.retireBefore(day);
+        for (Room room : rooms) {
+            room.retireDaysBefore(day);
+        }
+        if (journal != null) {
+            journal.retireDaysBefore(journalId, day);
+        }
+        publish(snapshot.getModifiers().retireBefore(CalendarDays.chunkOf(getFirstOpenDay())));
+    }
+
+    /**
+     * @return the first day that has not been retired
+     */
+    public synchronized int getFirstOpenDay(){
+        return firstOpenDay;
+    }
+
+    /**
+     * Checks whether a stay can be booked in this hotel's calendar.
+     * @param checkInDate first night of the stay
+     * @param checkOutDate day after the last night of the stay
+     * @return true if the stay is valid and starts on or after the first open day
+     */
+    public boolean isBookable(int checkInDate, int checkOutDate){
+        return CalendarDays.isValidStay(checkInDate, checkOutDate) && checkInDate >= getFirstOpenDay();
+    }
+
+    /**
+     * Computes the factor a room's price is multiplied by for a stay,
+     * which is the sum of the daily modifiers of every night
+     * @param checkInDate first night of the stay
+     * @param checkOutDate day after the last night of the stay
+     * @return the combined price multiplier of the stay
+     */
+    public synchronized double getStayMultiplier(int checkInDate, int checkOutDate){
+        return priceCalendar.sumModifiers(checkInDate, checkOutDate) / 100.0;
+    }
+
+    /**
+     * Retrieves a room by its room number in constant time.
+     * @param roomNumber The number of the room to retrieve.
+     * @return The room with the specified room number, or null if not found.
+     */
+    public Room getRoomByNumber(int roomNumber) {
+        return getRoom(roomNumber);
+    }
+
+}
@@ -0,0 +1,189 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps track of the hotels managed by the controller, keyed by their
+ * case-folded name so lookups ignore case and take constant time.
+ * Lookups never lock; adding, removing and renaming hotels are applied
+ * atomically to both the name index and the ordered list, and recorded in
+ * the journal when there is one.
+ */
+public class HotelRegistry {
+    private final Map<String, HotelModel> hotelsByName;
+    private final List<HotelModel> hotels; // Hotels in the order they were added
+    private Journal journal; // Records hotels added and removed, or null
+    private int firstOpenDay; // Days before this are retired in every hotel, including hotels added later
+    private final Object snapshotLock = new Object(); // Held while a snapshot is captured and written
+
+    /**
+     * Constructs an empty registry
+     */
+    public HotelRegistry() {
+        this.hotelsByName = new ConcurrentHashMap<>();
+        this.hotels = new ArrayList<>();
+        this.firstOpenDay = Integer.MIN_VALUE;
+    }
+
+    /**
+     * Starts recording hotels added and removed in a journal. Registered hotels
+     * that are not recorded in it yet are recorded whole.
+     *
+     * @param journal journal to record in, or null to stop recording
+     */
+    public synchronized void setJournal(Journal journal) {
+        this.journal = journal;
+        if (journal != null) {
+            for (HotelModel hotel : hotels) {
+                if (hotel.getJournalId() == 0) {
+                    journal.addHotel(hotel);
+                }
+            }
+        }
+    }
+
+    /**
+     * Folds a hotel name into the key used by the registry
+     *
+     * @param hotelName name of the hotel
+     * @return the name in a form that ignores case
+     */
+    public static String normalize(String hotelName) {
+        return hotelName.toUpperCase(Locale.ROOT).toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Finds a hotel by name, ignoring case
+     *
+     * @param hotelName name of the hotel to be searched
+     * @return the hotel with that name, or null if there is none
+     */
+    public HotelModel find(String hotelName) {
+        if (hotelName == null) {
+            return null;
+        }
+        return hotelsByName.get(normalize(hotelName));
+    }
+
+    /**
+     * Adds a hotel if no other hotel has the same name
+     *
+     * @param hotel hotel to be added
+     * @return true if the hotel was added, false if the name is taken
+     * @throws IllegalArgumentException if the name is too long to be recorded
+     */
+    public synchronized boolean add(HotelModel hotel) {
+        if (!Journal.isRecordable(hotel.getHotelName())) {
+            throw new IllegalArgumentException("Hotel name is too long");
+        }
+        String key = normalize(hotel.getHotelName());
+        if (hotelsByName.containsKey(key)) {
+            return false;
+        }
+        if (journal != null) {
+            journal.addHotel(hotel); // Before anyone can find it, so none of its changes go unrecorded
+        }
+        hotelsByName.put(key, hotel);
+        hotels.add(hotel);
+        if (firstOpenDay != Integer.MIN_VALUE) {
+            hotel.retireDaysBefore(firstOpenDay);
+        }
+        return true;
+    }
+
+    /**
+     * Removes a hotel from the registry
+     *
+     * @param hotel hotel to be removed
+     * @return true if the hotel was removed, false if it was not registered
+     */
+    public synchronized boolean remove(HotelModel hotel) {
+        if (!hotelsByName.remove(normalize(hotel.getHotelName()), hotel)) {
+            return false;
+        }
+        hotels.remove(hotel);
+        if (journal != null) {
+            journal.removeHotel(hotel);
+        }
+        return true;
+    }
+
+    /**
+     * Renames a hotel, moving its registry entry to the new name
+     *
+     * @param hotel   hotel to be renamed
+     * @param newName new name for the hotel
+     * @return true if the hotel was renamed, false if the new name is taken
+     *         or the hotel is not registered
+     * @throws IllegalArgumentException if the new name is too long to be recorded
+     */
+    public synchronized boolean rename(HotelModel hotel, String newName) {
+        if (!Journal.isRecordable(newName)) {
+            throw new IllegalArgumentException("Hotel name is too long");
+        }
+        String oldKey = normalize(hotel.getHotelName());
+        String newKey = normalize(newName);
+        if (hotelsByName.get(oldKey) != hotel) {
+            return false;
+        }
+        if (!oldKey.equals(newKey)) {
+            if (hotelsByName.putIfAbsent(newKey, hotel) != null) {
+                return false;
+            }
+            hotelsByName.remove(oldKey);
+        }
+        hotel.setHotelName(newName);
+        return true;
+    }
+
+    /**
+     * Retires the days before the given one in every hotel, and in every hotel added from now on,
+     * so stays can no longer be booked in the past and the calendars reuse the storage of old days
+     *
+     * @param day first day to keep
+     */
+    public synchronized void retireDaysBefore(int day) {
+        firstOpenDay = Math.max(firstOpenDay, day);
+        for (HotelModel hotel : hotels) {
+            hotel.retireDaysBefore(firstOpenDay);
+        }
+    }
+
+    /**
+     * @return number of registered hotels
+     */
+    public int size() {
+        return hotelsByName.size();
+    }
+
+    /**
+     * @return a copy of the registered hotels, in the order they were added
+     */
+    public synchronized List<HotelModel> getHotels() {
+        return Collections.unmodifiableList(new ArrayList<>(hotels));
+    }
+
+    /**
+     * Writes a snapshot of the registered hotels. They are copied while no hotel can be
+     * added or removed, then written without holding the registry's lock. Only one
+     * snapshot is captured and written at a time, since every write goes through the
+     * same temporary file, and a snapshot is never replaced by one captured before it.
+     *
+     * @param file path of the snapshot file
+     * @throws IOException if the file cannot be written
+     */
+    public void writeSnapshot(Path file) throws IOException {
+        synchronized (snapshotLock) {
+            SnapshotFile snapshot;
+            synchronized (this) {
+                snapshot = SnapshotFile.capture(hotels, journal);
+            }
+            snapshot.write(file);
+        }
+    }
+}
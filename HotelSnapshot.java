@@ -0,0 +1,564 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * An immutable view of a hotel at one moment: its rooms, their reservations,
+ * the earnings and the day modifiers. A hotel publishes a new snapshot after
+ * every change, and readers such as reports and the view can iterate it
+ * without locking and without ever seeing a change halfway through.
+ * Snapshots share structure with the one before them: rooms are kept in
+ * fixed-size blocks and each room's stays in calendar chunks, and a change
+ * copies only the block, room and chunk it touched, so the cost of a snapshot
+ * follows what changed rather than the size of the hotel.
+ */
+public final class HotelSnapshot {
+    static final int BLOCK_SHIFT = 5;
+    static final int BLOCK_SIZE = 1 << BLOCK_SHIFT; // rooms per block
+
+    private final String hotelName;
+    private final long version;
+    private final RoomView[][] blocks; // blocks[slot >> BLOCK_SHIFT][slot & (BLOCK_SIZE - 1)], null for a free slot
+    private final int roomCount;
+    private final int reservationCount;
+    private final int nextReservationId;
+    private final double earnings;
+    private final Modifiers modifiers;
+
+    /**
+     * An immutable copy of one reservation
+     */
+    public static final class Stay {
+        private final int id;
+        private final String guestName;
+        private final int roomNumber;
+        private final int checkInDate;
+        private final int checkOutDate;
+        private final double totalPrice;
+        private final String discountCode;
+
+        Stay(Reservation reservation) {
+            this.id = reservation.getId();
+            this.guestName = reservation.getGuestName();
+            this.roomNumber = reservation.getRoomNumber();
+            this.checkInDate = reservation.getCheckInDate();
+            this.checkOutDate = reservation.getCheckOutDate();
+            this.totalPrice = reservation.getTotalPrice();
+            this.discountCode = reservation.getDiscountCode();
+        }
+
+        /**
+         * @return ID of the reservation
+         */
+        public int getId() {
+            return id;
+        }
+
+        /**
+         * @return guest's name
+         */
+        public String getGuestName() {
+            return guestName;
+        }
+
+        /**
+         * @return room number
+         */
+        public int getRoomNumber() {
+            return roomNumber;
+        }
+
+        /**
+         * @return check in date
+         */
+        public int getCheckInDate() {
+            return checkInDate;
+        }
+
+        /**
+         * @return check out date
+         */
+        public int getCheckOutDate() {
+            return checkOutDate;
+        }
+
+        /**
+         * @return total price of the reservation
+         */
+        public double getTotalPrice() {
+            return totalPrice;
+        }
+
+        /**
+         * @return discount code given for the reservation, or null if none was given
+         */
+        public String getDiscountCode() {
+            return discountCode;
+        }
+    }
+
+    /**
+     * An immutable copy of one room and its reservations. Stays are grouped by the calendar
+     * chunk they check in on, so a change to one stay copies only that chunk's array and the
+     * short index of chunks; the stays of every other chunk are shared with the previous view.
+     */
+    public static final class RoomView {
+        private static final Stay[] NO_STAYS = new Stay[0];
+
+        private final int roomNumber;
+        private final String roomType;
+        private final double price;
+        private final double basePrice;
+        private final int[] chunks; // check-in chunks that have stays, in increasing order
+        private final Stay[][] stays; // stays[i] are the stays checking in on chunks[i], ordered by check-in date
+
+        private RoomView(int roomNumber, String roomType, double price, double basePrice, int[] chunks, Stay[][] stays) {
+            this.roomNumber = roomNumber;
+            this.roomType = roomType;
+            this.price = price;
+            this.basePrice = basePrice;
+            this.chunks = chunks;
+            this.stays = stays;
+        }
+
+        /**
+         * Copies a room with the given stays
+         *
+         * @param room  room to copy
+         * @param stays the room's stays, ordered by check-in date
+         * @return the room's view
+         */
+        static RoomView of(Room room, List<Stay> stays) {
+            int chunkCount = 0;
+            for (int i = 0; i < stays.size(); i++) {
+                if (i == 0 || chunkOf(stays.get(i)) != chunkOf(stays.get(i - 1))) {
+                    chunkCount++;
+                }
+            }
+            int[] chunks = new int[chunkCount];
+            Stay[][] grouped = new Stay[chunkCount][];
+            int from = 0;
+            for (int c = 0; c < chunkCount; c++) {
+                int to = from + 1;
+                while (to < stays.size() && chunkOf(stays.get(to)) == chunkOf(stays.get(from))) {
+                    to++;
+                }
+                chunks[c] = chunkOf(stays.get(from));
+                grouped[c] = stays.subList(from, to).toArray(NO_STAYS);
+                from = to;
+            }
+            return new RoomView(room.getRoomNumber(), room.getRoomType(), room.getPrice(), room.getBasePrice(), chunks, grouped);
+        }
+
+        /**
+         * Copies this view with the stay checking in on one day replaced, added or removed.
+         * Only that chunk's stays and the index of chunks are copied.
+         *
+         * @param checkInDate check-in date of the stay
+         * @param stay        the stay now checking in on that day, or null if there is none
+         * @return the new view
+         */
+        RoomView withStay(int checkInDate, Stay stay) {
+            int chunk = CalendarDays.chunkOf(checkInDate);
+            int index = Arrays.binarySearch(chunks, chunk);
+            Stay[] chunkStays = index >= 0 ? stays[index] : NO_STAYS;
+            int low = 0;
+            int high = chunkStays.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (chunkStays[mid].getCheckInDate() < checkInDate) {
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            boolean present = low < chunkStays.length && chunkStays[low].getCheckInDate() == checkInDate;
+            Stay[] newChunkStays;
+            if (stay != null && present) {
+                newChunkStays = chunkStays.clone();
+                newChunkStays[low] = stay;
+            } else if (stay != null) {
+                newChunkStays = new Stay[chunkStays.length + 1];
+                System.arraycopy(chunkStays, 0, newChunkStays, 0, low);
+                newChunkStays[low] = stay;
+                System.arraycopy(chunkStays, low, newChunkStays, low + 1, chunkStays.length - low);
+            } else if (present) {
+                newChunkStays = new Stay[chunkStays.length - 1];
+                System.arraycopy(chunkStays, 0, newChunkStays, 0, low);
+                System.arraycopy(chunkStays, low + 1, newChunkStays, low, newChunkStays.length - low);
+            } else {
+                return this; // Nothing checks in on that day, before or after
+            }
+            int[] newChunks = chunks;
+            Stay[][] newStays;
+            if (index >= 0 && newChunkStays.length > 0) {
+                newStays = stays.clone();
+                newStays[index] = newChunkStays;
+            } else if (index >= 0) { // Chunk emptied
+                newChunks = new int[chunks.length - 1];
+                newStays = new Stay[stays.length - 1][];
+                System.arraycopy(chunks, 0, newChunks, 0, index);
+                System.arraycopy(stays, 0, newStays, 0, index);
+                System.arraycopy(chunks, index + 1, newChunks, index, newChunks.length - index);
+                System.arraycopy(stays, index + 1, newStays, index, newStays.length - index);
+            } else { // First stay of the chunk
+                int at = -index - 1;
+                newChunks = new int[chunks.length + 1];
+                newStays = new Stay[stays.length + 1][];
+                System.arraycopy(chunks, 0, newChunks, 0, at);
+                System.arraycopy(stays, 0, newStays, 0, at);
+                newChunks[at] = chunk;
+                newStays[at] = newChunkStays;
+                System.arraycopy(chunks, at, newChunks, at + 1, chunks.length - at);
+                System.arraycopy(stays, at, newStays, at + 1, stays.length - at);
+            }
+            return new RoomView(roomNumber, roomType, price, basePrice, newChunks, newStays);
+        }
+
+        private static int chunkOf(Stay stay) {
+            return CalendarDays.chunkOf(stay.getCheckInDate());
+        }
+
+        /**
+         * @return room number
+         */
+        public int getRoomNumber() {
+            return roomNumber;
+        }
+
+        /**
+         * @return the type of room as a string
+         */
+        public String getRoomType() {
+            return roomType;
+        }
+
+        /**
+         * @return the price of the room
+         */
+        public double getPrice() {
+            return price;
+        }
+
+        /**
+         * @return the price the room was given, before any markup of its type
+         */
+        public double getBasePrice() {
+            return basePrice;
+        }
+
+        /**
+         * @return the room's reservations, ordered by check-in date
+         */
+        public List<Stay> getStays() {
+            List<Stay> list = new ArrayList<>();
+            for (Stay[] chunkStays : stays) {
+                Collections.addAll(list, chunkStays);
+            }
+            return Collections.unmodifiableList(list);
+        }
+
+        /**
+         * Passes each of the room's reservations to an action, ordered by check-in date,
+         * without copying them into a list
+         *
+         * @param action action to run on each stay
+         */
+        public void forEachStay(Consumer<Stay> action) {
+            for (Stay[] chunkStays : stays) {
+                for (Stay stay : chunkStays) {
+                    action.accept(stay);
+                }
+            }
+        }
+
+        /**
+         * @return true if the room has any reservation
+         */
+        public boolean isBooked() {
+            return chunks.length > 0;
+        }
+
+        /**
+         * Checks whether the room is booked on a night. Stays never overlap, so only the
+         * latest stay checking in on or before the night can cover it; it is found by
+         * binary search over the chunks and then over that chunk's stays.
+         *
+         * @param date epoch day to check
+         * @return true if a stay covers that night
+         */
+        public boolean isBookedOnDate(int date) {
+            int index = Arrays.binarySearch(chunks, CalendarDays.chunkOf(date));
+            index = index >= 0 ? index : -index - 2; // Last chunk at or before the night's
+            for (; index >= 0; index--) {
+                Stay[] chunkStays = stays[index];
+                int low = 0;
+                int high = chunkStays.length - 1;
+                while (low <= high) { // Finds the last stay checking in on or before the night
+                    int mid = (low + high) >>> 1;
+                    if (chunkStays[mid].getCheckInDate() <= date) {
+                        low = mid + 1;
+                    } else {
+                        high = mid - 1;
+                    }
+                }
+                if (high >= 0) {
+                    return chunkStays[high].getCheckOutDate() > date;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * The custom day modifiers, one array per chunk of days, with chunks sorted by number.
+     * Changing a chunk copies the short index arrays and shares every other chunk's days.
+     */
+    static final class Modifiers {
+        static final Modifiers NONE = new Modifiers(new int[0], new int[0][]);
+
+        private final int[] chunks;
+        private final int[][] days;
+
+        private Modifiers(int[] chunks, int[][] days) {
+            this.chunks = chunks;
+            this.days = days;
+        }
+
+        int get(int day) {
+            int index = Arrays.binarySearch(chunks, CalendarDays.chunkOf(day));
+            return index < 0 ? PriceCalendar.DEFAULT_MODIFIER : days[index][CalendarDays.offsetOf(day)];
+        }
+
+        Modifiers with(int chunk, int[] chunkDays) {
+            int index = Arrays.binarySearch(chunks, chunk);
+            if (index >= 0) {
+                int[][] newDays = days.clone();
+                newDays[index] = chunkDays;
+                return new Modifiers(chunks, newDays);
+            }
+            int at = -index - 1;
+            int[] newChunks = new int[chunks.length + 1];
+            int[][] newDays = new int[days.length + 1][];
+            System.arraycopy(chunks, 0, newChunks, 0, at);
+            System.arraycopy(days, 0, newDays, 0, at);
+            newChunks[at] = chunk;
+            newDays[at] = chunkDays;
+            System.arraycopy(chunks, at, newChunks, at + 1, chunks.length - at);
+            System.arraycopy(days, at, newDays, at + 1, days.length - at);
+            return new Modifiers(newChunks, newDays);
+        }
+
+        int[] runs() {
+            int[] runs = new int[0];
+            int count = 0;
+            for (int c = 0; c < chunks.length; c++) {
+                int firstDay = CalendarDays.firstDayOf(chunks[c]);
+                int[] chunkDays = days[c];
+                for (int from = 0, to; from < chunkDays.length; from = to) {
+                    for (to = from + 1; to < chunkDays.length && chunkDays[to] == chunkDays[from]; to++) {
+                        // Days with the same modifier make one run
+                    }
+                    if (chunkDays[from] != PriceCalendar.DEFAULT_MODIFIER) {
+                        if (count + 3 > runs.length) {
+                            runs = Arrays.copyOf(runs, Math.max(12, runs.length * 2));
+                        }
+                        runs[count++] = firstDay + from;
+                        runs[count++] = firstDay + to - 1;
+                        runs[count++] = chunkDays[from];
+                    }
+                }
+            }
+            return Arrays.copyOf(runs, count);
+        }
+
+        Modifiers retireBefore(int chunk) {
+            int index = Arrays.binarySearch(chunks, chunk);
+            int from = index < 0 ? -index - 1 : index;
+            if (from == 0) {
+                return this;
+            }
+            return new Modifiers(Arrays.copyOfRange(chunks, from, chunks.length), Arrays.copyOfRange(days, from, days.length));
+        }
+    }
+
+    /**
+     * Constructs a snapshot; only HotelModel builds them
+     */
+    HotelSnapshot(String hotelName, long version, RoomView[][] blocks, int roomCount, int reservationCount,
+                  int nextReservationId, double earnings, Modifiers modifiers) {
+        this.hotelName = hotelName;
+        this.version = version;
+        this.blocks = blocks;
+        this.roomCount = roomCount;
+        this.reservationCount = reservationCount;
+        this.nextReservationId = nextReservationId;
+        this.earnings = earnings;
+        this.modifiers = modifiers;
+    }
+
+    /**
+     * @return snapshot of a hotel with nothing in it
+     */
+    static HotelSnapshot empty(String hotelName) {
+        return new HotelSnapshot(hotelName, 0, new RoomView[0][], 0, 0, 1, 0, Modifiers.NONE);
+    }
+
+    /**
+     * @return the name of the hotel
+     */
+    public String getHotelName() {
+        return hotelName;
+    }
+
+    /**
+     * @return number of changes published before this snapshot; later snapshots have larger versions
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return the rooms of the hotel, in the order of their calendar slots
+     */
+    public List<RoomView> getRooms() {
+        List<RoomView> rooms = new ArrayList<>(roomCount);
+        for (RoomView[] block : blocks) {
+            if (block == null) {
+                continue;
+            }
+            for (RoomView room : block) {
+                if (room != null) {
+                    rooms.add(room);
+                }
+            }
+        }
+        return rooms;
+    }
+
+    /**
+     * @param roomNumber number of the room
+     * @return the room, or null if the hotel has no room with that number
+     */
+    public RoomView getRoom(int roomNumber) {
+        for (RoomView[] block : blocks) {
+            if (block == null) {
+                continue;
+            }
+            for (RoomView room : block) {
+                if (room != null && room.getRoomNumber() == roomNumber) {
+                    return room;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return number of rooms in the hotel
+     */
+    public int getRoomCount() {
+        return roomCount;
+    }
+
+    /**
+     * @return number of reservations in the hotel
+     */
+    public int getReservationCount() {
+        return reservationCount;
+    }
+
+    /**
+     * @return ID the hotel will give its next reservation
+     */
+    public int getNextReservationId() {
+        return nextReservationId;
+    }
+
+    /**
+     * @return total price of every reservation
+     */
+    public double getEarnings() {
+        return earnings;
+    }
+
+    /**
+     * Counts the booked rooms of every night from firstDay to lastDay, inclusive.
+     * Each stay is added once to a running difference, so this takes time in the number
+     * of stays and days rather than stays times days.
+     *
+     * @param firstDay first night to count
+     * @param lastDay  last night to count, inclusive
+     * @return booked[i] is the number of rooms booked on the night firstDay + i
+     */
+    public int[] countBookedRooms(int firstDay, int lastDay) {
+        int days = Math.max(0, lastDay - firstDay + 1);
+        int[] change = new int[days + 1];
+        int firstChunk = CalendarDays.chunkOf(firstDay - CalendarDays.MAX_STAY_NIGHTS); // No earlier stay reaches firstDay
+        for (RoomView[] block : blocks) {
+            if (block == null) {
+                continue;
+            }
+            for (RoomView room : block) {
+                if (room == null) {
+                    continue;
+                }
+                int index = Arrays.binarySearch(room.chunks, firstChunk);
+                for (index = index >= 0 ? index : -index - 1; index < room.chunks.length; index++) {
+                    if (CalendarDays.firstDayOf(room.chunks[index]) > lastDay) {
+                        break;
+                    }
+                    for (Stay stay : room.stays[index]) {
+                        int from = Math.max(stay.getCheckInDate(), firstDay) - firstDay;
+                        int to = Math.min(stay.getCheckOutDate(), lastDay + 1) - firstDay;
+                        if (from < to) {
+                            change[from]++;
+                            change[to]--;
+                        }
+                    }
+                }
+            }
+        }
+        int[] booked = new int[days];
+        int running = 0;
+        for (int i = 0; i < days; i++) {
+            running += change[i];
+            booked[i] = running;
+        }
+        return booked;
+    }
+
+    /**
+     * @param day epoch day
+     * @return the percent modifier of the day
+     */
+    public int getDayModifier(int day) {
+        return modifiers.get(day);
+    }
+
+    /**
+     * Lists the custom day modifiers as runs of days with the same modifier. Runs do not
+     * cross calendar chunks, and days at the default modifier are left out.
+     *
+     * @return (first day, last day, modifier) triples, one after another, in day order
+     */
+    public int[] getModifierRuns() {
+        return modifiers.runs();
+    }
+
+    /**
+     * @return the blocks of room views, shared with the next snapshot
+     */
+    RoomView[][] getBlocks() {
+        return blocks;
+    }
+
+    /**
+     * @return the day modifiers, shared with the next snapshot
+     */
+    Modifiers getModifiers() {
+        return modifiers;
+    }
+}
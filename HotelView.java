@@ -1,1010 +1,1418 @@
-import javax.swing.*;
-import java.awt.*;
-import java.awt.event.ActionEvent;
-import java.awt.event.ActionListener;
-import java.util.List;
-import java.util.ArrayList;
-import javax.swing.table.DefaultTableModel;
-
-/**
- *  The HotelView class manages all the GUI operations, like panels, 
- *  buttons, etc. It lets the user interact with the GUI, and connects
- *  these interactions to HotelController.
- */
-public class HotelView {
-
-    private JFrame mainFrame;
-    private JButton createHotelBtn, viewHotelBtn, manageHotelBtn, simulateBookingBtn;
-    private HotelController controller;
-    private JTable hotelsTable;
-    private JLabel roomNumberLabel;
-    private JLabel roomTypeLabel;
-    private JLabel priceLabel;
-    private JLabel statusLabel;
-    private JTable bookedRoomsTable;
-
-    public void setController(HotelController controller) {
-        this.controller = controller;
-    }
-
-    public HotelView() {
-        
-        mainFrame = new JFrame("Hotel Reservation System");
-        mainFrame.setSize(600, 600);
-        mainFrame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-        mainFrame.setLayout(new BorderLayout(10, 10));
-
-        // Panel for tables
-        JPanel tablePanel = new JPanel(new GridLayout(1, 2, 10, 10));
-
-        // Initialize the hotels table
-        hotelsTable = new JTable(new DefaultTableModel(new Object[]{"Hotel Name", "Room Number", "Type", "Price", "Status"}, 0));
-        JScrollPane scrollPane = new JScrollPane(hotelsTable);
-        tablePanel.add(scrollPane);
-
-        mainFrame.add(tablePanel, BorderLayout.CENTER);
-
-        // Panel for labels
-        JPanel labelPanel = new JPanel(new GridLayout(1, 3, 10, 10));
-        roomNumberLabel = new JLabel("Room Number: ");
-        roomTypeLabel = new JLabel("Room Type: ");
-        priceLabel = new JLabel("Price: ");
-        statusLabel = new JLabel("Status: ");
-        labelPanel.add(roomNumberLabel);
-        labelPanel.add(roomTypeLabel);
-        labelPanel.add(priceLabel);
-        labelPanel.add(statusLabel);
-
-
-        // Panel for buttons
-        JPanel buttonPanel = new JPanel(new GridLayout(2, 2, 10, 10));
-        createHotelBtn = new JButton("Create Hotel");
-        viewHotelBtn = new JButton("View Hotels");
-        manageHotelBtn = new JButton("Manage Hotel");
-        simulateBookingBtn = new JButton("Simulate Booking");
-
-        createHotelBtn.setFocusable(false);
-        viewHotelBtn.setFocusable(false);
-        manageHotelBtn.setFocusable(false);
-        simulateBookingBtn.setFocusable(false);
-
-        buttonPanel.add(createHotelBtn);
-        buttonPanel.add(viewHotelBtn);
-        buttonPanel.add(manageHotelBtn);
-        buttonPanel.add(simulateBookingBtn);
-
-        mainFrame.add(buttonPanel, BorderLayout.NORTH);
-
-        mainFrame.setVisible(true);
-
-        // Add action listeners to the buttons
-        createHotelBtn.addActionListener(new ActionListener() {
-            @Override
-            public void actionPerformed(ActionEvent e) {
-                addHotel();
-            }
-        });
-
-        viewHotelBtn.addActionListener(new ActionListener() {
-            @Override
-            public void actionPerformed(ActionEvent e) {
-                showViewHotelsMenu();
-            }
-        });
-
-        manageHotelBtn.addActionListener(new ActionListener() {
-            @Override
-            public void actionPerformed(ActionEvent e) {
-                showManageHotelMenu();
-            }
-        });
-
-        simulateBookingBtn.addActionListener(new ActionListener() {
-            @Override
-            public void actionPerformed(ActionEvent e) {
-                showSimulateBookingMenu();
-            }
-        });
-    }
-
-    /**
-     *  Method that shows the menu for "View Hotels"
-     */
-    private void showViewHotelsMenu(){
-         // Create a new JFrame for Show Lists Hotel menu
-         JFrame manageFrame = new JFrame("View Hotel");
-         manageFrame.setSize(400, 400);
-         manageFrame.setLayout(new GridLayout(4, 1));
- 
-         JButton showHotelDetailsBtn = new JButton("Show Hotel Details");
-         JButton estimateEarningBtn = new JButton("Estimate Earnings");
-         JButton showReservationDetailsBtn = new JButton("Show Reservation Details");
-         JButton listHotelsBtn = new JButton("List Hotels");
-    
-         manageFrame.add(showHotelDetailsBtn);
-         manageFrame.add(estimateEarningBtn);
-         manageFrame.add(showReservationDetailsBtn);
-         manageFrame.add(listHotelsBtn);
-
-         manageFrame.setVisible(true);
-
-
-         showHotelDetailsBtn.addActionListener(new ActionListener() {
-            @Override
-            public void actionPerformed(ActionEvent e) {
-                getHotelDetails();
-            }
-        });
-
-        estimateEarningBtn.addActionListener(new ActionListener() {
-            @Override
-            public void actionPerformed(ActionEvent e) {
-                estimateEarnings();
-            }
-        });
-
-        showReservationDetailsBtn.addActionListener(new ActionListener() {
-            @Override
-            public void actionPerformed(ActionEvent e) {
-                showReservationDetails();
-            }
-        });
-
-        listHotelsBtn.addActionListener(new ActionListener() {
-            @Override
-            public void actionPerformed(ActionEvent e) {
-                listHotels();
-            }
-        });
-    }
-
-    /**
-     *  Method that shows the menu for "Manage Hotel"
-     */
-    private void showManageHotelMenu() {
-        // Create a new JFrame for Manage Hotel menu
-        JFrame manageFrame = new JFrame("Manage Hotel");
-        manageFrame.setSize(400, 400);
-        manageFrame.setLayout(new GridLayout(7, 1));
-
-        JButton changeNameBtn = new JButton("Change Hotel Name");
-        JButton addRoomBtn = new JButton("Add a Room");
-        JButton removeRoomBtn = new JButton("Remove a Room");
-        JButton updateRoomPriceBtn = new JButton("Update Base Room Price");
-        JButton modifyPriceDayBtn = new JButton("Modify Price for a Day");
-        JButton modifyPriceRangeBtn = new JButton("Modify Price for a Range of Days");
-        JButton removeHotelBtn = new JButton("Remove a Hotel");
-        
-
-        manageFrame.add(changeNameBtn);
-        manageFrame.add(addRoomBtn);
-        manageFrame.add(removeRoomBtn);
-        manageFrame.add(updateRoomPriceBtn);
-        manageFrame.add(modifyPriceDayBtn);
-        manageFrame.add(modifyPriceRangeBtn);
-        manageFrame.add(removeHotelBtn);
-
-        manageFrame.setVisible(true);
-
-        changeNameBtn.addActionListener(new ActionListener() {
-            @Override
-            public void actionPerformed(ActionEvent e) {
-                changeHotelName();
-            }
-        });
-
-        addRoomBtn.addActionListener(new ActionListener() {
-            @Override
-            public void actionPerformed(ActionEvent e) {
-                addRoomToHotel();
-            }
-        });
-
-        removeRoomBtn.addActionListener(new ActionListener() {
-            @Override
-            public void actionPerformed(ActionEvent e) {
-                removeRoomFromHotel();
-            }
-        });
-
-        updateRoomPriceBtn.addActionListener(new ActionListener() {
-            @Override
-            public void actionPerformed(ActionEvent e) {
-                updateRoomPrice();
-            }
-        });
-
-        modifyPriceDayBtn.addActionListener(new ActionListener() {
-            @Override
-            public void actionPerformed(ActionEvent e) {
-                modifyDatePrice();
-            }
-        });
-
-        modifyPriceRangeBtn.addActionListener(new ActionListener() {
-            @Override
-            public void actionPerformed(ActionEvent e) {
-                modifyDatePriceRange();
-            }
-        });
-
-        removeHotelBtn.addActionListener(new ActionListener() {
-            @Override
-            public void actionPerformed(ActionEvent e) {
-                removeHotel();
-            }
-        });
-    }
-
-    /**
-     *  Method that shows the menu for "Simulate Booking"
-     */
-    private void showSimulateBookingMenu() {
-        // Create a new JFrame for Simulate Booking menu
-        JFrame bookingFrame = new JFrame("Simulate Booking");
-        bookingFrame.setSize(400, 400);
-        bookingFrame.setLayout(new GridLayout(6, 1));
-
-        JButton makeReservationBtn = new JButton("Make a Reservation");
-        JButton cancelReservationBtn = new JButton("Cancel a Reservation");
-        JButton listBookedRoomsBtn = new JButton("List Booked Rooms");
-        JButton listAvailableRoomsBtn = new JButton("List Available Rooms");
-        JButton showRoomCountsBtn = new JButton("Show Room Counts for a Date");
-        JButton showRoomInfoMonthBtn = new JButton("Show Room Info Across Month");
-
-        bookingFrame.add(makeReservationBtn);
-        bookingFrame.add(cancelReservationBtn);
-        bookingFrame.add(listBookedRoomsBtn);
-        bookingFrame.add(listAvailableRoomsBtn);
-        bookingFrame.add(showRoomCountsBtn);
-        bookingFrame.add(showRoomInfoMonthBtn);
-
-        bookingFrame.setVisible(true);
-
-        makeReservationBtn.addActionListener(new ActionListener() {
-            @Override
-            public void actionPerformed(ActionEvent e) {
-                makeReservation();
-            }
-        });
-
-        cancelReservationBtn.addActionListener(new ActionListener() {
-            @Override
-            public void actionPerformed(ActionEvent e) {
-                cancelReservation();
-            }
-        });
-
-        listBookedRoomsBtn.addActionListener(new ActionListener() {
-            @Override
-            public void actionPerformed(ActionEvent e) {
-                listBookedRooms();
-            }
-        });
-
-        listAvailableRoomsBtn.addActionListener(new ActionListener() {
-            @Override
-            public void actionPerformed(ActionEvent e) {
-                listAvailableRooms();
-            }
-        });
-
-        showRoomCountsBtn.addActionListener(new ActionListener() {
-            @Override
-            public void actionPerformed(ActionEvent e) {
-                showRoomCountsForDate();
-            }
-        });
-
-        showRoomInfoMonthBtn.addActionListener(new ActionListener() {
-            @Override
-            public void actionPerformed(ActionEvent e) {
-                showRoomInfoAcrossMonth();
-            }
-        });
-    }
-
-    /**
-     * METHOD FUNCTIONALITIES:
-     */
-
-     /**
-     * Adds a new hotel to the system based on user input.
-     */
-    private void addHotel() {
-        String hotelName = JOptionPane.showInputDialog(mainFrame, "Enter hotel name:");
-        if (hotelName != null && !hotelName.trim().isEmpty()) {
-            controller.addHotel(hotelName.trim());
-            JOptionPane.showMessageDialog(mainFrame, "Hotel added: " + hotelName);
-        } else {
-            JOptionPane.showMessageDialog(mainFrame, "Hotel name cannot be empty.");
-        }
-    }
-
-
-    /**
-     *  Gets input for hotel name, then calls to display hotel details
-     */
-    private void getHotelDetails() {
-        HotelModel hotel = validateHotelName("Enter hotel name:");
-        if (hotel != null) {
-            displayHotelDetails(hotel);
-        }
-    }
-
-    /**
-     *  Estimates earning for a hotel, when given the hotel name
-     */
-    private void estimateEarnings() {
-        HotelModel hotel = validateHotelName("Enter hotel name:");
-        if (hotel != null) {
-            double earnings = controller.estimateEarnings(hotel.getHotelName());
-            JOptionPane.showMessageDialog(mainFrame, "Estimated earnings for hotel " + hotel.getHotelName() + ": $" + earnings);
-        }
-    }
-
-    /**
-     * Displays detailed reservation information including hotel name, room number,
-     * guest name, check-in date, check-out date, total price, and price per night.
-     */
-    private void showReservationDetails() {
-        HotelModel hotel = validateHotelName("Enter hotel name:");
-        if (hotel != null) {
-            Room room = validateRoomNumber(hotel, "Enter room number:");
-            if (room != null) {
-                int checkInDate = getValidDate("Enter check-in date (1-31):");
-                int checkOutDate = getValidDate("Enter check-out date (1-31):");
-                while (checkOutDate < checkInDate) {
-                    JOptionPane.showMessageDialog(mainFrame, "Check-out date must be after check-in date.");
-                    checkOutDate = getValidDate("Enter check-out date (1-31):");
-                }
-                Reservation r = controller.getReservationDetails(hotel.getHotelName(), room.getRoomNumber(), checkInDate, checkOutDate);
-                if (r == null) {
-                    displayEnterAnother("reservation. The specified dates do not match any reservation.");
-                }
-                else {
-                    displayReservationDetails(r, hotel, room, checkInDate, checkOutDate);
-                }
-            }
-        }
-    }
-
-    /**
-     * Changes the name of a specified hotel based on user input.
-     */
-    private void changeHotelName() {
-        HotelModel hotel = validateHotelName("Enter current hotel name:");
-        if (hotel != null) {
-            String newHotelName = JOptionPane.showInputDialog(mainFrame, "Enter new hotel name:");
-            if (newHotelName != null && !newHotelName.trim().isEmpty()) {
-                controller.changeHotelName(hotel.getHotelName(), newHotelName.trim());
-                JOptionPane.showMessageDialog(mainFrame, "Hotel name changed to: " + newHotelName);
-            } else {
-                JOptionPane.showMessageDialog(mainFrame, "New hotel name cannot be empty.");
-            }
-        }
-    }
-
-    /**
-     * Method to add rooms to a hotel
-     */
-    private void addRoomToHotel() {
-        String hotelName = JOptionPane.showInputDialog(mainFrame, "Enter hotel name:");
-        if (hotelName == null || hotelName.trim().isEmpty()) {
-            displayError("Hotel name cannot be empty.");
-            return;
-        }
-        HotelModel hotel = controller.findHotelByName(hotelName.trim());
-        if (hotel == null) {
-            JOptionPane.showMessageDialog(mainFrame, "Hotel not found.");
-            return;
-        }
-        
-        String roomNumberStr = JOptionPane.showInputDialog(mainFrame, "Enter room number:");
-        if (roomNumberStr == null || roomNumberStr.trim().isEmpty()) {
-            displayError("Room number cannot be empty.");
-            return;
-        }
-        int roomNumber;
-        try {
-            roomNumber = Integer.parseInt(roomNumberStr);
-        } catch (NumberFormatException e) {
-            displayError("Invalid room number.");
-            return;
-        }
-
-        String roomType = JOptionPane.showInputDialog(mainFrame, "Enter room type (Standard/Deluxe/Executive):");
-        if (roomType == null || roomType.trim().isEmpty()) {
-            displayError("Room type cannot be empty.");
-            return;
-        }
-        else if (!(roomType.equalsIgnoreCase("Standard")) && !(roomType.equalsIgnoreCase("Deluxe")) && !(roomType.equalsIgnoreCase("Executive"))) {
-            displayError("Enter a valid room type.");
-            return;
-        }
-
-        String countStr = JOptionPane.showInputDialog(mainFrame, "Enter number of rooms to add:");
-        if (countStr == null || countStr.trim().isEmpty()) {
-            displayError("Number of rooms cannot be empty.");
-            return;
-        }
-
-        int count;
-        try {
-            count = Integer.parseInt(countStr);
-        } catch (NumberFormatException e) {
-            displayError("Invalid number of rooms.");
-            return;
-        }
-
-        int confirmation = JOptionPane.showConfirmDialog(mainFrame, "Are you sure you want to add " + count + " room(s) to hotel " + hotelName + "?", "Confirm", JOptionPane.YES_NO_OPTION);
-        if (confirmation == JOptionPane.YES_OPTION) {
-            controller.addRoomToHotel(hotelName, roomNumber, roomType, count);
-        }
-    }
-
-    /**
-     * Method to remove room from a hotel
-     */
-    private void removeRoomFromHotel() {
-        String hotelName = JOptionPane.showInputDialog(mainFrame, "Enter hotel name:");
-        if (hotelName == null) return; // User cancelled
-        HotelModel hotel = controller.findHotelByName(hotelName);
-        if (hotel == null) {
-            displayError("Hotel not found.");
-            return;
-        }
-
-        String roomNumberStr = JOptionPane.showInputDialog(mainFrame, "Enter room number:");
-        if (roomNumberStr == null) return; // User cancelled
-
-        int roomNumber;
-        try {
-            roomNumber = Integer.parseInt(roomNumberStr);
-        } catch (NumberFormatException e) {
-            displayError("Invalid room number.");
-            return;
-        }
-
-        Room room = hotel.getRoomByNumber(roomNumber);
-        if (room == null) {
-            displayError("Room not found.");
-            return;
-        }
-
-        int confirm = JOptionPane.showConfirmDialog(null, 
-                "Are you sure you want to remove room number " + room.getRoomNumber() + " from hotel: " + hotel.getHotelName() + "?",
-                "Confirm Removal", JOptionPane.YES_NO_OPTION);
-
-        if (confirm == JOptionPane.YES_OPTION) {
-            boolean check = controller.removeRoomFromHotel(hotel.getHotelName(), room.getRoomNumber());
-            if (check) {
-                JOptionPane.showMessageDialog(null, "Removed room number " + room.getRoomNumber() + " from hotel: " + hotel.getHotelName());
-            } else {
-                displayError("Failed to remove room.");
-            }
-        }
-    }
-
-    /**
-     * Updates the price of rooms in a specified hotel based on user input.
-     */
-    private void updateRoomPrice() {
-        HotelModel hotel = validateHotelName("Enter hotel name:");
-        if (hotel != null) {
-            //Room room = validateRoomNumber(hotel, "Enter room number:");
-            //if (room != null) {
-                double newPrice = getValidDouble("Enter new room price:");
-                controller.updateRoomPrice(hotel.getHotelName(), newPrice);
-                //JOptionPane.showMessageDialog(mainFrame, "Room price updated: " + "$" + newPrice);
-            //}
-        }
-    }
-
-    /**
-     * Method to modify the price of reservations for a single day
-     */
-    private void modifyDatePrice() {
-        HotelModel hotel = validateHotelName("Enter hotel name:");
-        if (hotel != null) {
-                int date = getValidDate("Enter date (1-31):");
-                String priceRateStr = JOptionPane.showInputDialog(mainFrame, "Enter price rate (50-150):");
-                if (priceRateStr == null || priceRateStr.trim().isEmpty()) {
-                    displayError("Price rate cannot be empty.");
-                    return;
-                }
-                int priceRate;
-                try {
-                    priceRate = Integer.parseInt(priceRateStr);
-                } catch (NumberFormatException e) {
-                    displayError("Invalid price rate.");
-                    return;
-                }
-                if (priceRate > 150 || priceRate < 50) {
-                    displayError("Enter a price rate within the range.");
-                    return;
-                }
-
-                //controller.modifyPriceForADay(hotel.getHotelName(), room.getRoomNumber(), date, newPrice);
-                controller.datePriceModifier(hotel, date, priceRate);
-                JOptionPane.showMessageDialog(mainFrame, "Price updated for day " + date + ": " + priceRate + "%");
-            //}
-        }
-    }
-
-    /**
-     * Method to modify the price of reservations for a range of days
-     */
-    private void modifyDatePriceRange() {
-        HotelModel hotel = validateHotelName("Enter hotel name:");
-        if (hotel != null) {
-            //Room room = validateRoomNumber(hotel, "Enter room number:");
-            //if (room != null) {
-                int startDate = getValidDate("Enter start date (1-31):");
-                int endDate = getValidDate("Enter end date (1-31):");
-                if (endDate < startDate) {
-                    JOptionPane.showMessageDialog(mainFrame, "End date must be after start date.");
-                    return;
-                }
-                String priceRateStr = JOptionPane.showInputDialog(mainFrame, "Enter price rate (50-150):");
-                if (priceRateStr == null || priceRateStr.trim().isEmpty()) {
-                    displayError("Price rate cannot be empty.");
-                    return;
-                }
-                int priceRate;
-                try {
-                    priceRate = Integer.parseInt(priceRateStr);
-                } catch (NumberFormatException e) {
-                    displayError("Invalid price rate.");
-                    return;
-                }
-                if (priceRate > 150 || priceRate < 50) {
-                    displayError("Enter a price rate within the range.");
-                    return;
-                }
-                //double newPrice = getValidDouble("Enter new price for range " + startDate + " to " + endDate + ":");
-                //controller.modifyPriceForRange(hotel.getHotelName(), room.getRoomNumber(), startDate, endDate, newPrice);
-                controller.datePriceModifier(hotel, startDate, endDate, priceRate);
-                JOptionPane.showMessageDialog(mainFrame, "Price updated for dates " + startDate + " to " + endDate + ": " + priceRate + "%");
-            //}
-        }
-    }
-
-    /**
-     * Removes a hotel from the system based on user input.
-     */
-    private void removeHotel() {
-        HotelModel hotel = validateHotelName("Enter hotel name:");
-        if (hotel != null) {
-            controller.removeHotel(hotel.getHotelName());
-            JOptionPane.showMessageDialog(mainFrame, "Hotel removed: " + hotel.getHotelName());
-        }
-    }
-
-     /**
-     * Makes a reservation for a room in a specified hotel based on user input.
-     */
-    private void makeReservation() {
-        HotelModel hotel = validateHotelName("Enter hotel name:");
-        if (hotel != null) {
-            Room room = validateRoomNumber(hotel, "Enter room number:");
-            if (room != null) {
-                int checkInDate = getValidDate("Enter check-in date (1-31):");
-                int checkOutDate = getValidDate("Enter check-out date (1-31):");
-                while (checkOutDate < checkInDate) {
-                    JOptionPane.showMessageDialog(mainFrame, "Check-out date must be after check-in date.");
-                    checkOutDate = getValidDate("Enter check-out date (1-31):");
-                }
-                String customerName = JOptionPane.showInputDialog(mainFrame, "Enter customer name:");
-                String discountCode = JOptionPane.showInputDialog(null, "Enter discount code (if any):");
-                if (customerName != null && !customerName.trim().isEmpty()) {
-                    controller.makeReservation(hotel.getHotelName(), room.getRoomNumber(), checkInDate, checkOutDate, customerName.trim(), discountCode);
-                } else {
-                    JOptionPane.showMessageDialog(mainFrame, "Customer name cannot be empty.");
-                }
-            }
-        }
-    }
-
-    /**
-     * Cancels a reservation for a room in a specified hotel based on user input.
-     */
-    private void cancelReservation() {
-        HotelModel hotel = validateHotelName("Enter hotel name:");
-        if (hotel != null) {
-            Room room = validateRoomNumber(hotel, "Enter room number:");
-            if (room != null) {
-                int checkInDate = getValidDate("Enter check-in date (1-31):");
-                int checkOutDate = getValidDate("Enter check-out date (1-31):");
-                if (checkOutDate < checkInDate) {
-                    JOptionPane.showMessageDialog(mainFrame, "Check-out date must be after check-in date.");
-                    return;
-                }
-                controller.cancelReservation(hotel.getHotelName(), room.getRoomNumber(), checkInDate, checkOutDate);
-            }
-        }
-    }
-
-    /**
-     * Lists all rooms that are currently booked in a specified hotel based on user input.
-     */
-    private void listBookedRooms() {
-        HotelModel hotel = validateHotelName("Enter hotel name:");
-        if (hotel != null) {
-            int date = getValidDate("Enter date (1-31):");
-            List<Room> bookedRooms = controller.getBookedRooms(hotel.getHotelName(), date);
-            StringBuilder sb = new StringBuilder("Booked rooms on date " + date + "\n");
-            for (Room room : bookedRooms) {
-                sb.append("Room ").append(room.getRoomNumber()).append("\n");
-            }
-            JOptionPane.showMessageDialog(mainFrame, sb.toString());
-        }
-    }
-
-
-    /**
-     * Lists all rooms that are currently available in a specified hotel based on user input.
-     */
-    private void listAvailableRooms() {
-        HotelModel hotel = validateHotelName("Enter hotel name:");
-        if (hotel != null) {
-            int date = getValidDate("Enter date (1-31):");
-            List<Room> availableRooms = controller.getAvailableRooms(hotel.getHotelName(), date);
-            StringBuilder sb = new StringBuilder("Available rooms on date " + date + ":\n");
-            for (Room room : availableRooms) {
-                sb.append("Room ").append(room.getRoomNumber()).append(": ").append("\n");
-            }
-            JOptionPane.showMessageDialog(mainFrame, sb.toString());
-        }
-    }
-
-     /**
-     * Displays the count of available and booked rooms for a specific date
-     * in the context of a specific hotel.
-     */
-    private void showRoomCountsForDate() {
-        HotelModel hotel = validateHotelName("Enter hotel name:");
-        if (hotel != null) {
-            int date = getValidDate("Enter date (1-31):");
-            controller.showRoomCountsForDate(hotel.getHotelName(), date);
-        }
-    }
-
-     /**
-     * Shows detailed information about a specific room for the entire month,
-     * including availability status for each day.
-     */
-    private void showRoomInfoAcrossMonth() {
-        HotelModel hotel = validateHotelName("Enter hotel name:");
-        if(hotel == null)
-            return;
-        Room room = validateRoomNumber(hotel, "Enter room number:");
-        if(room == null)
-            return;
-        if (hotel != null) {
-            controller.showRoomInfoAcrossMonth(hotel, room);
-        }
-    }
-
-    public void displayRoomInfoAcrossMonth(String info) {
-        JOptionPane.showMessageDialog(mainFrame, info);
-    }
-
-    /**
-     * Utility method to validate the existence of a hotel based on user input.
-     *
-     * @param prompt The prompt message to display when requesting input.
-     * @return The validated `HotelModel` object corresponding to the hotel name entered by the user.
-     */
-    private HotelModel validateHotelName(String message) {
-        String hotelName = JOptionPane.showInputDialog(mainFrame, message);
-        if (hotelName == null || hotelName.trim().isEmpty()) {
-            return null; // User cancelled or entered empty value
-        }
-        HotelModel hotel = controller.findHotelByName(hotelName.trim());
-        if (hotel == null) {
-            JOptionPane.showMessageDialog(mainFrame, "Hotel not found.");
-        }
-        return hotel;
-    }
-    
-
-     /**
-     * Utility method to validate the existence of a room in a specified hotel based on user input.
-     *
-     * @param hotel The `HotelModel` object representing the hotel in which to validate the room.
-     * @param prompt The prompt message to display when requesting input.
-     * @return The validated `Room` object corresponding to the room number entered by the user.
-     */
-    private Room validateRoomNumber(HotelModel hotel, String message) {
-        String roomNumberStr = JOptionPane.showInputDialog(mainFrame, message);
-        if (roomNumberStr == null || roomNumberStr.trim().isEmpty()) {
-            return null; // User cancelled or entered empty value
-        }
-        int roomNumber;
-        try {
-            roomNumber = Integer.parseInt(roomNumberStr.trim());
-        } catch (NumberFormatException e) {
-            JOptionPane.showMessageDialog(mainFrame, "Invalid room number.");
-            return null;
-        }
-        Room room = hotel.getRoomByNumber(roomNumber);
-        if (room == null) {
-            JOptionPane.showMessageDialog(mainFrame, "Room not found.");
-        }
-        return room;
-    }
-    
-    /**
-     * Method that validates whether or not the user input is a valid date within 1-31
-     * @param message Message that is shown to the user
-     * @return
-     */
-    private int getValidDate(String message) {
-        while (true) {
-            String dateStr = JOptionPane.showInputDialog(mainFrame, message);
-            if (dateStr == null || dateStr.trim().isEmpty()) {
-                return -1; // User cancelled or entered empty value
-            }
-            try {
-                int date = Integer.parseInt(dateStr.trim());
-                if (date >= 1 && date <= 31) {
-                    return date;
-                }
-            } catch (NumberFormatException e) {
-                // Ignore and prompt again
-            }
-            JOptionPane.showMessageDialog(mainFrame, "Please enter a valid date between 1 and 31.");
-        }
-    }
-    
-    /**
-     * Method that validates whether or not the user input is a valid double
-     * @param message Message that is shown to the user
-     * @return
-     */
-    private double getValidDouble(String message) {
-        String doubleStr;
-        double value;
-        while (true) {
-            doubleStr = JOptionPane.showInputDialog(mainFrame, message);
-            try {
-                value = Double.parseDouble(doubleStr);
-                return value;
-            } catch (NumberFormatException e) {
-                JOptionPane.showMessageDialog(mainFrame, "Invalid number.");
-            }
-        }
-    }
-
-    /**
-     * Displays detailed information about a specific hotel, including
-     * its name, number of rooms, and number of reservations.
-     *
-     * @param hotel The `HotelModel` object representing the hotel to be
-     *              displayed.
-     */
-    public void displayHotelDetails(HotelModel hotel) {
-        JOptionPane.showMessageDialog(mainFrame,
-                "Hotel Details:\n" +
-                        "Hotel Name: " + hotel.getHotelName() + "\n" +
-                        "Rooms: " + hotel.getRooms().size() + "\n" +
-                        "Reservations: " + hotel.getReservations().size(),
-                "Hotel Details",
-                JOptionPane.INFORMATION_MESSAGE);
-    }
-
-    /**
-     * Displays detailed information about a specific reservation, including
-     * room number, hotel name, room type, check in date, check out date, 
-     * total price, and the guest's name. 
-     * 
-     * @param reservation   The 'reservation' that is being checked for details
-     * @param hotel         The `HotelModel` object representing the hotel to be
-     *                      displayed.
-     * @param room          The 'room' object that is reserved
-     * @param checkInDate   The check in date for the reservation
-     * @param checkOutDate  The check out date for the reservation
-     */
-    public void displayReservationDetails(Reservation reservation, HotelModel hotel, Room room, int checkInDate, int checkOutDate) {
-        reservation.calculateTotalPrice(hotel);
-        JOptionPane.showMessageDialog(mainFrame,
-                "Reservation details for room number " + room.getRoomNumber() + " in hotel: " + hotel.getHotelName() + "\n" +
-                        "Room type: " + room.getRoomType() + "\n" +
-                        "Check-in date: " + checkInDate + ", Check-out date: " + checkOutDate + "\n" +
-                        "Total price: $" + reservation.getTotalPrice() + "\n" +
-                        "Guest name: " + reservation.getGuestName(),
-                "Reservation Details",
-                JOptionPane.INFORMATION_MESSAGE);
-    }
-
-    /**
-     * Prompts the user to confirm changes by entering 'Y' for yes or 'N' for no.
-     *
-     * @return `true` if the user confirms changes, `false` otherwise.
-     */
-    private boolean confirmChanges() {
-        int response = JOptionPane.showConfirmDialog(mainFrame,
-                "Do you want to proceed with the changes?",
-                "Confirm Changes",
-                JOptionPane.YES_NO_OPTION);
-        return response == JOptionPane.YES_OPTION;
-    }
-
-    /**
-     * 
-     * @return the discount code typed by the user
-     */
-    private String getDiscountCode() {
-        return JOptionPane.showInputDialog(mainFrame,
-                "Enter discount code (or press Enter to skip):",
-                "Discount Code",
-                JOptionPane.PLAIN_MESSAGE);
-    }
-
-    /**
-     * Displays all hotels created
-     * @param hotels List of all hotels
-     */
-   public void displayHotels(List<HotelModel> hotels) {
-        DefaultTableModel model = (DefaultTableModel) hotelsTable.getModel();
-        model.setRowCount(0); // Clear existing rows
-    
-        if (hotels.isEmpty()) {
-            JOptionPane.showMessageDialog(mainFrame, "No hotels available.");
-        } else {
-            for (HotelModel hotel : hotels) {
-                String hotelName = hotel.getHotelName();
-                List<Room> rooms = hotel.getRooms(); // Assuming HotelModel has a getRooms() method
-    
-                if (rooms.isEmpty()) {
-                    // If no rooms are available, show the hotel name only
-                    model.addRow(new Object[]{hotelName, "N/A", "N/A", "N/A", "N/A"});
-                } else {
-                    for (Room room : rooms) {
-                        int roomNumber = room.getRoomNumber();
-                        String roomType = room.getRoomType();
-                        double price = room.getPrice();
-                        String book;
-                        if(room.isBooked()) {
-                            book = "Booked";
-                        }
-                        else {
-                            book = "Available";
-                        }
-    
-                        model.addRow(new Object[]{
-                            hotelName,
-                            roomNumber,
-                            roomType,
-                            price,
-                            book,
-                        });
-                    }
-                }
-            }
-        }
-    }
-
-    /**
-     * 
-     * @param room Room that will have details displayed
-     */
-    public void displayRoomDetails(Room room) {
-        roomNumberLabel.setText("Room Number: " + room.getRoomNumber());
-        roomTypeLabel.setText("Room type: " + room.getRoomType());
-        priceLabel.setText("Price: $" + room.getPrice());
-        statusLabel.setText("Status: " + (room.isBooked() ? "Booked" : "Available"));
-    }
-
-    /**
-     * Displays how many rooms are available and booked
-     * @param available Number of available rooms
-     * @param booked    Number of booked rooms
-     */
-    public void displayRoomCountsForDate(int available, int booked) {
-        String message = "Available rooms: " + available + "\n" 
-                        +"Booked rooms: " + booked;
-        JOptionPane.showMessageDialog(mainFrame, message);
-    }
-
-    /**
-     * Displays all rooms that are booked
-     * @param bookedRooms List of 'room' objects that are booked
-     */
-    public void displayBookedRooms(List<Room> bookedRooms) {
-        DefaultTableModel model = (DefaultTableModel) bookedRoomsTable.getModel();
-        model.setRowCount(0); // Clear existing rows
-    
-        if (bookedRooms.isEmpty()) {
-            JOptionPane.showMessageDialog(mainFrame, "No booked rooms found.");
-        } else {
-            for (Room room : bookedRooms) {
-                model.addRow(new Object[]{
-                    room.getRoomNumber(),
-                    room.getPrice()
-                });
-            }
-        }
-    }
-    
-    /**
-     * 
-     * @return true if the hotel has at least one room, false if not
-     */
-    public boolean areAnyRoomsAvailable() {
-        for (HotelModel hotel : controller.getHotels()) {
-            if (!hotel.getRooms().isEmpty()) {
-                return true;
-            }
-        }
-        return false;
-    }
-
-    /**
-     * Lists all hotels created
-     */
-    private void listHotels() {
-        List<HotelModel> hotels = controller.getHotels();
-        displayHotels(hotels);
-    }
-
-    /*
-     * DISPLAY MESSAGES:
-     */
-    
-     /**
-      * Method to prompt the user to enter another value
-      * @param field The type of input the user should type (ex. room number, hotel name, etc.)
-      */
-     public void displayEnterAnother(String field) {
-        JOptionPane.showMessageDialog(mainFrame, "Please enter another " + field);
-    }
-
-    /**
-     * Method to display a success message
-     * @param message Task that has been completed successfully
-     */
-     public void displaySuccess(String message) {
-        JOptionPane.showMessageDialog(null, message);
-    }
-
-    /**
-     * Method to display an error message for hotel not found
-     * @param hotelName name that cannot be found
-     */
-    public void displayHotelNotFound(String hotelName) {
-        JOptionPane.showMessageDialog(null, "Hotel not found: " + hotelName, "Error", JOptionPane.ERROR_MESSAGE);
-    }
-
-    /**
-     * Method to display a message when the maximum number of rooms is reached
-     */
-    public void displayMaxRooms() {
-        JOptionPane.showMessageDialog(null, "Maximum number of rooms reached.", "Error", JOptionPane.ERROR_MESSAGE);
-    }
-
-    /**
-     * Method to display a message when the minimum number of rooms is reached
-     */
-    public void displayMinRooms() {
-        JOptionPane.showMessageDialog(null, "Minimum number of rooms reached.", "Error", JOptionPane.ERROR_MESSAGE);
-    }
-
-    /**
-     * Method to display an error message for room not found
-     * @param roomNumber number of room that can't be found
-     */
-    public void displayRoomNotFound(int roomNumber) {
-        JOptionPane.showMessageDialog(null, "Room not found: " + roomNumber, "Error", JOptionPane.ERROR_MESSAGE);
-    }
-
-    /**
-     * Method to display error messages
-     * @param message Error message to be shown to user
-     */
-    public void displayError(String message) {
-        JOptionPane.showMessageDialog(null, message, "Error", JOptionPane.ERROR_MESSAGE);
-    }
-
-}
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.io.File;
+import java.nio.file.Path;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Locale;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import javax.swing.table.DefaultTableModel;
+
+/**
+ *  The HotelView class manages all the GUI operations, like panels, 
+ *  buttons, etc. It lets the user interact with the GUI, and connects
+ *  these interactions to HotelController.
+ */
+public class HotelView {
+
+    private JFrame mainFrame;
+    private JButton createHotelBtn, viewHotelBtn, manageHotelBtn, simulateBookingBtn;
+    private HotelController controller;
+    private JTable hotelsTable;
+    private JLabel roomNumberLabel;
+    private JLabel roomTypeLabel;
+    private JLabel priceLabel;
+    private JLabel statusLabel;
+    private JTable bookedRoomsTable;
+
+    // Dates can be typed in full or as a day of the current month
+    private static final String DATE_HINT = "(YYYY-MM-DD or day of this month)";
+    // Most reservations listed by a guest search, so the dialog stays readable
+    private static final int GUEST_SEARCH_LIMIT = 50;
+    // Most free rooms listed by a room search
+    private static final int FREE_ROOM_LIMIT = 20;
+    private static final Object[] HOTEL_COLUMNS = {"Hotel Name", "Room Number", "Type", "Price", "Status"};
+
+    public void setController(HotelController controller) {
+        this.controller = controller;
+    }
+
+    public HotelView() {
+        this(true);
+    }
+
+    /**
+     * Creates a view without a window, for running the controller headless, such as
+     * under the load generator. Every message the controller shows through it is dropped.
+     * @return A view that displays nothing
+     */
+    public static HotelView headless() {
+        return new HotelView(false);
+    }
+
+    /**
+     * @param showWindow Whether to build and show the main window
+     */
+    private HotelView(boolean showWindow) {
+        if (!showWindow) {
+            return; // mainFrame stays null, so onScreen drops every message
+        }
+        mainFrame = new JFrame("Hotel Reservation System");
+        mainFrame.setSize(600, 600);
+        mainFrame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        mainFrame.setLayout(new BorderLayout(10, 10));
+
+        // Panel for tables
+        JPanel tablePanel = new JPanel(new GridLayout(1, 2, 10, 10));
+
+        // Initialize the hotels table
+        hotelsTable = new JTable(new DefaultTableModel(HOTEL_COLUMNS, 0));
+        JScrollPane scrollPane = new JScrollPane(hotelsTable);
+        tablePanel.add(scrollPane);
+
+        mainFrame.add(tablePanel, BorderLayout.CENTER);
+
+        // Panel for labels
+        JPanel labelPanel = new JPanel(new GridLayout(1, 3, 10, 10));
+        roomNumberLabel = new JLabel("Room Number: ");
+        roomTypeLabel = new JLabel("Room Type: ");
+        priceLabel = new JLabel("Price: ");
+        statusLabel = new JLabel("Status: ");
+        labelPanel.add(roomNumberLabel);
+        labelPanel.add(roomTypeLabel);
+        labelPanel.add(priceLabel);
+        labelPanel.add(statusLabel);
+
+
+        // Panel for buttons
+        JPanel buttonPanel = new JPanel(new GridLayout(2, 2, 10, 10));
+        createHotelBtn = new JButton("Create Hotel");
+        viewHotelBtn = new JButton("View Hotels");
+        manageHotelBtn = new JButton("Manage Hotel");
+        simulateBookingBtn = new JButton("Simulate Booking");
+
+        createHotelBtn.setFocusable(false);
+        viewHotelBtn.setFocusable(false);
+        manageHotelBtn.setFocusable(false);
+        simulateBookingBtn.setFocusable(false);
+
+        buttonPanel.add(createHotelBtn);
+        buttonPanel.add(viewHotelBtn);
+        buttonPanel.add(manageHotelBtn);
+        buttonPanel.add(simulateBookingBtn);
+
+        mainFrame.add(buttonPanel, BorderLayout.NORTH);
+
+        mainFrame.setVisible(true);
+
+        // Add action listeners to the buttons
+        createHotelBtn.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                addHotel();
+            }
+        });
+
+        viewHotelBtn.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                showViewHotelsMenu();
+            }
+        });
+
+        manageHotelBtn.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                showManageHotelMenu();
+            }
+        });
+
+        simulateBookingBtn.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                showSimulateBookingMenu();
+            }
+        });
+    }
+
+    /**
+     *  Method that shows the menu for "View Hotels"
+     */
+    private void showViewHotelsMenu(){
+         // Create a new JFrame for Show Lists Hotel menu
+         JFrame manageFrame = new JFrame("View Hotel");
+         manageFrame.setSize(400, 400);
+         manageFrame.setLayout(new GridLayout(7, 1));
+ 
+         JButton showHotelDetailsBtn = new JButton("Show Hotel Details");
+         JButton estimateEarningBtn = new JButton("Estimate Earnings");
+         JButton showReservationDetailsBtn = new JButton("Show Reservation Details");
+         JButton listHotelsBtn = new JButton("List Hotels");
+         JButton findGuestBtn = new JButton("Find Reservations by Guest");
+         JButton chainReportBtn = new JButton("Chain Report");
+         JButton exportReportBtn = new JButton("Export Report");
+    
+         manageFrame.add(showHotelDetailsBtn);
+         manageFrame.add(estimateEarningBtn);
+         manageFrame.add(showReservationDetailsBtn);
+         manageFrame.add(listHotelsBtn);
+         manageFrame.add(findGuestBtn);
+         manageFrame.add(chainReportBtn);
+         manageFrame.add(exportReportBtn);
+
+         manageFrame.setVisible(true);
+
+
+         showHotelDetailsBtn.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                getHotelDetails();
+            }
+        });
+
+        estimateEarningBtn.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                estimateEarnings();
+            }
+        });
+
+        showReservationDetailsBtn.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                showReservationDetails();
+            }
+        });
+
+        listHotelsBtn.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                listHotels();
+            }
+        });
+
+        findGuestBtn.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                findReservationsByGuest();
+            }
+        });
+
+        chainReportBtn.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                showChainReport();
+            }
+        });
+
+        exportReportBtn.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                exportReport();
+            }
+        });
+    }
+
+    /**
+     *  Method that shows the menu for "Manage Hotel"
+     */
+    private void showManageHotelMenu() {
+        // Create a new JFrame for Manage Hotel menu
+        JFrame manageFrame = new JFrame("Manage Hotel");
+        manageFrame.setSize(400, 400);
+        manageFrame.setLayout(new GridLayout(8, 1));
+
+        JButton changeNameBtn = new JButton("Change Hotel Name");
+        JButton addRoomBtn = new JButton("Add a Room");
+        JButton removeRoomBtn = new JButton("Remove a Room");
+        JButton updateRoomPriceBtn = new JButton("Update Base Room Price");
+        JButton modifyPriceDayBtn = new JButton("Modify Price for a Day");
+        JButton modifyPriceRangeBtn = new JButton("Modify Price for a Range of Days");
+        JButton removeHotelBtn = new JButton("Remove a Hotel");
+        JButton importCsvBtn = new JButton("Import from CSV");
+        
+
+        manageFrame.add(changeNameBtn);
+        manageFrame.add(addRoomBtn);
+        manageFrame.add(removeRoomBtn);
+        manageFrame.add(updateRoomPriceBtn);
+        manageFrame.add(modifyPriceDayBtn);
+        manageFrame.add(modifyPriceRangeBtn);
+        manageFrame.add(removeHotelBtn);
+        manageFrame.add(importCsvBtn);
+
+        manageFrame.setVisible(true);
+
+        changeNameBtn.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                changeHotelName();
+            }
+        });
+
+        addRoomBtn.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                addRoomToHotel();
+            }
+        });
+
+        removeRoomBtn.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                removeRoomFromHotel();
+            }
+        });
+
+        updateRoomPriceBtn.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                updateRoomPrice();
+            }
+        });
+
+        modifyPriceDayBtn.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                modifyDatePrice();
+            }
+        });
+
+        modifyPriceRangeBtn.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                modifyDatePriceRange();
+            }
+        });
+
+        removeHotelBtn.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                removeHotel();
+            }
+        });
+
+        importCsvBtn.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                importCsv();
+            }
+        });
+    }
+
+    /**
+     *  Method that shows the menu for "Simulate Booking"
+     */
+    private void showSimulateBookingMenu() {
+        // Create a new JFrame for Simulate Booking menu
+        JFrame bookingFrame = new JFrame("Simulate Booking");
+        bookingFrame.setSize(400, 400);
+        bookingFrame.setLayout(new GridLayout(8, 1));
+
+        JButton makeReservationBtn = new JButton("Make a Reservation");
+        JButton blockReservationBtn = new JButton("Make a Block Reservation");
+        JButton cancelReservationBtn = new JButton("Cancel a Reservation");
+        JButton listBookedRoomsBtn = new JButton("List Booked Rooms");
+        JButton listAvailableRoomsBtn = new JButton("List Available Rooms");
+        JButton showRoomCountsBtn = new JButton("Show Room Counts for a Date");
+        JButton showRoomInfoMonthBtn = new JButton("Show Room Info Across Month");
+        JButton findFreeRoomsBtn = new JButton("Find Free Rooms for a Stay");
+
+        bookingFrame.add(makeReservationBtn);
+        bookingFrame.add(blockReservationBtn);
+        bookingFrame.add(cancelReservationBtn);
+        bookingFrame.add(listBookedRoomsBtn);
+        bookingFrame.add(listAvailableRoomsBtn);
+        bookingFrame.add(showRoomCountsBtn);
+        bookingFrame.add(showRoomInfoMonthBtn);
+        bookingFrame.add(findFreeRoomsBtn);
+
+        bookingFrame.setVisible(true);
+
+        makeReservationBtn.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                makeReservation();
+            }
+        });
+
+        blockReservationBtn.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                makeBlockReservation();
+            }
+        });
+
+        cancelReservationBtn.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                cancelReservation();
+            }
+        });
+
+        listBookedRoomsBtn.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                listBookedRooms();
+            }
+        });
+
+        listAvailableRoomsBtn.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                listAvailableRooms();
+            }
+        });
+
+        showRoomCountsBtn.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                showRoomCountsForDate();
+            }
+        });
+
+        showRoomInfoMonthBtn.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                showRoomInfoAcrossMonth();
+            }
+        });
+
+        findFreeRoomsBtn.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                findFreeRooms();
+            }
+        });
+    }
+
+    /**
+     * METHOD FUNCTIONALITIES:
+     */
+
+     /**
+     * Adds a new hotel to the system based on user input.
+     */
+    private void addHotel() {
+        String hotelName = JOptionPane.showInputDialog(mainFrame, "Enter hotel name:");
+        if (hotelName != null && !hotelName.trim().isEmpty()) {
+            controller.addHotel(hotelName.trim());
+            JOptionPane.showMessageDialog(mainFrame, "Hotel added: " + hotelName);
+        } else {
+            JOptionPane.showMessageDialog(mainFrame, "Hotel name cannot be empty.");
+        }
+    }
+
+
+    /**
+     *  Gets input for hotel name, then calls to display hotel details
+     */
+    private void getHotelDetails() {
+        HotelModel hotel = validateHotelName("Enter hotel name:");
+        if (hotel != null) {
+            displayHotelDetails(hotel);
+        }
+    }
+
+    /**
+     *  Estimates earning for a hotel, when given the hotel name
+     */
+    private void estimateEarnings() {
+        HotelModel hotel = validateHotelName("Enter hotel name:");
+        if (hotel != null) {
+            whenDone(controller.estimateEarningsAsync(hotel.getHotelName()), earnings ->
+                JOptionPane.showMessageDialog(mainFrame, "Estimated earnings for hotel " + hotel.getHotelName() + ": $" + earnings));
+        }
+    }
+
+    /**
+     * Displays detailed reservation information including hotel name, room number,
+     * guest name, check-in date, check-out date, total price, and price per night.
+     */
+    private void showReservationDetails() {
+        HotelModel hotel = validateHotelName("Enter hotel name:");
+        if (hotel != null) {
+            Room room = validateRoomNumber(hotel, "Enter room number:");
+            if (room != null) {
+                int checkInDate = getValidDate("Enter check-in date " + DATE_HINT + ":");
+                int checkOutDate = getValidDate("Enter check-out date " + DATE_HINT + ":");
+                while (checkOutDate < checkInDate) {
+                    JOptionPane.showMessageDialog(mainFrame, "Check-out date must be after check-in date.");
+                    checkOutDate = getValidDate("Enter check-out date " + DATE_HINT + ":");
+                }
+                Reservation r = controller.getReservationDetails(hotel.getHotelName(), room.getRoomNumber(), checkInDate, checkOutDate);
+                if (r == null) {
+                    displayEnterAnother("reservation. The specified dates do not match any reservation.");
+                }
+                else {
+                    displayReservationDetails(r, hotel, room, checkInDate, checkOutDate);
+                }
+            }
+        }
+    }
+
+    /**
+     * Lists the reservations of every guest whose name starts with the text entered by the user,
+     * across all hotels.
+     */
+    private void findReservationsByGuest() {
+        String prefix = JOptionPane.showInputDialog(mainFrame, "Enter guest name or the start of it:");
+        if (prefix == null || prefix.trim().isEmpty()) {
+            return; // User cancelled or entered empty value
+        }
+        whenDone(controller.submit(() -> controller.findReservationsByGuest(prefix, GUEST_SEARCH_LIMIT)),
+                found -> displayGuestReservations(prefix, found));
+    }
+
+    /**
+     * Reports earnings and nightly occupancy across every hotel for a range of dates entered by the user
+     */
+    private void showChainReport() {
+        int firstDay = getValidDate("Enter first date of the report " + DATE_HINT + ":");
+        int lastDay = getValidDate("Enter last date of the report " + DATE_HINT + ":");
+        while (lastDay < firstDay) {
+            JOptionPane.showMessageDialog(mainFrame, "Last date must not be before the first date.");
+            lastDay = getValidDate("Enter last date of the report " + DATE_HINT + ":");
+        }
+        whenDone(controller.reportChainAsync(firstDay, lastDay), this::displayChainReport);
+    }
+
+    /**
+     * Exports a report on every hotel to a file chosen by the user, in the background
+     */
+    private void exportReport() {
+        ReportExporter.Report report = (ReportExporter.Report) JOptionPane.showInputDialog(mainFrame, "Choose a report:",
+                "Export Report", JOptionPane.QUESTION_MESSAGE, null, ReportExporter.Report.values(), ReportExporter.Report.OCCUPANCY);
+        if (report == null) {
+            return; // User cancelled
+        }
+        ReportExporter.Format format = (ReportExporter.Format) JOptionPane.showInputDialog(mainFrame, "Choose a format:",
+                "Export Report", JOptionPane.QUESTION_MESSAGE, null, ReportExporter.Format.values(), ReportExporter.Format.CSV);
+        if (format == null) {
+            return; // User cancelled
+        }
+        int firstDay = 0;
+        int lastDay = 0;
+        if (report == ReportExporter.Report.OCCUPANCY) {
+            firstDay = getValidDate("Enter first date of the grid " + DATE_HINT + ":");
+            lastDay = getValidDate("Enter last date of the grid " + DATE_HINT + ":");
+            while (lastDay < firstDay) {
+                JOptionPane.showMessageDialog(mainFrame, "Last date must not be before the first date.");
+                lastDay = getValidDate("Enter last date of the grid " + DATE_HINT + ":");
+            }
+        } else if (report == ReportExporter.Report.BOOKED_ROOMS || report == ReportExporter.Report.AVAILABLE_ROOMS) {
+            firstDay = getValidDate("Enter date " + DATE_HINT + ":");
+            lastDay = firstDay;
+        }
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle("Export " + report);
+        chooser.setSelectedFile(new File(report.name().toLowerCase(Locale.ROOT) + "." + format.name().toLowerCase(Locale.ROOT)));
+        if (chooser.showSaveDialog(mainFrame) != JFileChooser.APPROVE_OPTION) {
+            return; // User cancelled
+        }
+        Path file = chooser.getSelectedFile().toPath();
+        int first = firstDay;
+        int last = lastDay;
+        whenDone(controller.submit(() -> controller.exportReport(file, report, format, first, last)), exported -> { });
+    }
+
+    /**
+     * Shows a chain-wide report
+     *
+     * @param report The report to show
+     */
+    private void displayChainReport(ChainReport report) {
+        StringBuilder sb = new StringBuilder("Chain report:\n");
+        sb.append("Hotels: ").append(report.getHotelCount())
+          .append(", rooms: ").append(report.getRoomCount())
+          .append(", reservations: ").append(report.getReservationCount()).append("\n");
+        sb.append("Total earnings: $").append(String.format("%.2f", report.getEarnings())).append("\n");
+        for (int day = report.getFirstDay(); day <= report.getLastDay(); day++) {
+            sb.append(CalendarDays.format(day)).append(": ")
+              .append(report.getBookedRooms(day)).append(" booked, ")
+              .append(report.getAvailableRooms(day)).append(" available (")
+              .append(String.format("%.1f", report.getOccupancy(day))).append("%)\n");
+        }
+        sb.append(String.format("Computed in %.1f ms on %d threads, %.1fx faster than one thread.",
+                report.getElapsedNanos() / 1e6, report.getParallelism(), report.getSpeedUp()));
+        JTextArea text = new JTextArea(sb.toString(), 20, 50);
+        text.setEditable(false);
+        JOptionPane.showMessageDialog(mainFrame, new JScrollPane(text), "Chain Report", JOptionPane.INFORMATION_MESSAGE);
+    }
+
+    /**
+     * Shows the reservations found by a guest search
+     *
+     * @param prefix The text the user searched for
+     * @param found  The reservations found
+     */
+    private void displayGuestReservations(String prefix, List<Reservation> found) {
+        if (found.isEmpty()) {
+            JOptionPane.showMessageDialog(mainFrame, "No reservations found for \"" + prefix.trim() + "\".");
+            return;
+        }
+        StringBuilder sb = new StringBuilder("Reservations for \"" + prefix.trim() + "\":\n");
+        for (Reservation r : found) {
+            sb.append("#").append(r.getId()).append(" ").append(r.getGuestName())
+              .append(", room ").append(r.getRoomNumber())
+              .append(", ").append(CalendarDays.format(r.getCheckInDate()))
+              .append(" to ").append(CalendarDays.format(r.getCheckOutDate())).append("\n");
+        }
+        if (found.size() >= GUEST_SEARCH_LIMIT) {
+            sb.append("Showing the first ").append(GUEST_SEARCH_LIMIT).append(" matches.\n");
+        }
+        JOptionPane.showMessageDialog(mainFrame, sb.toString());
+    }
+
+    /**
+     * Changes the name of a specified hotel based on user input.
+     */
+    private void changeHotelName() {
+        HotelModel hotel = validateHotelName("Enter current hotel name:");
+        if (hotel != null) {
+            String newHotelName = JOptionPane.showInputDialog(mainFrame, "Enter new hotel name:");
+            if (newHotelName != null && !newHotelName.trim().isEmpty()) {
+                controller.changeHotelName(hotel.getHotelName(), newHotelName.trim());
+                JOptionPane.showMessageDialog(mainFrame, "Hotel name changed to: " + newHotelName);
+            } else {
+                JOptionPane.showMessageDialog(mainFrame, "New hotel name cannot be empty.");
+            }
+        }
+    }
+
+    /**
+     * Method to add rooms to a hotel
+     */
+    private void addRoomToHotel() {
+        String hotelName = JOptionPane.showInputDialog(mainFrame, "Enter hotel name:");
+        if (hotelName == null || hotelName.trim().isEmpty()) {
+            displayError("Hotel name cannot be empty.");
+            return;
+        }
+        HotelModel hotel = controller.findHotelByName(hotelName.trim());
+        if (hotel == null) {
+            JOptionPane.showMessageDialog(mainFrame, "Hotel not found.");
+            return;
+        }
+        
+        String roomNumberStr = JOptionPane.showInputDialog(mainFrame, "Enter room number:");
+        if (roomNumberStr == null || roomNumberStr.trim().isEmpty()) {
+            displayError("Room number cannot be empty.");
+            return;
+        }
+        int roomNumber;
+        try {
+            roomNumber = Integer.parseInt(roomNumberStr);
+        } catch (NumberFormatException e) {
+            displayError("Invalid room number.");
+            return;
+        }
+
+        String roomType = JOptionPane.showInputDialog(mainFrame, "Enter room type (Standard/Deluxe/Executive):");
+        if (roomType == null || roomType.trim().isEmpty()) {
+            displayError("Room type cannot be empty.");
+            return;
+        }
+        else if (!(roomType.equalsIgnoreCase("Standard")) && !(roomType.equalsIgnoreCase("Deluxe")) && !(roomType.equalsIgnoreCase("Executive"))) {
+            displayError("Enter a valid room type.");
+            return;
+        }
+
+        String countStr = JOptionPane.showInputDialog(mainFrame, "Enter number of rooms to add:");
+        if (countStr == null || countStr.trim().isEmpty()) {
+            displayError("Number of rooms cannot be empty.");
+            return;
+        }
+
+        int count;
+        try {
+            count = Integer.parseInt(countStr);
+        } catch (NumberFormatException e) {
+            displayError("Invalid number of rooms.");
+            return;
+        }
+
+        int confirmation = JOptionPane.showConfirmDialog(mainFrame, "Are you sure you want to add " + count + " room(s) to hotel " + hotelName + "?", "Confirm", JOptionPane.YES_NO_OPTION);
+        if (confirmation == JOptionPane.YES_OPTION) {
+            whenDone(controller.addRoomToHotelAsync(hotelName, roomNumber, roomType, count), done -> { });
+        }
+    }
+
+    /**
+     * Method to remove room from a hotel
+     */
+    private void removeRoomFromHotel() {
+        String hotelName = JOptionPane.showInputDialog(mainFrame, "Enter hotel name:");
+        if (hotelName == null) return; // User cancelled
+        HotelModel hotel = controller.findHotelByName(hotelName);
+        if (hotel == null) {
+            displayError("Hotel not found.");
+            return;
+        }
+
+        String roomNumberStr = JOptionPane.showInputDialog(mainFrame, "Enter room number:");
+        if (roomNumberStr == null) return; // User cancelled
+
+        int roomNumber;
+        try {
+            roomNumber = Integer.parseInt(roomNumberStr);
+        } catch (NumberFormatException e) {
+            displayError("Invalid room number.");
+            return;
+        }
+
+        Room room = hotel.getRoomByNumber(roomNumber);
+        if (room == null) {
+            displayError("Room not found.");
+            return;
+        }
+
+        int confirm = JOptionPane.showConfirmDialog(null, 
+                "Are you sure you want to remove room number " + room.getRoomNumber() + " from hotel: " + hotel.getHotelName() + "?",
+                "Confirm Removal", JOptionPane.YES_NO_OPTION);
+
+        if (confirm == JOptionPane.YES_OPTION) {
+            boolean check = controller.removeRoomFromHotel(hotel.getHotelName(), room.getRoomNumber());
+            if (check) {
+                JOptionPane.showMessageDialog(null, "Removed room number " + room.getRoomNumber() + " from hotel: " + hotel.getHotelName());
+            } else {
+                displayError("Failed to remove room.");
+            }
+        }
+    }
+
+    /**
+     * Updates the price of rooms in a specified hotel based on user input.
+     */
+    private void updateRoomPrice() {
+        HotelModel hotel = validateHotelName("Enter hotel name:");
+        if (hotel != null) {
+            //Room room = validateRoomNumber(hotel, "Enter room number:");
+            //if (room != null) {
+                double newPrice = getValidDouble("Enter new room price:");
+                controller.updateRoomPrice(hotel.getHotelName(), newPrice);
+                //JOptionPane.showMessageDialog(mainFrame, "Room price updated: " + "$" + newPrice);
+            //}
+        }
+    }
+
+    /**
+     * Method to modify the price of reservations for a single day
+     */
+    private void modifyDatePrice() {
+        HotelModel hotel = validateHotelName("Enter hotel name:");
+        if (hotel != null) {
+                int date = getValidDate("Enter date " + DATE_HINT + ":");
+                if (date < 0) {
+                    return; // User cancelled
+                }
+                String priceRateStr = JOptionPane.showInputDialog(mainFrame, "Enter price rate (50-150):");
+                if (priceRateStr == null || priceRateStr.trim().isEmpty()) {
+                    displayError("Price rate cannot be empty.");
+                    return;
+                }
+                int priceRate;
+                try {
+                    priceRate = Integer.parseInt(priceRateStr);
+                } catch (NumberFormatException e) {
+                    displayError("Invalid price rate.");
+                    return;
+                }
+                if (priceRate > 150 || priceRate < 50) {
+                    displayError("Enter a price rate within the range.");
+                    return;
+                }
+
+                //controller.modifyPriceForADay(hotel.getHotelName(), room.getRoomNumber(), date, newPrice);
+                controller.datePriceModifier(hotel, date, priceRate);
+                JOptionPane.showMessageDialog(mainFrame, "Price updated for day " + CalendarDays.format(date) + ": " + priceRate + "%");
+            //}
+        }
+    }
+
+    /**
+     * Method to modify the price of reservations for a range of days
+     */
+    private void modifyDatePriceRange() {
+        HotelModel hotel = validateHotelName("Enter hotel name:");
+        if (hotel != null) {
+            //Room room = validateRoomNumber(hotel, "Enter room number:");
+            //if (room != null) {
+                int startDate = getValidDate("Enter start date " + DATE_HINT + ":");
+                int endDate = getValidDate("Enter end date " + DATE_HINT + ":");
+                if (startDate < 0 || endDate < 0) {
+                    return; // User cancelled
+                }
+                if (endDate < startDate) {
+                    JOptionPane.showMessageDialog(mainFrame, "End date must be after start date.");
+                    return;
+                }
+                String priceRateStr = JOptionPane.showInputDialog(mainFrame, "Enter price rate (50-150):");
+                if (priceRateStr == null || priceRateStr.trim().isEmpty()) {
+                    displayError("Price rate cannot be empty.");
+                    return;
+                }
+                int priceRate;
+                try {
+                    priceRate = Integer.parseInt(priceRateStr);
+                } catch (NumberFormatException e) {
+                    displayError("Invalid price rate.");
+                    return;
+                }
+                if (priceRate > 150 || priceRate < 50) {
+                    displayError("Enter a price rate within the range.");
+                    return;
+                }
+                //double newPrice = getValidDouble("Enter new price for range " + startDate + " to " + endDate + ":");
+                //controller.modifyPriceForRange(hotel.getHotelName(), room.getRoomNumber(), startDate, endDate, newPrice);
+                int rate = priceRate;
+                whenDone(controller.datePriceModifierAsync(hotel, startDate, endDate, rate), done ->
+                    JOptionPane.showMessageDialog(mainFrame, "Price updated for dates " + CalendarDays.format(startDate) + " to " + CalendarDays.format(endDate) + ": " + rate + "%"));
+            //}
+        }
+    }
+
+    /**
+     * Removes a hotel from the system based on user input.
+     */
+    private void removeHotel() {
+        HotelModel hotel = validateHotelName("Enter hotel name:");
+        if (hotel != null) {
+            controller.removeHotel(hotel.getHotelName());
+            JOptionPane.showMessageDialog(mainFrame, "Hotel removed: " + hotel.getHotelName());
+        }
+    }
+
+    /**
+     * Imports hotels, rooms and reservations from a CSV file chosen by the user, in the background.
+     * Rejected rows are written next to the file, as NAME.rejects.csv.
+     */
+    private void importCsv() {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle("Import hotels, rooms and reservations");
+        if (chooser.showOpenDialog(mainFrame) != JFileChooser.APPROVE_OPTION) {
+            return; // User cancelled
+        }
+        Path file = chooser.getSelectedFile().toPath();
+        Path rejectsFile = file.resolveSibling(file.getFileName() + ".rejects.csv");
+        whenDone(controller.submit(() -> controller.importCsv(file, rejectsFile)), report -> { });
+    }
+
+     /**
+     * Makes a reservation for a room in a specified hotel based on user input.
+     */
+    private void makeReservation() {
+        HotelModel hotel = validateHotelName("Enter hotel name:");
+        if (hotel != null) {
+            Room room = validateRoomNumber(hotel, "Enter room number:");
+            if (room != null) {
+                int checkInDate = getValidDate("Enter check-in date " + DATE_HINT + ":");
+                int checkOutDate = getValidDate("Enter check-out date " + DATE_HINT + ":");
+                while (checkOutDate <= checkInDate) {
+                    JOptionPane.showMessageDialog(mainFrame, "Check-out date must be after check-in date.");
+                    checkOutDate = getValidDate("Enter check-out date " + DATE_HINT + ":");
+                }
+                String customerName = JOptionPane.showInputDialog(mainFrame, "Enter customer name:");
+                String discountCode = JOptionPane.showInputDialog(null, "Enter discount code (if any):");
+                if (customerName != null && !customerName.trim().isEmpty()) {
+                    controller.makeReservation(hotel.getHotelName(), room.getRoomNumber(), checkInDate, checkOutDate, customerName.trim(), discountCode);
+                } else {
+                    JOptionPane.showMessageDialog(mainFrame, "Customer name cannot be empty.");
+                }
+            }
+        }
+    }
+
+    /**
+     * Books several rooms for one guest and the same dates, such as a block for a conference.
+     * Either every room is booked or none are.
+     */
+    private void makeBlockReservation() {
+        HotelModel hotel = validateHotelName("Enter hotel name:");
+        if (hotel == null) {
+            return;
+        }
+        String roomList = JOptionPane.showInputDialog(mainFrame, "Enter room numbers (e.g. 101-110, 115):");
+        if (roomList == null || roomList.trim().isEmpty()) {
+            return; // User cancelled or entered empty value
+        }
+        List<Integer> roomNumbers = parseRoomNumbers(roomList);
+        if (roomNumbers == null) {
+            displayError("Invalid room numbers. A block has at most " + HotelModel.MAX_ROOMS + " rooms.");
+            return;
+        }
+        int checkInDate = getValidDate("Enter check-in date " + DATE_HINT + ":");
+        int checkOutDate = getValidDate("Enter check-out date " + DATE_HINT + ":");
+        while (checkOutDate <= checkInDate) {
+            JOptionPane.showMessageDialog(mainFrame, "Check-out date must be after check-in date.");
+            checkOutDate = getValidDate("Enter check-out date " + DATE_HINT + ":");
+        }
+        String customerName = JOptionPane.showInputDialog(mainFrame, "Enter customer name:");
+        if (customerName == null || customerName.trim().isEmpty()) {
+            return;
+        }
+        List<BookingRequest> requests = new ArrayList<>();
+        for (int roomNumber : roomNumbers) {
+            requests.add(new BookingRequest(roomNumber, customerName.trim(), checkInDate, checkOutDate));
+        }
+        whenDone(controller.submit(() -> controller.makeReservations(hotel.getHotelName(), requests)), booked -> { });
+    }
+
+    /**
+     * Reads a list of room numbers and ranges separated by commas, such as "101-110, 115".
+     * No hotel has more than HotelModel.MAX_ROOMS rooms, so a list naming more is refused
+     * before any range is expanded.
+     *
+     * @param text The room numbers typed by the user
+     * @return The room numbers, or null if the text is not a valid list or names too many rooms
+     */
+    private List<Integer> parseRoomNumbers(String text) {
+        List<Integer> roomNumbers = new ArrayList<>();
+        try {
+            for (String part : text.split(",")) {
+                String[] bounds = part.trim().split("-");
+                int first = Integer.parseInt(bounds[0].trim());
+                int last = bounds.length > 1 ? Integer.parseInt(bounds[1].trim()) : first;
+                long count = (long) last - first + 1;
+                if (bounds.length > 2 || last < first || roomNumbers.size() + count > HotelModel.MAX_ROOMS) {
+                    return null;
+                }
+                for (int i = 0; i < count; i++) {
+                    roomNumbers.add(first + i);
+                }
+            }
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        return roomNumbers;
+    }
+
+    /**
+     * Cancels a reservation for a room in a specified hotel based on user input.
+     */
+    private void cancelReservation() {
+        HotelModel hotel = validateHotelName("Enter hotel name:");
+        if (hotel != null) {
+            Room room = validateRoomNumber(hotel, "Enter room number:");
+            if (room != null) {
+                int checkInDate = getValidDate("Enter check-in date " + DATE_HINT + ":");
+                int checkOutDate = getValidDate("Enter check-out date " + DATE_HINT + ":");
+                if (checkOutDate < checkInDate) {
+                    JOptionPane.showMessageDialog(mainFrame, "Check-out date must be after check-in date.");
+                    return;
+                }
+                controller.cancelReservation(hotel.getHotelName(), room.getRoomNumber(), checkInDate, checkOutDate);
+            }
+        }
+    }
+
+    /**
+     * Lists all rooms that are currently booked in a specified hotel based on user input.
+     */
+    private void listBookedRooms() {
+        HotelModel hotel = validateHotelName("Enter hotel name:");
+        if (hotel != null) {
+            int date = getValidDate("Enter date " + DATE_HINT + ":");
+            List<Room> bookedRooms = controller.getBookedRooms(hotel.getHotelName(), date);
+            StringBuilder sb = new StringBuilder("Booked rooms on date " + CalendarDays.format(date) + "\n");
+            for (Room room : bookedRooms) {
+                sb.append("Room ").append(room.getRoomNumber()).append("\n");
+            }
+            JOptionPane.showMessageDialog(mainFrame, sb.toString());
+        }
+    }
+
+
+    /**
+     * Lists all rooms that are currently available in a specified hotel based on user input.
+     */
+    private void listAvailableRooms() {
+        HotelModel hotel = validateHotelName("Enter hotel name:");
+        if (hotel != null) {
+            int date = getValidDate("Enter date " + DATE_HINT + ":");
+            List<Room> availableRooms = controller.getAvailableRooms(hotel.getHotelName(), date);
+            StringBuilder sb = new StringBuilder("Available rooms on date " + CalendarDays.format(date) + ":\n");
+            for (Room room : availableRooms) {
+                sb.append("Room ").append(room.getRoomNumber()).append(": ").append("\n");
+            }
+            JOptionPane.showMessageDialog(mainFrame, sb.toString());
+        }
+    }
+
+    /**
+     * Lists the first rooms of a type that are free for every night of a stay,
+     * so the user can pick a room number before making a reservation.
+     */
+    private void findFreeRooms() {
+        HotelModel hotel = validateHotelName("Enter hotel name:");
+        if (hotel == null) {
+            return;
+        }
+        String roomType = JOptionPane.showInputDialog(mainFrame, "Enter room type (Standard/Deluxe/Executive, or leave empty for any):");
+        if (roomType == null) {
+            return; // User cancelled
+        }
+        if (roomType.trim().isEmpty()) {
+            roomType = null;
+        } else if (!(roomType.trim().equalsIgnoreCase("Standard")) && !(roomType.trim().equalsIgnoreCase("Deluxe")) && !(roomType.trim().equalsIgnoreCase("Executive"))) {
+            displayError("Enter a valid room type.");
+            return;
+        }
+        int checkInDate = getValidDate("Enter check-in date " + DATE_HINT + ":");
+        int checkOutDate = getValidDate("Enter check-out date " + DATE_HINT + ":");
+        while (checkOutDate <= checkInDate) {
+            JOptionPane.showMessageDialog(mainFrame, "Check-out date must be after check-in date.");
+            checkOutDate = getValidDate("Enter check-out date " + DATE_HINT + ":");
+        }
+        String type = roomType;
+        int checkOut = checkOutDate;
+        whenDone(controller.submit(() -> controller.findAvailableRooms(hotel.getHotelName(), type, checkInDate, checkOut, FREE_ROOM_LIMIT)),
+                freeRooms -> displayFreeRooms(checkInDate, checkOut, freeRooms));
+    }
+
+    /**
+     * Shows the rooms found by a free room search
+     *
+     * @param checkInDate  The check-in date searched for
+     * @param checkOutDate The check-out date searched for
+     * @param freeRooms    The free rooms found, or null if the hotel was not found
+     */
+    private void displayFreeRooms(int checkInDate, int checkOutDate, List<Room> freeRooms) {
+        if (freeRooms == null) {
+            return;
+        }
+        if (freeRooms.isEmpty()) {
+            JOptionPane.showMessageDialog(mainFrame, "No free rooms from " + CalendarDays.format(checkInDate) + " to " + CalendarDays.format(checkOutDate) + ".");
+            return;
+        }
+        StringBuilder sb = new StringBuilder("Free rooms from " + CalendarDays.format(checkInDate) + " to " + CalendarDays.format(checkOutDate) + ":\n");
+        for (Room room : freeRooms) {
+            sb.append("Room ").append(room.getRoomNumber()).append(" (").append(room.getRoomType()).append(")\n");
+        }
+        JOptionPane.showMessageDialog(mainFrame, sb.toString());
+    }
+
+     /**
+     * Displays the count of available and booked rooms for a specific date
+     * in the context of a specific hotel.
+     */
+    private void showRoomCountsForDate() {
+        HotelModel hotel = validateHotelName("Enter hotel name:");
+        if (hotel != null) {
+            int date = getValidDate("Enter date " + DATE_HINT + ":");
+            controller.showRoomCountsForDate(hotel.getHotelName(), date);
+        }
+    }
+
+     /**
+     * Shows detailed information about a specific room for the entire month,
+     * including availability status for each day.
+     */
+    private void showRoomInfoAcrossMonth() {
+        HotelModel hotel = validateHotelName("Enter hotel name:");
+        if(hotel == null)
+            return;
+        Room room = validateRoomNumber(hotel, "Enter room number:");
+        if(room == null)
+            return;
+        YearMonth month = getValidMonth("Enter month (YYYY-MM, or leave empty for this month):");
+        if (hotel != null && month != null) {
+            controller.showRoomInfoAcrossMonth(hotel, room, month);
+        }
+    }
+
+    public void displayRoomInfoAcrossMonth(String info) {
+        onScreen(() -> JOptionPane.showMessageDialog(mainFrame, info));
+    }
+
+    /**
+     * Utility method to validate the existence of a hotel based on user input.
+     *
+     * @param prompt The prompt message to display when requesting input.
+     * @return The validated `HotelModel` object corresponding to the hotel name entered by the user.
+     */
+    private HotelModel validateHotelName(String message) {
+        String hotelName = JOptionPane.showInputDialog(mainFrame, message);
+        if (hotelName == null || hotelName.trim().isEmpty()) {
+            return null; // User cancelled or entered empty value
+        }
+        HotelModel hotel = controller.findHotelByName(hotelName.trim());
+        if (hotel == null) {
+            JOptionPane.showMessageDialog(mainFrame, "Hotel not found.");
+        }
+        return hotel;
+    }
+    
+
+     /**
+     * Utility method to validate the existence of a room in a specified hotel based on user input.
+     *
+     * @param hotel The `HotelModel` object representing the hotel in which to validate the room.
+     * @param prompt The prompt message to display when requesting input.
+     * @return The validated `Room` object corresponding to the room number entered by the user.
+     */
+    private Room validateRoomNumber(HotelModel hotel, String message) {
+        String roomNumberStr = JOptionPane.showInputDialog(mainFrame, message);
+        if (roomNumberStr == null || roomNumberStr.trim().isEmpty()) {
+            return null; // User cancelled or entered empty value
+        }
+        int roomNumber;
+        try {
+            roomNumber = Integer.parseInt(roomNumberStr.trim());
+        } catch (NumberFormatException e) {
+            JOptionPane.showMessageDialog(mainFrame, "Invalid room number.");
+            return null;
+        }
+        Room room = hotel.getRoomByNumber(roomNumber);
+        if (room == null) {
+            JOptionPane.showMessageDialog(mainFrame, "Room not found.");
+        }
+        return room;
+    }
+    
+    /**
+     * Method that validates whether or not the user input is a valid date,
+     * typed as YYYY-MM-DD or as a day of the current month
+     * @param message Message that is shown to the user
+     * @return the date as an epoch day, or -1 if the user cancelled
+     */
+    private int getValidDate(String message) {
+        while (true) {
+            String dateStr = JOptionPane.showInputDialog(mainFrame, message);
+            if (dateStr == null || dateStr.trim().isEmpty()) {
+                return -1; // User cancelled or entered empty value
+            }
+            int date = CalendarDays.parse(dateStr);
+            if (date >= 0) {
+                return date;
+            }
+            JOptionPane.showMessageDialog(mainFrame, "Please enter a valid date " + DATE_HINT + ".");
+        }
+    }
+
+    /**
+     * Method that validates whether or not the user input is a valid month
+     * @param message Message that is shown to the user
+     * @return the month typed, the current month if left empty, or null if the user cancelled
+     */
+    private YearMonth getValidMonth(String message) {
+        while (true) {
+            String monthStr = JOptionPane.showInputDialog(mainFrame, message);
+            if (monthStr == null) {
+                return null; // User cancelled
+            }
+            if (monthStr.trim().isEmpty()) {
+                return YearMonth.now();
+            }
+            try {
+                return YearMonth.parse(monthStr.trim());
+            } catch (DateTimeParseException e) {
+                JOptionPane.showMessageDialog(mainFrame, "Please enter a valid month as YYYY-MM.");
+            }
+        }
+    }
+    
+    /**
+     * Method that validates whether or not the user input is a valid double
+     * @param message Message that is shown to the user
+     * @return
+     */
+    private double getValidDouble(String message) {
+        String doubleStr;
+        double value;
+        while (true) {
+            doubleStr = JOptionPane.showInputDialog(mainFrame, message);
+            try {
+                value = Double.parseDouble(doubleStr);
+                return value;
+            } catch (NumberFormatException e) {
+                JOptionPane.showMessageDialog(mainFrame, "Invalid number.");
+            }
+        }
+    }
+
+    /**
+     * Displays detailed information about a specific hotel, including
+     * its name, number of rooms, and number of reservations.
+     *
+     * @param hotel The `HotelModel` object representing the hotel to be
+     *              displayed.
+     */
+    public void displayHotelDetails(HotelModel hotel) {
+        HotelSnapshot snapshot = hotel.getSnapshot();
+        onScreen(() -> {
+            JOptionPane.showMessageDialog(mainFrame,
+                    "Hotel Details:\n" +
+                            "Hotel Name: " + snapshot.getHotelName() + "\n" +
+                            "Rooms: " + snapshot.getRoomCount() + "\n" +
+                            "Reservations: " + snapshot.getReservationCount(),
+                    "Hotel Details",
+                    JOptionPane.INFORMATION_MESSAGE);
+        });
+    }
+
+    /**
+     * Displays detailed information about a specific reservation, including
+     * room number, hotel name, room type, check in date, check out date, 
+     * total price, and the guest's name. 
+     * 
+     * @param reservation   The 'reservation' that is being checked for details
+     * @param hotel         The `HotelModel` object representing the hotel to be
+     *                      displayed.
+     * @param room          The 'room' object that is reserved
+     * @param checkInDate   The check in date for the reservation
+     * @param checkOutDate  The check out date for the reservation
+     */
+    public void displayReservationDetails(Reservation reservation, HotelModel hotel, Room room, int checkInDate, int checkOutDate) {
+        onScreen(() -> {
+            JOptionPane.showMessageDialog(mainFrame,
+                    "Reservation #" + reservation.getId() + " for room number " + room.getRoomNumber() + " in hotel: " + hotel.getHotelName() + "\n" +
+                            "Room type: " + room.getRoomType() + "\n" +
+                            "Check-in date: " + CalendarDays.format(checkInDate) + ", Check-out date: " + CalendarDays.format(checkOutDate) + "\n" +
+                            "Total price: $" + reservation.getTotalPrice() + "\n" +
+                            "Guest name: " + reservation.getGuestName(),
+                    "Reservation Details",
+                    JOptionPane.INFORMATION_MESSAGE);
+        });
+    }
+
+    /**
+     * Prompts the user to confirm changes by entering 'Y' for yes or 'N' for no.
+     *
+     * @return `true` if the user confirms changes, `false` otherwise.
+     */
+    private boolean confirmChanges() {
+        int response = JOptionPane.showConfirmDialog(mainFrame,
+                "Do you want to proceed with the changes?",
+                "Confirm Changes",
+                JOptionPane.YES_NO_OPTION);
+        return response == JOptionPane.YES_OPTION;
+    }
+
+    /**
+     * 
+     * @return the discount code typed by the user
+     */
+    private String getDiscountCode() {
+        return JOptionPane.showInputDialog(mainFrame,
+                "Enter discount code (or press Enter to skip):",
+                "Discount Code",
+                JOptionPane.PLAIN_MESSAGE);
+    }
+
+    /**
+     * Displays all hotels created
+     * @param hotels List of all hotels
+     */
+   public void displayHotels(List<HotelModel> hotels) {
+        List<Object[]> rows = hotelRows(hotels);
+        onScreen(() -> displayHotelRows(rows));
+    }
+
+    /**
+     * Builds the rows of the hotels table from each hotel's snapshot, so every hotel's rows
+     * show one consistent moment without locking it. Can run off the event dispatch thread.
+     * @param hotels List of all hotels
+     * @return One row per room, or one row for a hotel without rooms
+     */
+    private static List<Object[]> hotelRows(List<HotelModel> hotels) {
+        List<Object[]> rows = new ArrayList<>();
+        for (HotelModel hotel : hotels) {
+            HotelSnapshot snapshot = hotel.getSnapshot();
+            String hotelName = snapshot.getHotelName();
+            List<HotelSnapshot.RoomView> rooms = snapshot.getRooms();
+
+            if (rooms.isEmpty()) {
+                // If no rooms are available, show the hotel name only
+                rows.add(new Object[]{hotelName, "N/A", "N/A", "N/A", "N/A"});
+            } else {
+                for (HotelSnapshot.RoomView room : rooms) {
+                    rows.add(new Object[]{
+                        hotelName,
+                        room.getRoomNumber(),
+                        room.getRoomType(),
+                        room.getPrice(),
+                        room.isBooked() ? "Booked" : "Available",
+                    });
+                }
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Replaces the rows of the hotels table in one update, rather than one table event per row
+     * @param rows Rows built by hotelRows
+     */
+    private void displayHotelRows(List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            ((DefaultTableModel) hotelsTable.getModel()).setRowCount(0);
+            JOptionPane.showMessageDialog(mainFrame, "No hotels available.");
+            return;
+        }
+        ((DefaultTableModel) hotelsTable.getModel()).setDataVector(rows.toArray(new Object[0][]), HOTEL_COLUMNS);
+    }
+
+    /**
+     * 
+     * @param room Room that will have details displayed
+     */
+    public void displayRoomDetails(Room room) {
+        onScreen(() -> {
+            roomNumberLabel.setText("Room Number: " + room.getRoomNumber());
+            roomTypeLabel.setText("Room type: " + room.getRoomType());
+            priceLabel.setText("Price: $" + room.getPrice());
+            statusLabel.setText("Status: " + (room.isBooked() ? "Booked" : "Available"));
+        });
+    }
+
+    /**
+     * Displays how many rooms are available and booked
+     * @param available Number of available rooms
+     * @param booked    Number of booked rooms
+     */
+    public void displayRoomCountsForDate(int available, int booked) {
+        onScreen(() -> {
+            String message = "Available rooms: " + available + "\n" 
+                            +"Booked rooms: " + booked;
+            JOptionPane.showMessageDialog(mainFrame, message);
+        });
+    }
+
+    /**
+     * Displays all rooms that are booked
+     * @param bookedRooms List of 'room' objects that are booked
+     */
+    public void displayBookedRooms(List<Room> bookedRooms) {
+        onScreen(() -> {
+            DefaultTableModel model = (DefaultTableModel) bookedRoomsTable.getModel();
+            model.setRowCount(0); // Clear existing rows
+    
+            if (bookedRooms.isEmpty()) {
+                JOptionPane.showMessageDialog(mainFrame, "No booked rooms found.");
+            } else {
+                for (Room room : bookedRooms) {
+                    model.addRow(new Object[]{
+                        room.getRoomNumber(),
+                        room.getPrice()
+                    });
+                }
+            }
+        });
+    }
+    
+    /**
+     * 
+     * @return true if the hotel has at least one room, false if not
+     */
+    public boolean areAnyRoomsAvailable() {
+        for (HotelModel hotel : controller.getHotels()) {
+            if (!hotel.getRooms().isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Lists all hotels created
+     */
+    private void listHotels() {
+        whenDone(controller.submit(() -> hotelRows(controller.getHotels())), this::displayHotelRows);
+    }
+
+    /**
+     * Runs the result of a background controller command on the event dispatch thread,
+     * or shows an error if the command failed
+     *
+     * @param future   The running command
+     * @param onResult What to do with the command's result, on the event dispatch thread
+     * @param <T>      Type of the command's result
+     */
+    private <T> void whenDone(CompletableFuture<T> future, Consumer<T> onResult) {
+        future.whenCompleteAsync((result, error) -> {
+            if (error == null) {
+                onResult.accept(result);
+                return;
+            }
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            displayError("The operation failed: " + cause.getMessage());
+        }, CommandExecutor.EDT);
+    }
+
+    /**
+     * Shows something on the event dispatch thread, unless this view has no window
+     *
+     * @param task Task that touches Swing components
+     */
+    private void onScreen(Runnable task) {
+        if (mainFrame != null) {
+            CommandExecutor.onEdt(task);
+        }
+    }
+
+    /*
+     * DISPLAY MESSAGES:
+     */
+    
+     /**
+      * Method to prompt the user to enter another value
+      * @param field The type of input the user should type (ex. room number, hotel name, etc.)
+      */
+     public void displayEnterAnother(String field) {
+        onScreen(() -> JOptionPane.showMessageDialog(mainFrame, "Please enter another " + field));
+    }
+
+    /**
+     * Method to display a success message
+     * @param message Task that has been completed successfully
+     */
+     public void displaySuccess(String message) {
+        onScreen(() -> JOptionPane.showMessageDialog(null, message));
+    }
+
+    /**
+     * Method to display an error message for hotel not found
+     * @param hotelName name that cannot be found
+     */
+    public void displayHotelNotFound(String hotelName) {
+        onScreen(() -> JOptionPane.showMessageDialog(null, "Hotel not found: " + hotelName, "Error", JOptionPane.ERROR_MESSAGE));
+    }
+
+    /**
+     * Method to display a message when the maximum number of rooms is reached
+     */
+    public void displayMaxRooms() {
+        onScreen(() -> JOptionPane.showMessageDialog(null, "Maximum number of rooms reached.", "Error", JOptionPane.ERROR_MESSAGE));
+    }
+
+    /**
+     * Method to display a message when the minimum number of rooms is reached
+     */
+    public void displayMinRooms() {
+        onScreen(() -> JOptionPane.showMessageDialog(null, "Minimum number of rooms reached.", "Error", JOptionPane.ERROR_MESSAGE));
+    }
+
+    /**
+     * Method to display an error message for room not found
+     * @param roomNumber number of room that can't be found
+     */
+    public void displayRoomNotFound(int roomNumber) {
+        onScreen(() -> JOptionPane.showMessageDialog(null, "Room not found: " + roomNumber, "Error", JOptionPane.ERROR_MESSAGE));
+    }
+
+    /**
+     * Method to display error messages
+     * @param message Error message to be shown to user
+     */
+    public void displayError(String message) {
+        onScreen(() -> JOptionPane.showMessageDialog(null, message, "Error", JOptionPane.ERROR_MESSAGE));
+    }
+
+}
@@ -0,0 +1,777 @@
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/**
+ * An append-only file of every change made to the hotels, from which they are
+ * rebuilt when the program starts again. Each change is a small binary record,
+ * appended to a buffer in memory by the thread that made it while that thread
+ * still holds the hotel's lock, so the records of a hotel are in the order the
+ * changes took effect. A background thread writes the buffer to the file and
+ * forces it to disk; whatever is appended while one write is under way goes out
+ * together in the next one, so many changes share a single disk flush (group
+ * commit). Callers that must not report a change until it is on disk wait in sync.
+ *
+ * Every record is framed by its length and a CRC32C checksum. A record cut short
+ * or damaged by a crash ends the replay, and the file is truncated there.
+ *
+ * Opened with a SnapshotFile, the journal starts from the hotels in the snapshot and
+ * replays only the records written after each hotel was copied.
+ */
+public class Journal implements AutoCloseable {
+    private static final int MAGIC = 0x484A524E; // "HJRN"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 8;
+    private static final int FRAME_BYTES = 8; // length and checksum before each record
+    private static final int INITIAL_BUFFER = 64 * 1024;
+    private static final int NULL_STRING = 0xFFFF; // length that marks a missing string
+
+    // Record types
+    private static final byte ADD_HOTEL = 1;
+    private static final byte REMOVE_HOTEL = 2;
+    private static final byte RENAME_HOTEL = 3;
+    private static final byte ADD_ROOM = 4;
+    private static final byte REMOVE_ROOM = 5;
+    private static final byte ROOM_PRICE = 6;
+    private static final byte RESERVE = 7;
+    private static final byte CANCEL = 8;
+    private static final byte MOVE = 9;
+    // 10 is not used
+    private static final byte DAY_MODIFIER = 11;
+    private static final byte RETIRE_DAYS = 12;
+
+    // Room types
+    private static final byte STANDARD = 0;
+    private static final byte DELUXE = 1;
+    private static final byte EXECUTIVE = 2;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final Object lock = new Object(); // guards everything below
+    private ByteBuffer pending; // records appended since the last write began
+    private ByteBuffer writing; // records being written by the flusher, swapped with pending
+    private int recordStart; // position in pending of the record being appended
+    private long appended; // length of the file once everything appended is written
+    private long durable; // length of the file known to be on disk
+    private long recordCount;
+    private long flushCount;
+    private int nextHotelId;
+    private boolean closed;
+    private IOException failure; // why the flusher stopped, if it did
+    private final Thread flusher;
+
+    private final List<HotelModel> hotels; // hotels rebuilt from the file, in the order they were added
+    private final int replayedRecords;
+    private final long replayNanos;
+
+    /**
+     * Opens a journal, creating the file if there is none, and rebuilds the hotels it records
+     *
+     * @param file path of the journal file
+     * @return the open journal, holding the rebuilt hotels
+     * @throws IOException if the file cannot be read or written, or is not a journal
+     */
+    public static Journal open(Path file) throws IOException {
+        return open(file, null);
+    }
+
+    /**
+     * Opens a journal, starting from a snapshot of the hotels if there is one. A snapshot
+     * that cannot be read, or that was taken further into the journal than the journal now
+     * goes, is reported and ignored, and the whole journal is replayed instead.
+     *
+     * @param file         path of the journal file
+     * @param snapshotFile path of a snapshot taken with this journal, or null to replay the whole journal
+     * @return the open journal, holding the rebuilt hotels
+     * @throws IOException if the journal cannot be read or written, or is not a journal
+     */
+    public static Journal open(Path file, Path snapshotFile) throws IOException {
+        long start = System.nanoTime();
+        SnapshotFile snapshot = null;
+        if (snapshotFile != null && Files.exists(snapshotFile)) {
+            try {
+                snapshot = SnapshotFile.read(snapshotFile);
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Could not read the snapshot " + snapshotFile + ", replaying the whole journal: " + e.getMessage());
+            }
+        }
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            if (snapshot != null && snapshot.getJournalOffset() > channel.size()) {
+                System.err.println("The snapshot " + snapshotFile + " was taken after the end of the journal " + file
+                        + ", replaying the whole journal");
+                snapshot = null;
+            }
+            return new Journal(file, channel, snapshot, start);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private Journal(Path file, FileChannel channel, SnapshotFile snapshot, long start) throws IOException {
+        this.file = file;
+        this.channel = channel;
+        this.pending = ByteBuffer.allocate(INITIAL_BUFFER);
+        this.writing = ByteBuffer.allocate(INITIAL_BUFFER);
+        this.nextHotelId = 1;
+        this.hotels = new ArrayList<>();
+
+        long size = channel.size();
+        if (size == 0) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).putInt(VERSION);
+            header.flip();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+            channel.force(false);
+            size = HEADER_BYTES;
+        }
+        this.replayedRecords = replay(size, snapshot);
+        size = channel.size();
+        this.replayNanos = System.nanoTime() - start;
+        channel.position(size);
+        this.appended = size;
+        this.durable = size;
+
+        this.flusher = new Thread(this::flushLoop, "journal-flusher");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+        for (HotelModel hotel : hotels) {
+            if (hotel.getJournalId() == 0) {
+                addHotel(hotel); // Snapshotted while there was no journal
+            }
+        }
+    }
+
+    /**
+     * @return path of the journal file
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * @return the hotels rebuilt from the file when it was opened, each already recording into this journal
+     */
+    public List<HotelModel> getHotels() {
+        return Collections.unmodifiableList(hotels);
+    }
+
+    /**
+     * @return number of records replayed when the journal was opened
+     */
+    public int getReplayedRecords() {
+        return replayedRecords;
+    }
+
+    /**
+     * @return time taken to load the snapshot and replay the file when the journal was opened, in nanoseconds
+     */
+    public long getReplayNanos() {
+        return replayNanos;
+    }
+
+    /**
+     * @return number of records appended since the journal was opened
+     */
+    public long getRecordCount() {
+        synchronized (lock) {
+            return recordCount;
+        }
+    }
+
+    /**
+     * @return number of times the file has been forced to disk since the journal was opened
+     */
+    public long getFlushCount() {
+        synchronized (lock) {
+            return flushCount;
+        }
+    }
+
+    /**
+     * @return length of the file once every record appended so far is written
+     */
+    public long getEndOffset() {
+        synchronized (lock) {
+            return appended;
+        }
+    }
+
+    /**
+     * @return journal ID the next added hotel will get
+     */
+    public int getNextHotelId() {
+        synchronized (lock) {
+            return nextHotelId;
+        }
+    }
+
+    /**
+     * Records a new hotel and starts recording its changes. A hotel that already has rooms,
+     * day modifiers or reservations has them recorded too, so the journal alone can rebuild it.
+     *
+     * @param hotel hotel being added
+     */
+    public void addHotel(HotelModel hotel) {
+        synchronized (hotel) { // Nothing changes in the hotel until it is recorded whole
+            int hotelId;
+            synchronized (lock) {
+                byte[] name = utf8(hotel.getHotelName());
+                hotelId = nextHotelId++;
+                ByteBuffer record = begin(ADD_HOTEL, hotelId, sizeOf(name));
+                putString(record, name);
+                end(record);
+            }
+            for (Room room : hotel.getRooms()) {
+                addRoom(hotelId, room);
+            }
+            int[] runs = hotel.getSnapshot().getModifierRuns();
+            for (int i = 0; i < runs.length; i += 3) {
+                setDayModifier(hotelId, runs[i], runs[i + 1], runs[i + 2]);
+            }
+            List<Reservation> reservations = new ArrayList<>(hotel.getReservations());
+            reservations.sort(Comparator.comparingInt(Reservation::getId));
+            for (Reservation reservation : reservations) {
+                addReservation(hotelId, reservation);
+            }
+            if (hotel.getFirstOpenDay() != Integer.MIN_VALUE) {
+                retireDaysBefore(hotelId, hotel.getFirstOpenDay()); // After the stays, which may check in before it
+            }
+            hotel.setJournal(this, hotelId);
+        }
+    }
+
+    /**
+     * Records that a hotel was removed and stops recording its changes
+     *
+     * @param hotel hotel being removed
+     */
+    public void removeHotel(HotelModel hotel) {
+        synchronized (hotel) {
+            int hotelId = hotel.getJournalId();
+            if (hotelId == 0) {
+                return; // Not recorded here
+            }
+            synchronized (lock) {
+                end(begin(REMOVE_HOTEL, hotelId, 0));
+            }
+            hotel.setJournal(null, 0);
+        }
+    }
+
+    /**
+     * @param hotelId journal ID of the hotel
+     * @param name    new name of the hotel
+     */
+    public void renameHotel(int hotelId, String name) {
+        byte[] bytes = utf8(name);
+        synchronized (lock) {
+            ByteBuffer record = begin(RENAME_HOTEL, hotelId, sizeOf(bytes));
+            putString(record, bytes);
+            end(record);
+        }
+    }
+
+    /**
+     * @param hotelId journal ID of the hotel
+     * @param room    room added to the hotel
+     */
+    public void addRoom(int hotelId, Room room) {
+        byte type = room instanceof Deluxe ? DELUXE : room instanceof Executive ? EXECUTIVE : STANDARD;
+        synchronized (lock) {
+            ByteBuffer record = begin(ADD_ROOM, hotelId, 4 + 1 + 8);
+            record.putInt(room.getRoomNumber()).put(type).putDouble(room.getBasePrice());
+            end(record);
+        }
+    }
+
+    /**
+     * @param hotelId    journal ID of the hotel
+     * @param roomNumber number of the room removed from the hotel
+     */
+    public void removeRoom(int hotelId, int roomNumber) {
+        synchronized (lock) {
+            ByteBuffer record = begin(REMOVE_ROOM, hotelId, 4);
+            record.putInt(roomNumber);
+            end(record);
+        }
+    }
+
+    /**
+     * @param hotelId    journal ID of the hotel
+     * @param roomNumber number of the room
+     * @param price      new price of the room, before any markup of its type
+     */
+    public void setRoomPrice(int hotelId, int roomNumber, double price) {
+        synchronized (lock) {
+            ByteBuffer record = begin(ROOM_PRICE, hotelId, 4 + 8);
+            record.putInt(roomNumber).putDouble(price);
+            end(record);
+        }
+    }
+
+    /**
+     * Records a reservation with its ID and price, so replaying it needs no pricing and shows no prompt
+     *
+     * @param hotelId     journal ID of the hotel
+     * @param reservation reservation added to the hotel
+     */
+    public void addReservation(int hotelId, Reservation reservation) {
+        byte[] guest = utf8(reservation.getGuestName());
+        byte[] code = utf8(reservation.getDiscountCode());
+        synchronized (lock) {
+            ByteBuffer record = begin(RESERVE, hotelId, 4 * 4 + 8 + sizeOf(guest) + sizeOf(code));
+            record.putInt(reservation.getId()).putInt(reservation.getRoomNumber())
+                    .putInt(reservation.getCheckInDate()).putInt(reservation.getCheckOutDate())
+                    .putDouble(reservation.getTotalPrice());
+            putString(record, guest);
+            putString(record, code);
+            end(record);
+        }
+    }
+
+    /**
+     * @param hotelId       journal ID of the hotel
+     * @param reservationId ID of the reservation cancelled
+     */
+    public void cancelReservation(int hotelId, int reservationId) {
+        synchronized (lock) {
+            ByteBuffer record = begin(CANCEL, hotelId, 4);
+            record.putInt(reservationId);
+            end(record);
+        }
+    }
+
+    /**
+     * @param hotelId      journal ID of the hotel
+     * @param reservation  reservation moved to new dates
+     */
+    public void moveReservation(int hotelId, Reservation reservation) {
+        synchronized (lock) {
+            ByteBuffer record = begin(MOVE, hotelId, 4 * 3);
+            record.putInt(reservation.getId()).putInt(reservation.getCheckInDate()).putInt(reservation.getCheckOutDate());
+            end(record);
+        }
+    }
+
+    /**
+     * @param hotelId  journal ID of the hotel
+     * @param firstDay first day modified
+     * @param lastDay  last day modified, inclusive
+     * @param modifier percent applied on those days
+     */
+    public void setDayModifier(int hotelId, int firstDay, int lastDay, int modifier) {
+        synchronized (lock) {
+            ByteBuffer record = begin(DAY_MODIFIER, hotelId, 4 * 3);
+            record.putInt(firstDay).putInt(lastDay).putInt(modifier);
+            end(record);
+        }
+    }
+
+    /**
+     * Records that the days before one were retired, so replay stops repricing and
+     * booking them at the same point in the hotel's changes as the hotel did
+     *
+     * @param hotelId journal ID of the hotel
+     * @param day     first day kept
+     */
+    public void retireDaysBefore(int hotelId, int day) {
+        synchronized (lock) {
+            ByteBuffer record = begin(RETIRE_DAYS, hotelId, 4);
+            record.putInt(day);
+            end(record);
+        }
+    }
+
+    /**
+     * Waits until every record appended so far, by any thread, is on disk. Threads waiting
+     * at the same time are served by the same flush.
+     *
+     * @throws UncheckedIOException if the journal could not be written, or the thread was interrupted
+     */
+    public void sync() {
+        synchronized (lock) {
+            long target = appended;
+            while (durable < target) {
+                if (failure != null) {
+                    throw new UncheckedIOException("Journal " + file + " could not be written", failure);
+                }
+                if (closed && !flusher.isAlive()) {
+                    throw new UncheckedIOException(new IOException("Journal " + file + " is closed"));
+                }
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new UncheckedIOException(new InterruptedIOException("Interrupted waiting for the journal"));
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes out whatever is still buffered and closes the file. Records appended after
+     * closing are dropped.
+     *
+     * @throws IOException if the file could not be written or closed
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            lock.notifyAll();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+        synchronized (lock) {
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+
+    /**
+     * Writes the buffered records and forces them to disk until the journal is closed
+     */
+    private void flushLoop() {
+        while (true) {
+            ByteBuffer batch;
+            long target;
+            synchronized (lock) {
+                while (pending.position() == 0 && !closed) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        return; // Only close stops the flusher, and it never interrupts it
+                    }
+                }
+                if (pending.position() == 0) {
+                    return; // Closed with nothing left to write
+                }
+                batch = pending;
+                pending = writing;
+                writing = batch;
+                target = appended;
+            }
+            try {
+                batch.flip();
+                while (batch.hasRemaining()) {
+                    channel.write(batch);
+                }
+                channel.force(false);
+                batch.clear();
+            } catch (IOException e) {
+                synchronized (lock) {
+                    failure = e;
+                    lock.notifyAll();
+                }
+                return;
+            }
+            synchronized (lock) {
+                durable = target;
+                flushCount++;
+                lock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Starts a record in the pending buffer, leaving room for its frame.
+     * Must be called while holding the lock, and followed by end.
+     *
+     * @param type    record type
+     * @param hotelId journal ID of the hotel the record is about
+     * @param bytes   length of the record after its type and hotel
+     * @return the pending buffer, positioned after the hotel ID
+     */
+    private ByteBuffer begin(byte type, int hotelId, int bytes) {
+        int needed = FRAME_BYTES + 1 + 4 + bytes;
+        if (pending.remaining() < needed) {
+            ByteBuffer larger = ByteBuffer.allocate(Math.max(pending.capacity() * 2, pending.position() + needed));
+            pending.flip();
+            larger.put(pending);
+            pending = larger;
+        }
+        recordStart = pending.position();
+        pending.position(recordStart + FRAME_BYTES);
+        pending.put(type).putInt(hotelId);
+        return pending;
+    }
+
+    /**
+     * Fills in the frame of the record just written and wakes the flusher if it was idle.
+     * Must be called while holding the lock.
+     */
+    private void end(ByteBuffer record) {
+        if (closed || failure != null) {
+            record.position(recordStart); // Nothing will ever write it
+            return;
+        }
+        int length = record.position() - recordStart - FRAME_BYTES;
+        CRC32C crc = new CRC32C();
+        crc.update(record.array(), recordStart + FRAME_BYTES, length);
+        record.putInt(recordStart, length).putInt(recordStart + 4, (int) crc.getValue());
+        appended += FRAME_BYTES + length;
+        recordCount++;
+        if (recordStart == 0) {
+            lock.notifyAll(); // The flusher waits while the buffer is empty
+        }
+    }
+
+    /**
+     * Checks that a name or code fits in a record. Callers check before they change anything,
+     * so a change that has taken effect is never refused by the journal.
+     *
+     * @param text text to be recorded, or null
+     * @return true if the text is null or short enough to be recorded
+     */
+    public static boolean isRecordable(String text) {
+        if (text == null) {
+            return true;
+        }
+        if (text.length() < NULL_STRING / 3) {
+            return true; // At most three bytes per char
+        }
+        return text.getBytes(StandardCharsets.UTF_8).length < NULL_STRING;
+    }
+
+    /**
+     * @param text text to store, or null
+     * @return the text in UTF-8, or null for null
+     */
+    private static byte[] utf8(String text) {
+        if (text == null) {
+            return null;
+        }
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length >= NULL_STRING) {
+            throw new IllegalArgumentException("Text is too long for the journal: " + text.substring(0, 20) + "...");
+        }
+        return bytes;
+    }
+
+    /**
+     * @param bytes text in UTF-8, or null
+     * @return bytes the text takes in a record
+     */
+    private static int sizeOf(byte[] bytes) {
+        return 2 + (bytes == null ? 0 : bytes.length);
+    }
+
+    /**
+     * Writes text in UTF-8 after its length
+     */
+    private static void putString(ByteBuffer record, byte[] bytes) {
+        if (bytes == null) {
+            record.putShort((short) NULL_STRING);
+        } else {
+            record.putShort((short) bytes.length).put(bytes);
+        }
+    }
+
+    /**
+     * Reads text written by putString
+     */
+    private static String getString(ByteBuffer record) {
+        int length = record.getShort() & 0xFFFF;
+        if (length == NULL_STRING) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        record.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Rebuilds the hotels from every whole record in the file, then cuts off anything
+     * after the last whole record, which a crash left half written. With a snapshot,
+     * replay starts from its hotels, and a record of a hotel made before it was copied
+     * is skipped.
+     *
+     * @param size     length of the file
+     * @param snapshot snapshot taken with this journal, no further into it than its end, or null
+     * @return number of records replayed
+     * @throws IOException if the file cannot be read or is not a journal
+     */
+    private int replay(long size, SnapshotFile snapshot) throws IOException {
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Journal " + file + " is too large to replay");
+        }
+        MappedByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        if (size < HEADER_BYTES || data.getInt() != MAGIC) {
+            throw new IOException(file + " is not a hotel journal");
+        }
+        int version = data.getInt();
+        if (version != VERSION) {
+            throw new IOException("Journal " + file + " has unsupported version " + version);
+        }
+        List<HotelModel> byId = new ArrayList<>();
+        byId.add(null); // IDs start at 1
+        long[] copiedAt = new long[1]; // by journal ID, where each snapshot hotel's records resume
+        List<HotelModel> unjournaled = new ArrayList<>();
+        if (snapshot != null) {
+            for (int i = 0; i < snapshot.getHotelCount(); i++) {
+                int id = snapshot.getJournalId(i);
+                if (id == 0) {
+                    unjournaled.add(snapshot.getHotels().get(i));
+                    continue;
+                }
+                while (byId.size() <= id) {
+                    byId.add(null);
+                }
+                byId.set(id, snapshot.getHotels().get(i));
+                if (copiedAt.length <= id) {
+                    copiedAt = Arrays.copyOf(copiedAt, Math.max(id + 1, copiedAt.length * 2));
+                }
+                copiedAt[id] = snapshot.getHotelOffset(i);
+            }
+            data.position((int) Math.max(HEADER_BYTES, snapshot.getJournalOffset()));
+        }
+        CRC32C crc = new CRC32C();
+        int records = 0;
+        while (data.remaining() >= FRAME_BYTES) {
+            int start = data.position();
+            int length = data.getInt();
+            int checksum = data.getInt();
+            if (length < 5 || length > data.remaining()) {
+                data.position(start);
+                break; // Cut short
+            }
+            ByteBuffer record = data.slice().limit(length);
+            crc.reset();
+            crc.update(record.duplicate());
+            if ((int) crc.getValue() != checksum) {
+                data.position(start);
+                break; // Damaged
+            }
+            int hotelId = record.getInt(1);
+            if (hotelId >= copiedAt.length || start >= copiedAt[hotelId]) {
+                apply(record, byId);
+                records++;
+            }
+            data.position(data.position() + length);
+        }
+        if (data.position() < size) {
+            channel.truncate(data.position());
+            channel.force(false);
+        }
+        for (int id = 1; id < byId.size(); id++) {
+            HotelModel hotel = byId.get(id);
+            if (hotel != null) {
+                hotel.setJournal(this, id);
+                hotels.add(hotel);
+            }
+        }
+        hotels.addAll(unjournaled);
+        nextHotelId = Math.max(byId.size(), snapshot == null ? 1 : snapshot.getNextHotelId());
+        return records;
+    }
+
+    /**
+     * Applies one record to the hotels rebuilt so far. A record about a hotel, room or
+     * reservation that is gone is skipped, as the change it records could not happen either.
+     *
+     * @param record the record, from its type to its end
+     * @param byId   rebuilt hotels by journal ID, with null for removed hotels
+     * @throws IOException if the record is of an unknown type
+     */
+    private static void apply(ByteBuffer record, List<HotelModel> byId) throws IOException {
+        byte type = record.get();
+        int hotelId = record.getInt();
+        if (type == ADD_HOTEL) {
+            while (byId.size() <= hotelId) {
+                byId.add(null);
+            }
+            byId.set(hotelId, new HotelModel(getString(record)));
+            return;
+        }
+        HotelModel hotel = hotelId < byId.size() ? byId.get(hotelId) : null;
+        if (hotel == null) {
+            return; // Removed hotel
+        }
+        switch (type) {
+            case REMOVE_HOTEL:
+                byId.set(hotelId, null);
+                break;
+            case RENAME_HOTEL:
+                hotel.setHotelName(getString(record));
+                break;
+            case ADD_ROOM: {
+                int roomNumber = record.getInt();
+                byte roomType = record.get();
+                double price = record.getDouble();
+                hotel.addRoom(roomType == DELUXE ? new Deluxe(roomNumber, price)
+                        : roomType == EXECUTIVE ? new Executive(roomNumber, price) : new Room(roomNumber, price));
+                break;
+            }
+            case REMOVE_ROOM:
+                hotel.removeRoom(record.getInt());
+                break;
+            case ROOM_PRICE:
+                hotel.updateRoomPrice(record.getInt(), record.getDouble());
+                break;
+            case RESERVE: {
+                int id = record.getInt();
+                int roomNumber = record.getInt();
+                int checkInDate = record.getInt();
+                int checkOutDate = record.getInt();
+                double totalPrice = record.getDouble();
+                String guestName = getString(record);
+                String discountCode = getString(record);
+                Room room = hotel.getRoom(roomNumber);
+                if (room != null) {
+                    restore(hotel, room, id, guestName, checkInDate, checkOutDate, totalPrice, discountCode);
+                }
+                break;
+            }
+            case CANCEL:
+                hotel.cancelReservationById(record.getInt());
+                break;
+            case MOVE:
+                hotel.modifyReservation(record.getInt(), record.getInt(), record.getInt());
+                break;
+            case DAY_MODIFIER:
+                hotel.setDayModifier(record.getInt(), record.getInt(), record.getInt());
+                break;
+            case RETIRE_DAYS:
+                hotel.retireDaysBefore(record.getInt());
+                break;
+            default:
+                throw new IOException("Unknown journal record type " + type);
+        }
+    }
+
+    /**
+     * Books a reservation as it was recorded, with its ID and price
+     */
+    private static void restore(HotelModel hotel, Room room, int id, String guestName, int checkInDate,
+                                int checkOutDate, double totalPrice, String discountCode) {
+        Reservation reservation = new Reservation(room, guestName, room.getRoomNumber(), checkInDate, checkOutDate);
+        reservation.setId(id);
+        reservation.setTotalPrice(totalPrice);
+        reservation.setDiscountCode(discountCode);
+        hotel.book(reservation);
+    }
+}
@@ -0,0 +1,154 @@
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts latencies in buckets that grow with the value: each power of two is split
+ * into SUB_BUCKETS equal buckets, so any latency from a nanosecond to hours is kept
+ * within about 6% using a fixed thousand counters. Recording is a single atomic
+ * increment, so many threads can record into one histogram without locking.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS; // buckets per power of two
+    private static final int BUCKETS = (64 - SUB_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts;
+    private final AtomicLongArray totals; // [0] sum of every value, [1] largest value
+
+    /**
+     * Constructs an empty histogram
+     */
+    public LatencyHistogram() {
+        this.counts = new AtomicLongArray(BUCKETS);
+        this.totals = new AtomicLongArray(2);
+    }
+
+    /**
+     * Records one latency
+     *
+     * @param nanos latency in nanoseconds; negative values are counted as zero
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts.incrementAndGet(bucketOf(value));
+        totals.addAndGet(0, value);
+        long max;
+        do {
+            max = totals.get(1);
+        } while (value > max && !totals.compareAndSet(1, max, value));
+    }
+
+    /**
+     * Adds every latency recorded in another histogram to this one
+     *
+     * @param other histogram to add
+     */
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            long count = other.counts.get(i);
+            if (count != 0) {
+                counts.addAndGet(i, count);
+            }
+        }
+        totals.addAndGet(0, other.totals.get(0));
+        long value = other.totals.get(1);
+        long max;
+        do {
+            max = totals.get(1);
+        } while (value > max && !totals.compareAndSet(1, max, value));
+    }
+
+    /**
+     * Forgets every recorded latency. Latencies recorded while resetting may be partly kept.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        totals.set(0, 0);
+        totals.set(1, 0);
+    }
+
+    /**
+     * @return number of latencies recorded
+     */
+    public long getCount() {
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            count += counts.get(i);
+        }
+        return count;
+    }
+
+    /**
+     * @return average latency in nanoseconds, or 0 if none were recorded
+     */
+    public double getMean() {
+        long count = getCount();
+        return count == 0 ? 0 : (double) totals.get(0) / count;
+    }
+
+    /**
+     * @return largest latency recorded, in nanoseconds
+     */
+    public long getMax() {
+        return totals.get(1);
+    }
+
+    /**
+     * Finds the latency that the given share of recorded latencies do not exceed
+     *
+     * @param percentile share from 0 to 100, such as 99.9
+     * @return the upper end of the bucket holding that latency in nanoseconds, capped at the
+     *         largest latency recorded, or 0 if none were recorded
+     */
+    public long getPercentile(double percentile) {
+        long count = getCount();
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(count * Math.min(100, Math.max(0, percentile)) / 100));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(upperBoundOf(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    /**
+     * @param value latency in nanoseconds, not negative
+     * @return index of the bucket holding it
+     */
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value; // Small values get a bucket each
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS; // Keeps the top SUB_BITS + 1 bits
+        return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) - SUB_BUCKETS);
+    }
+
+    /**
+     * @param bucket index of a bucket
+     * @return largest latency the bucket holds, in nanoseconds
+     */
+    static long upperBoundOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long low = (long) (bucket % SUB_BUCKETS + SUB_BUCKETS) << shift;
+        return low + (1L << shift) - 1;
+    }
+
+    /**
+     * @return the count, mean and usual percentiles, in microseconds
+     */
+    @Override
+    public String toString() {
+        return String.format("count=%d mean=%.1fus p50=%.1fus p90=%.1fus p99=%.1fus p99.9=%.1fus max=%.1fus",
+                getCount(), getMean() / 1e3, getPercentile(50) / 1e3, getPercentile(90) / 1e3,
+                getPercentile(99) / 1e3, getPercentile(99.9) / 1e3, getMax() / 1e3);
+    }
+}
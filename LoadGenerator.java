@@ -0,0 +1,415 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives a HotelController without a window, the way many clerks using
+ * "Simulate Booking" at once would: reservations, cancellations, free-room
+ * searches and price changes, mixed in chosen proportions across a chosen number
+ * of hotels, rooms and threads, optionally at a fixed target rate. Each thread
+ * draws its operations from its own Random seeded from the run's seed, so a run
+ * can be repeated. The result holds the throughput and latency percentiles of
+ * each kind of operation. With a journal, every change is also written to disk
+ * before it counts as done, which shows what group commit costs under load.
+ *
+ * Run it with: java LoadGenerator [--hotels=N] [--rooms=M] [--threads=T] [--seconds=S]
+ * [--rate=OPS_PER_SECOND] [--mix=RESERVE,CANCEL,QUERY,PRICE] [--seed=N] [--journal=PATH]
+ */
+public class LoadGenerator {
+    /**
+     * The kinds of operations the generator runs
+     */
+    public enum Operation {
+        RESERVE, CANCEL, QUERY, PRICE_CHANGE
+    }
+
+    private static final int HORIZON_DAYS = 180; // stays start within this many days from today
+    private static final int MAX_NIGHTS = 7;
+    private static final int QUERY_LIMIT = 20;
+    private static final String[] ROOM_TYPES = {"Standard", "Deluxe", "Executive"};
+
+    private int hotelCount = 10;
+    private int roomsPerHotel = 100;
+    private int threadCount = 4;
+    private long durationMillis = 10_000;
+    private double targetRate = 0; // operations per second across every thread, 0 for as fast as possible
+    private int[] mix = {50, 20, 25, 5}; // weights of the operations, in Operation order
+    private long seed = 42;
+    private Path journalFile; // null to keep every change in memory only
+
+    /**
+     * What one run measured
+     */
+    public static class Result {
+        private final long elapsedNanos;
+        private final Map<Operation, LatencyHistogram> latencies;
+        private final Map<Operation, Long> failures;
+        private long journalRecords;
+        private long journalFlushes;
+
+        Result(long elapsedNanos, Map<Operation, LatencyHistogram> latencies, Map<Operation, Long> failures) {
+            this.elapsedNanos = elapsedNanos;
+            this.latencies = latencies;
+            this.failures = failures;
+        }
+
+        /**
+         * @return number of changes written to the journal, or 0 if the run had none
+         */
+        public long getJournalRecords() {
+            return journalRecords;
+        }
+
+        /**
+         * @return number of times the journal was forced to disk, or 0 if the run had none
+         */
+        public long getJournalFlushes() {
+            return journalFlushes;
+        }
+
+        /**
+         * @return how long the run took, in nanoseconds
+         */
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        /**
+         * @param operation kind of operation
+         * @return latencies of that kind of operation
+         */
+        public LatencyHistogram getLatencies(Operation operation) {
+            return latencies.get(operation);
+        }
+
+        /**
+         * @param operation kind of operation
+         * @return number of operations of that kind that did not take effect, such as a
+         *         reservation of a room already booked or a cancellation of an unknown ID
+         */
+        public long getFailures(Operation operation) {
+            return failures.get(operation);
+        }
+
+        /**
+         * @return number of operations run
+         */
+        public long getOperationCount() {
+            long count = 0;
+            for (LatencyHistogram histogram : latencies.values()) {
+                count += histogram.getCount();
+            }
+            return count;
+        }
+
+        /**
+         * @return operations completed per second
+         */
+        public double getThroughput() {
+            return elapsedNanos == 0 ? 0 : getOperationCount() * 1e9 / elapsedNanos;
+        }
+
+        /**
+         * @return a summary with one line per kind of operation
+         */
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder(String.format("%d operations in %.2f s, %.0f ops/s%n",
+                    getOperationCount(), elapsedNanos / 1e9, getThroughput()));
+            for (Operation operation : Operation.values()) {
+                sb.append(String.format("%-12s failed=%d %s%n", operation, failures.get(operation), latencies.get(operation)));
+            }
+            if (journalFlushes > 0) {
+                sb.append(String.format("journal      records=%d flushes=%d records/flush=%.1f%n",
+                        journalRecords, journalFlushes, (double) journalRecords / journalFlushes));
+            }
+            return sb.toString();
+        }
+    }
+
+    /**
+     * @param hotelCount number of hotels to create
+     */
+    public void setHotelCount(int hotelCount) {
+        this.hotelCount = hotelCount;
+    }
+
+    /**
+     * @param roomsPerHotel number of rooms in each hotel
+     */
+    public void setRoomsPerHotel(int roomsPerHotel) {
+        this.roomsPerHotel = roomsPerHotel;
+    }
+
+    /**
+     * @param threadCount number of threads issuing operations
+     */
+    public void setThreadCount(int threadCount) {
+        this.threadCount = threadCount;
+    }
+
+    /**
+     * @param durationMillis how long to run, in milliseconds
+     */
+    public void setDurationMillis(long durationMillis) {
+        this.durationMillis = durationMillis;
+    }
+
+    /**
+     * @param targetRate operations per second across every thread, or 0 to run as fast as possible
+     */
+    public void setTargetRate(double targetRate) {
+        this.targetRate = targetRate;
+    }
+
+    /**
+     * @param reserve weight of reservations
+     * @param cancel  weight of cancellations
+     * @param query   weight of free-room searches
+     * @param price   weight of price changes
+     */
+    public void setMix(int reserve, int cancel, int query, int price) {
+        if (reserve < 0 || cancel < 0 || query < 0 || price < 0 || reserve + cancel + query + price == 0) {
+            throw new IllegalArgumentException("Mix weights must not be negative and must not all be zero");
+        }
+        this.mix = new int[]{reserve, cancel, query, price};
+    }
+
+    /**
+     * @param seed seed of every thread's random operations
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * @param journalFile journal file to write every change to, or null to keep changes in memory only.
+     *                    The hotels it already holds are replayed before the run and take part in it.
+     */
+    public void setJournalFile(Path journalFile) {
+        this.journalFile = journalFile;
+    }
+
+    /**
+     * Creates the hotels and rooms in the controller. Room numbers run from 101 and
+     * cycle through the room types.
+     *
+     * @param controller controller to fill
+     * @return names of the hotels created
+     */
+    public List<String> populate(HotelController controller) {
+        List<String> names = new ArrayList<>(hotelCount);
+        for (int h = 0; h < hotelCount; h++) {
+            String name = "Load Hotel " + (h + 1);
+            names.add(name);
+            if (controller.findHotelByName(name) != null) {
+                continue; // Already replayed from the journal
+            }
+            controller.addHotel(name); // Comes with room 101
+            for (int i = 1; i < roomsPerHotel; i++) {
+                controller.addRoomToHotel(name, 101 + i, ROOM_TYPES[i % ROOM_TYPES.length], 1299.0);
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Fills a new headless controller and runs the workload against it,
+     * recording every change in the journal file if one was chosen
+     *
+     * @return what the run measured
+     * @throws InterruptedException if interrupted while waiting for the threads
+     * @throws UncheckedIOException if the journal file cannot be opened or written
+     */
+    public Result run() throws InterruptedException {
+        if (journalFile == null) {
+            HotelController controller = new HotelController(new ArrayList<>(), HotelView.headless());
+            return run(controller, populate(controller));
+        }
+        try (Journal journal = Journal.open(journalFile)) {
+            HotelController controller = new HotelController(journal.getHotels(), HotelView.headless());
+            controller.setJournal(journal);
+            List<String> names = populate(controller);
+            long recordsBefore = journal.getRecordCount();
+            long flushesBefore = journal.getFlushCount();
+            Result result = run(controller, names);
+            result.journalRecords = journal.getRecordCount() - recordsBefore;
+            result.journalFlushes = journal.getFlushCount() - flushesBefore;
+            return result;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Runs the workload against hotels already in a controller
+     *
+     * @param controller controller to drive
+     * @param hotelNames names of the hotels to use, each with rooms numbered from 101
+     * @return what the run measured
+     * @throws InterruptedException if interrupted while waiting for the threads
+     */
+    public Result run(HotelController controller, List<String> hotelNames) throws InterruptedException {
+        Map<Operation, LatencyHistogram> latencies = new EnumMap<>(Operation.class);
+        Map<Operation, AtomicLong> failures = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            latencies.put(operation, new LatencyHistogram());
+            failures.put(operation, new AtomicLong());
+        }
+        List<HotelModel> hotels = new ArrayList<>(hotelNames.size());
+        for (String name : hotelNames) {
+            hotels.add(controller.findHotelByName(name));
+        }
+        AtomicIntegerArray reserved = new AtomicIntegerArray(hotels.size()); // reservations tried per hotel, bounds the IDs to cancel
+        int today = CalendarDays.today();
+        long intervalNanos = targetRate > 0 ? (long) (1e9 * threadCount / targetRate) : 0;
+        long start = System.nanoTime();
+        long end = start + durationMillis * 1_000_000;
+
+        List<Thread> threads = new ArrayList<>(threadCount);
+        for (int t = 0; t < threadCount; t++) {
+            Random random = new Random(seed * 31 + t);
+            Thread thread = new Thread(() -> {
+                long scheduled = start;
+                while (true) {
+                    if (intervalNanos > 0) {
+                        scheduled += intervalNanos;
+                        long wait = scheduled - System.nanoTime();
+                        if (wait > 0) {
+                            LockSupport.parkNanos(wait);
+                        }
+                    }
+                    long begin = intervalNanos > 0 ? scheduled : System.nanoTime();
+                    if (begin >= end) {
+                        break;
+                    }
+                    Operation operation = pick(random);
+                    int h = random.nextInt(hotels.size());
+                    boolean done = runOperation(operation, controller, hotelNames.get(h), hotels.get(h), h, reserved, today, random);
+                    // Timed from when the operation was due, so a slow system is not hidden by issuing less
+                    latencies.get(operation).record(System.nanoTime() - begin);
+                    if (!done) {
+                        failures.get(operation).incrementAndGet();
+                    }
+                }
+            }, "load-" + t);
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        Map<Operation, Long> failed = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            failed.put(operation, failures.get(operation).get());
+        }
+        return new Result(elapsed, latencies, failed);
+    }
+
+    /**
+     * @param random the thread's random source
+     * @return an operation drawn according to the mix
+     */
+    private Operation pick(Random random) {
+        int total = 0;
+        for (int weight : mix) {
+            total += weight;
+        }
+        int draw = random.nextInt(total);
+        for (Operation operation : Operation.values()) {
+            draw -= mix[operation.ordinal()];
+            if (draw < 0) {
+                return operation;
+            }
+        }
+        return Operation.RESERVE;
+    }
+
+    /**
+     * Runs one operation through the controller
+     *
+     * @return true if the operation took effect
+     */
+    private boolean runOperation(Operation operation, HotelController controller, String hotelName, HotelModel hotel,
+                                 int hotelIndex, AtomicIntegerArray reserved, int today, Random random) {
+        int checkInDate = today + random.nextInt(HORIZON_DAYS);
+        int checkOutDate = checkInDate + 1 + random.nextInt(MAX_NIGHTS);
+        switch (operation) {
+            case RESERVE:
+                reserved.incrementAndGet(hotelIndex);
+                return controller.makeReservation(hotelName, 101 + random.nextInt(roomsPerHotel), checkInDate, checkOutDate,
+                        "Guest " + random.nextInt(10_000), null);
+            case CANCEL:
+                return controller.cancelReservation(hotelName, 1 + random.nextInt(Math.max(1, reserved.get(hotelIndex))));
+            case QUERY: {
+                String roomType = random.nextBoolean() ? null : ROOM_TYPES[random.nextInt(ROOM_TYPES.length)];
+                List<Room> free = controller.findAvailableRooms(hotelName, roomType, checkInDate, checkOutDate, QUERY_LIMIT);
+                return free != null && !free.isEmpty();
+            }
+            default:
+                controller.datePriceModifier(hotel, checkInDate, checkOutDate - 1, 50 + random.nextInt(101));
+                return true;
+        }
+    }
+
+    /**
+     * Runs the generator from the command line and prints the result
+     *
+     * @param args options, as described on the class
+     * @throws InterruptedException if interrupted while running
+     */
+    public static void main(String[] args) throws InterruptedException {
+        LoadGenerator generator = new LoadGenerator();
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            String name = equals < 0 ? arg : arg.substring(0, equals);
+            String value = equals < 0 ? "" : arg.substring(equals + 1);
+            switch (name) {
+                case "--hotels":
+                    generator.setHotelCount(Integer.parseInt(value));
+                    break;
+                case "--rooms":
+                    generator.setRoomsPerHotel(Integer.parseInt(value));
+                    break;
+                case "--threads":
+                    generator.setThreadCount(Integer.parseInt(value));
+                    break;
+                case "--seconds":
+                    generator.setDurationMillis((long) (Double.parseDouble(value) * 1000));
+                    break;
+                case "--rate":
+                    generator.setTargetRate(Double.parseDouble(value));
+                    break;
+                case "--mix": {
+                    String[] weights = value.split(",");
+                    if (weights.length != 4) {
+                        throw new IllegalArgumentException("--mix needs four weights: RESERVE,CANCEL,QUERY,PRICE");
+                    }
+                    generator.setMix(Integer.parseInt(weights[0].trim()), Integer.parseInt(weights[1].trim()),
+                            Integer.parseInt(weights[2].trim()), Integer.parseInt(weights[3].trim()));
+                    break;
+                }
+                case "--seed":
+                    generator.setSeed(Long.parseLong(value));
+                    break;
+                case "--journal":
+                    generator.setJournalFile(value.isEmpty() ? null : Paths.get(value));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+        System.out.print(generator.run());
+    }
+}
@@ -0,0 +1,248 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Records which nights a single room is booked, one bit per night.
+ * Each long covers one calendar chunk of CalendarDays.CHUNK_DAYS nights,
+ * so a month's nights sit in one or two words. Nights are claimed and released
+ * with compare-and-set on those words, so bookings never lock the room.
+ * Words live in fixed pages that never move once allocated; only the small
+ * directory of pages is replaced when the bitmap grows or retires old days.
+ */
+public class NightBitmap {
+    private static final int PAGE_SHIFT = 4;
+    private static final int PAGE_CHUNKS = 1 << PAGE_SHIFT; // 16 words, about 2.8 years per page
+    private static final VarHandle WORDS = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final Directory EMPTY = new Directory(0, new long[0][]);
+
+    private volatile Directory directory;
+    private volatile int firstOpenDay; // nights before this day have been retired
+
+    /**
+     * The pages of the bitmap, replaced as a whole whenever a page is added or dropped
+     */
+    private static class Directory {
+        final int basePage; // pages[i] covers page basePage + i
+        final long[][] pages; // null for a page with nothing booked yet
+
+        Directory(int basePage, long[][] pages) {
+            this.basePage = basePage;
+            this.pages = pages;
+        }
+
+        long[] page(int page) {
+            int index = page - basePage;
+            return index >= 0 && index < pages.length ? pages[index] : null;
+        }
+    }
+
+    /**
+     * Constructs a bitmap with no booked nights
+     */
+    public NightBitmap() {
+        this.directory = EMPTY;
+        this.firstOpenDay = Integer.MIN_VALUE;
+    }
+
+    /**
+     * Builds the mask of the nights of [checkInDate, checkOutDate) that fall in one chunk
+     *
+     * @param chunk chunk number
+     * @param checkInDate first night of the range
+     * @param checkOutDate day after the last night of the range
+     * @return bit mask of those nights within the chunk's word, or 0 if none
+     */
+    public static long chunkMask(int chunk, int checkInDate, int checkOutDate) {
+        int chunkStart = CalendarDays.firstDayOf(chunk);
+        int from = Math.max(checkInDate, chunkStart) - chunkStart;
+        int to = Math.min(checkOutDate, chunkStart + CalendarDays.CHUNK_DAYS) - chunkStart;
+        if (to <= from) {
+            return 0L;
+        }
+        return (-1L >>> (64 - (to - from))) << from;
+    }
+
+    /**
+     * @param day epoch day
+     * @return true if the bitmap still tracks the day, false if it was retired
+     */
+    public boolean covers(int day) {
+        return day >= firstOpenDay;
+    }
+
+    /**
+     * @param checkInDate first night of the range
+     * @param checkOutDate day after the last night of the range
+     * @return true if none of the nights in [checkInDate, checkOutDate) are booked
+     */
+    public boolean isClear(int checkInDate, int checkOutDate) {
+        if (checkOutDate <= checkInDate) {
+            return true;
+        }
+        Directory dir = directory;
+        for (int chunk = CalendarDays.chunkOf(checkInDate); chunk <= CalendarDays.chunkOf(checkOutDate - 1); chunk++) {
+            long[] page = dir.page(chunk >> PAGE_SHIFT);
+            if (page != null && ((long) WORDS.getVolatile(page, chunk & (PAGE_CHUNKS - 1))
+                    & chunkMask(chunk, checkInDate, checkOutDate)) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Claims the nights of [checkInDate, checkOutDate) if all of them are free
+     *
+     * @param checkInDate first night of the range
+     * @param checkOutDate day after the last night of the range
+     * @return true if the nights were claimed, false if one of them was already booked
+     */
+    public boolean claim(int checkInDate, int checkOutDate) {
+        return claim(checkInDate, checkOutDate, 0, 0);
+    }
+
+    /**
+     * Claims the nights of [checkInDate, checkOutDate) that are not in the caller's own
+     * range [ownCheckIn, ownCheckOut), if all of them are free. Each word is claimed with
+     * a compare-and-set, in date order; if a night is taken, the words already claimed
+     * are released again and nothing is left booked. A claim that loses a race this way
+     * can fail even if the winner is itself rolled back a moment later.
+     *
+     * @param checkInDate first night of the range
+     * @param checkOutDate day after the last night of the range
+     * @param ownCheckIn first night the caller already holds
+     * @param ownCheckOut day after the last night the caller already holds
+     * @return true if the nights were claimed, false if one of them was already booked
+     */
+    public boolean claim(int checkInDate, int checkOutDate, int ownCheckIn, int ownCheckOut) {
+        if (checkOutDate <= checkInDate) {
+            return true;
+        }
+        int first = CalendarDays.chunkOf(checkInDate);
+        int last = CalendarDays.chunkOf(checkOutDate - 1);
+        for (int chunk = first; chunk <= last; chunk++) {
+            long mask = chunkMask(chunk, checkInDate, checkOutDate) & ~chunkMask(chunk, ownCheckIn, ownCheckOut);
+            if (mask == 0) {
+                continue;
+            }
+            long[] page = pageForClaim(chunk >> PAGE_SHIFT);
+            int index = chunk & (PAGE_CHUNKS - 1);
+            long word;
+            do {
+                word = (long) WORDS.getVolatile(page, index);
+                if ((word & mask) != 0) {
+                    clear(CalendarDays.firstDayOf(first), CalendarDays.firstDayOf(chunk), checkInDate, checkOutDate, ownCheckIn, ownCheckOut);
+                    return false;
+                }
+            } while (!WORDS.compareAndSet(page, index, word, word | mask));
+        }
+        return true;
+    }
+
+    /**
+     * Releases the nights of [checkInDate, checkOutDate)
+     *
+     * @param checkInDate first night of the range
+     * @param checkOutDate day after the last night of the range
+     */
+    public void release(int checkInDate, int checkOutDate) {
+        release(checkInDate, checkOutDate, 0, 0);
+    }
+
+    /**
+     * Releases the nights of [checkInDate, checkOutDate) except those in [keepCheckIn, keepCheckOut)
+     *
+     * @param checkInDate first night of the range
+     * @param checkOutDate day after the last night of the range
+     * @param keepCheckIn first night to keep
+     * @param keepCheckOut day after the last night to keep
+     */
+    public void release(int checkInDate, int checkOutDate, int keepCheckIn, int keepCheckOut) {
+        clear(checkInDate, checkOutDate, checkInDate, checkOutDate, keepCheckIn, keepCheckOut);
+    }
+
+    /**
+     * Frees every night
+     */
+    public synchronized void clearAll() {
+        directory = EMPTY;
+    }
+
+    /**
+     * Drops the pages that end before the given day
+     *
+     * @param day first epoch day to keep
+     */
+    public synchronized void retireBefore(int day) {
+        int chunk = CalendarDays.chunkOf(day);
+        firstOpenDay = Math.max(firstOpenDay, CalendarDays.firstDayOf(chunk));
+        Directory dir = directory;
+        int drop = Math.min((chunk >> PAGE_SHIFT) - dir.basePage, dir.pages.length);
+        if (drop > 0) {
+            long[][] kept = new long[dir.pages.length - drop][];
+            System.arraycopy(dir.pages, drop, kept, 0, kept.length);
+            directory = new Directory(dir.basePage + drop, kept);
+        }
+    }
+
+    /**
+     * Clears, within the days [fromDay, toDay), the nights of [checkInDate, checkOutDate)
+     * that are outside [keepCheckIn, keepCheckOut)
+     *
+     * @param fromDay first day that may be cleared
+     * @param toDay day after the last day that may be cleared
+     * @param checkInDate first night of the range
+     * @param checkOutDate day after the last night of the range
+     * @param keepCheckIn first night to keep
+     * @param keepCheckOut day after the last night to keep
+     */
+    private void clear(int fromDay, int toDay, int checkInDate, int checkOutDate, int keepCheckIn, int keepCheckOut) {
+        int from = Math.max(fromDay, checkInDate);
+        int to = Math.min(toDay, checkOutDate);
+        if (to <= from) {
+            return;
+        }
+        Directory dir = directory;
+        for (int chunk = CalendarDays.chunkOf(from); chunk <= CalendarDays.chunkOf(to - 1); chunk++) {
+            long[] page = dir.page(chunk >> PAGE_SHIFT);
+            long mask = chunkMask(chunk, from, to) & ~chunkMask(chunk, keepCheckIn, keepCheckOut);
+            if (page != null && mask != 0) {
+                WORDS.getAndBitwiseAnd(page, chunk & (PAGE_CHUNKS - 1), ~mask);
+            }
+        }
+    }
+
+    /**
+     * Finds the page holding a chunk's word, adding it to the directory if needed.
+     * Only adding a page locks; claims on pages that exist never do.
+     *
+     * @param page page number
+     * @return the page's words
+     */
+    private long[] pageForClaim(int page) {
+        long[] words = directory.page(page);
+        return words != null ? words : addPage(page);
+    }
+
+    /**
+     * @param page page number
+     * @return the page's words, allocated if no other claim added them first
+     */
+    private synchronized long[] addPage(int page) {
+        Directory dir = directory;
+        long[] words = dir.page(page);
+        if (words != null) {
+            return words;
+        }
+        int base = dir.pages.length == 0 ? page : Math.min(dir.basePage, page);
+        int end = dir.pages.length == 0 ? page + 1 : Math.max(dir.basePage + dir.pages.length, page + 1);
+        long[][] pages = new long[end - base][];
+        if (dir.pages.length > 0) {
+            System.arraycopy(dir.pages, 0, pages, dir.basePage - base, dir.pages.length);
+        }
+        words = new long[PAGE_CHUNKS];
+        pages[page - base] = words;
+        directory = new Directory(base, pages);
+        return words;
+    }
+}
@@ -0,0 +1,145 @@
+import java.util.BitSet;
+
+/**
+ * Tracks which rooms of a hotel are booked on each night.
+ * Every room owns a slot, and each day keeps a bitmap with one bit per slot,
+ * so counting booked rooms on a day is a single popcount. The bitmaps live
+ * in day chunks that are only allocated once a room is booked in them.
+ */
+public class OccupancyCalendar {
+    private final DayWindow<BitSet[]> bookedRooms; // bitmap of booked slots for each day of a chunk
+    private final BitSet usedSlots;
+
+    /**
+     * Constructs an empty calendar
+     */
+    public OccupancyCalendar() {
+        this.bookedRooms = new DayWindow<>(OccupancyCalendar::newChunk, OccupancyCalendar::clearChunk);
+        this.usedSlots = new BitSet();
+    }
+
+    /**
+     * Reserves a slot for a newly added room
+     *
+     * @return the slot assigned to the room
+     */
+    public int assignSlot() {
+        int slot = usedSlots.nextClearBit(0);
+        usedSlots.set(slot);
+        return slot;
+    }
+
+    /**
+     * Frees the slot of a removed room, clearing any nights it still had booked
+     *
+     * @param slot slot of the removed room
+     */
+    public void releaseSlot(int slot) {
+        for (int chunk = bookedRooms.getFirstChunk(); chunk < bookedRooms.getEndChunk(); chunk++) {
+            BitSet[] days = bookedRooms.get(chunk);
+            if (days != null) {
+                for (BitSet day : days) {
+                    day.clear(slot);
+                }
+            }
+        }
+        usedSlots.clear(slot);
+    }
+
+    /**
+     * Marks a room as booked for the nights [checkInDate, checkOutDate)
+     *
+     * @param slot slot of the booked room
+     * @param checkInDate first night of the stay
+     * @param checkOutDate day after the last night of the stay
+     */
+    public void mark(int slot, int checkInDate, int checkOutDate) {
+        for (int day = Math.max(checkInDate, bookedRooms.getFirstOpenDay()); day < checkOutDate; day++) {
+            bookedRooms.getOrCreate(CalendarDays.chunkOf(day))[CalendarDays.offsetOf(day)].set(slot);
+        }
+    }
+
+    /**
+     * Marks a room as free for the nights [checkInDate, checkOutDate)
+     *
+     * @param slot slot of the room
+     * @param checkInDate first night of the cancelled stay
+     * @param checkOutDate day after the last night of the cancelled stay
+     */
+    public void unmark(int slot, int checkInDate, int checkOutDate) {
+        for (int day = checkInDate; day < checkOutDate; day++) {
+            BitSet[] days = bookedRooms.get(CalendarDays.chunkOf(day));
+            if (days != null) {
+                days[CalendarDays.offsetOf(day)].clear(slot);
+            }
+        }
+    }
+
+    /**
+     * Finds which of the given slots are free on every night [checkInDate, checkOutDate).
+     * Each night costs one word-wise and-not over its bitmap, and the scan stops
+     * early once no candidate is left.
+     *
+     * @param candidates slots to consider
+     * @param checkInDate first night of the stay
+     * @param checkOutDate day after the last night of the stay
+     * @return a new bitmap of the candidate slots that are free for the whole stay
+     */
+    public BitSet freeSlots(BitSet candidates, int checkInDate, int checkOutDate) {
+        BitSet free = (BitSet) candidates.clone();
+        for (int day = checkInDate; day < checkOutDate && !free.isEmpty(); day++) {
+            BitSet[] days = bookedRooms.get(CalendarDays.chunkOf(day));
+            if (days == null) {
+                day = CalendarDays.firstDayOf(CalendarDays.chunkOf(day) + 1) - 1; // Nothing booked in this chunk
+            } else {
+                free.andNot(days[CalendarDays.offsetOf(day)]);
+            }
+        }
+        return free;
+    }
+
+    /**
+     * @param day epoch day to check
+     * @return number of rooms booked on that night
+     */
+    public int countBooked(int day) {
+        BitSet[] days = bookedRooms.get(CalendarDays.chunkOf(day));
+        return days == null ? 0 : days[CalendarDays.offsetOf(day)].cardinality();
+    }
+
+    /**
+     * Drops the chunks that end before the given day so their bitmaps can be reused
+     *
+     * @param day first epoch day to keep
+     */
+    public void retireBefore(int day) {
+        bookedRooms.retireBefore(day);
+    }
+
+    /**
+     * @return first epoch day that is still tracked
+     */
+    public int getFirstOpenDay() {
+        return bookedRooms.getFirstOpenDay();
+    }
+
+    /**
+     * @return storage for a new chunk, one bitmap per day
+     */
+    private static BitSet[] newChunk() {
+        BitSet[] days = new BitSet[CalendarDays.CHUNK_DAYS];
+        for (int i = 0; i < days.length; i++) {
+            days[i] = new BitSet();
+        }
+        return days;
+    }
+
+    /**
+     * @param days storage of a retired chunk
+     */
+    private static void clearChunk(BitSet[] days) {
+        for (BitSet day : days) {
+            day.clear();
+        }
+    }
+}
@@ -0,0 +1,127 @@
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Latencies and outcomes of one controller operation. Recording a call is a few
+ * atomic increments with no lock and no allocation, so it can stay on in
+ * production; the counts are read over JMX under the name
+ * "HotelReservation:type=Operation,name=<operation>".
+ */
+public class OperationStats implements OperationStatsMXBean {
+    private static final String DOMAIN = "HotelReservation";
+
+    private final String operation;
+    private final LatencyHistogram latencies;
+    private final LongAdder successes;
+    private final LongAdder rejections;
+
+    /**
+     * Constructs empty stats for an operation
+     *
+     * @param operation name of the operation
+     */
+    public OperationStats(String operation) {
+        this.operation = operation;
+        this.latencies = new LatencyHistogram();
+        this.successes = new LongAdder();
+        this.rejections = new LongAdder();
+    }
+
+    /**
+     * Creates stats for an operation and publishes them on the platform MBean server,
+     * replacing any published earlier under the same name
+     *
+     * @param operation name of the operation
+     * @return the stats, which are still usable if publishing failed
+     */
+    public static OperationStats register(String operation) {
+        OperationStats stats = new OperationStats(operation);
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(DOMAIN + ":type=Operation,name=" + operation);
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name); // A newer controller in the same program takes over the name
+            }
+            server.registerMBean(stats, name);
+        } catch (JMException | SecurityException e) {
+            System.err.println("Could not publish stats for " + operation + ": " + e.getMessage());
+        }
+        return stats;
+    }
+
+    /**
+     * Records one call
+     *
+     * @param startNanos System.nanoTime() when the call started
+     * @param succeeded  true if the call took effect, false if it was turned down
+     * @return succeeded, so a call can be recorded as it returns
+     */
+    public boolean record(long startNanos, boolean succeeded) {
+        latencies.record(System.nanoTime() - startNanos);
+        (succeeded ? successes : rejections).increment();
+        return succeeded;
+    }
+
+    @Override
+    public String getOperation() {
+        return operation;
+    }
+
+    @Override
+    public long getCount() {
+        return latencies.getCount();
+    }
+
+    @Override
+    public long getSuccesses() {
+        return successes.sum();
+    }
+
+    @Override
+    public long getRejections() {
+        return rejections.sum();
+    }
+
+    @Override
+    public double getMeanMicros() {
+        return latencies.getMean() / 1e3;
+    }
+
+    @Override
+    public double getP50Micros() {
+        return latencies.getPercentile(50) / 1e3;
+    }
+
+    @Override
+    public double getP99Micros() {
+        return latencies.getPercentile(99) / 1e3;
+    }
+
+    @Override
+    public double getP999Micros() {
+        return latencies.getPercentile(99.9) / 1e3;
+    }
+
+    @Override
+    public double getMaxMicros() {
+        return latencies.getMax() / 1e3;
+    }
+
+    @Override
+    public void reset() {
+        latencies.reset();
+        successes.reset();
+        rejections.reset();
+    }
+
+    /**
+     * @return the operation with its counts and latency percentiles
+     */
+    @Override
+    public String toString() {
+        return operation + ": successes=" + getSuccesses() + " rejections=" + getRejections() + " " + latencies;
+    }
+}
@@ -0,0 +1,56 @@
+/**
+ * Management interface of the latency and outcome counts of one controller
+ * operation, published over JMX so a monitoring tool can read them from a
+ * running program. Latencies are in microseconds.
+ */
+public interface OperationStatsMXBean {
+    /**
+     * @return name of the operation
+     */
+    String getOperation();
+
+    /**
+     * @return number of calls timed
+     */
+    long getCount();
+
+    /**
+     * @return number of calls that took effect
+     */
+    long getSuccesses();
+
+    /**
+     * @return number of calls turned down, such as a booking of a taken room or an unknown hotel
+     */
+    long getRejections();
+
+    /**
+     * @return average latency
+     */
+    double getMeanMicros();
+
+    /**
+     * @return median latency
+     */
+    double getP50Micros();
+
+    /**
+     * @return latency 99% of calls did not exceed
+     */
+    double getP99Micros();
+
+    /**
+     * @return latency 99.9% of calls did not exceed
+     */
+    double getP999Micros();
+
+    /**
+     * @return largest latency
+     */
+    double getMaxMicros();
+
+    /**
+     * Starts counting again from zero
+     */
+    void reset();
+}
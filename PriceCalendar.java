@@ -0,0 +1,179 @@
+import java.util.Arrays;
+
+/**
+ * Holds the percent price modifier of every day together with running totals
+ * of those modifiers, so the combined modifier of any stay is found with one
+ * subtraction no matter how many nights it spans. Days without a custom
+ * modifier cost no memory; modifiers are kept in day chunks that are only
+ * allocated once a day in them is changed.
+ */
+public class PriceCalendar {
+    public static final int DEFAULT_MODIFIER = 100;
+
+    private final DayWindow<ModifierChunk> chunks;
+    private long[] deviationBefore; // deviationBefore[i] is the deviation of every chunk before chunk first + i
+    private long totalDeviation;
+    private boolean totalsStale;
+
+    /**
+     * The modifiers of one chunk of days, stored as deviations from the default
+     */
+    private static class ModifierChunk {
+        final int[] modifiers = new int[CalendarDays.CHUNK_DAYS];
+        final long[] deviationPrefix = new long[CalendarDays.CHUNK_DAYS + 1]; // deviationPrefix[i] sums days 0..i-1
+
+        ModifierChunk() {
+            clear();
+        }
+
+        void clear() {
+            Arrays.fill(modifiers, DEFAULT_MODIFIER);
+            Arrays.fill(deviationPrefix, 0L);
+        }
+
+        void refresh() {
+            for (int i = 0; i < modifiers.length; i++) {
+                deviationPrefix[i + 1] = deviationPrefix[i] + modifiers[i] - DEFAULT_MODIFIER;
+            }
+        }
+    }
+
+    /**
+     * Constructs a calendar where every day is priced at 100%
+     */
+    public PriceCalendar() {
+        this.chunks = new DayWindow<>(ModifierChunk::new, ModifierChunk::clear);
+        this.deviationBefore = new long[0];
+        this.totalDeviation = 0;
+        this.totalsStale = false;
+    }
+
+    /**
+     * @param day epoch day
+     * @return percent modifier applied on that day
+     */
+    public int getModifier(int day) {
+        ModifierChunk chunk = chunks.get(CalendarDays.chunkOf(day));
+        return chunk == null ? DEFAULT_MODIFIER : chunk.modifiers[CalendarDays.offsetOf(day)];
+    }
+
+    /**
+     * Copies the modifiers of one chunk of days
+     *
+     * @param chunk chunk number
+     * @return the modifier of each day of the chunk, or null if none of them was ever changed
+     */
+    public int[] copyModifiers(int chunk) {
+        ModifierChunk modifiers = chunks.get(chunk);
+        return modifiers == null ? null : modifiers.modifiers.clone();
+    }
+
+    /**
+     * Sets the modifier of a single day
+     *
+     * @param day epoch day
+     * @param modifier percent applied on that day
+     */
+    public void setModifier(int day, int modifier) {
+        setModifier(day, day, modifier);
+    }
+
+    /**
+     * Sets the same modifier on every day from firstDay to lastDay, inclusive,
+     * patching the running totals of each chunk touched once
+     *
+     * @param firstDay first day to modify
+     * @param lastDay last day to modify
+     * @param modifier percent applied on those days
+     */
+    public void setModifier(int firstDay, int lastDay, int modifier) {
+        for (int c = CalendarDays.chunkOf(firstDay); c <= CalendarDays.chunkOf(lastDay); c++) {
+            ModifierChunk chunk = modifier == DEFAULT_MODIFIER ? chunks.get(c) : chunks.getOrCreate(c);
+            if (chunk == null) {
+                continue; // Untouched chunk is already at the default
+            }
+            int from = Math.max(firstDay, CalendarDays.firstDayOf(c));
+            int to = Math.min(lastDay, CalendarDays.firstDayOf(c + 1) - 1);
+            for (int day = from; day <= to; day++) {
+                chunk.modifiers[CalendarDays.offsetOf(day)] = modifier;
+            }
+            chunk.refresh();
+        }
+        totalsStale = true;
+    }
+
+    /**
+     * Sums the modifiers of the nights [checkInDate, checkOutDate)
+     *
+     * @param checkInDate first night of the stay
+     * @param checkOutDate day after the last night of the stay
+     * @return sum of the percent modifiers over the stay
+     */
+    public long sumModifiers(int checkInDate, int checkOutDate) {
+        if (checkOutDate <= checkInDate) {
+            return 0;
+        }
+        return (long) DEFAULT_MODIFIER * (checkOutDate - checkInDate)
+                + deviationBefore(checkOutDate) - deviationBefore(checkInDate);
+    }
+
+    /**
+     * Drops the chunks that end before the given day; those days go back to the default modifier
+     *
+     * @param day first epoch day to keep
+     */
+    public void retireBefore(int day) {
+        chunks.retireBefore(day);
+        totalsStale = true;
+    }
+
+    /**
+     * @return first epoch day whose modifier can still be changed
+     */
+    public int getFirstOpenDay() {
+        return chunks.getFirstOpenDay();
+    }
+
+    /**
+     * Sums how far the modifiers of every day before the given day are from the default
+     *
+     * @param day epoch day
+     * @return total deviation of the days before it
+     */
+    private long deviationBefore(int day) {
+        if (totalsStale) {
+            refreshTotals();
+        }
+        int c = CalendarDays.chunkOf(day);
+        if (c < chunks.getFirstChunk()) {
+            return 0;
+        }
+        if (c >= chunks.getEndChunk()) {
+            return totalDeviation;
+        }
+        ModifierChunk chunk = chunks.get(c);
+        long inChunk = chunk == null ? 0 : chunk.deviationPrefix[CalendarDays.offsetOf(day)];
+        return deviationBefore[c - chunks.getFirstChunk()] + inChunk;
+    }
+
+    /**
+     * Recomputes the running totals across chunks after modifiers changed
+     */
+    private void refreshTotals() {
+        int first = chunks.getFirstChunk();
+        int count = chunks.getEndChunk() - first;
+        if (deviationBefore.length < count) {
+            deviationBefore = new long[count];
+        }
+        long running = 0;
+        for (int i = 0; i < count; i++) {
+            deviationBefore[i] = running;
+            ModifierChunk chunk = chunks.get(first + i);
+            if (chunk != null) {
+                running += chunk.deviationPrefix[CalendarDays.CHUNK_DAYS];
+            }
+        }
+        totalDeviation = running;
+        totalsStale = false;
+    }
+}
@@ -0,0 +1,164 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Checks that the hotels rebuilt from a journal are the hotels that wrote it. A
+ * headless controller records its changes in a new journal while the load generator
+ * books, cancels and reprices stays, and the days before a later and later day are
+ * retired in between, so day modifiers are set over stays that checked in before the
+ * retired days. A snapshot is saved part way through. The journal is then opened
+ * again, once replaying it whole and once starting from the snapshot, and each time
+ * the hotels must match the live ones: names, first open day, rooms, every
+ * reservation with its dates and price, the day modifiers and the earnings.
+ * Every difference is printed, and the check exits with status 1 if there was any.
+ *
+ * Run it with: java ReplayCheck [--seconds=S] [--seed=N]
+ */
+public class ReplayCheck {
+    private static final int HOTELS = 3;
+    private static final int ROOMS = 20;
+    private static final int ROUNDS = 4; // runs of the load generator, with days retired after each
+    private static final int SHOWN_DAYS = 200; // days from today whose modifiers are compared
+
+    private long durationMillis = 2_000;
+    private long seed = 42;
+
+    /**
+     * Writes a journal from live hotels, replays it and compares
+     *
+     * @return the differences found, empty if the replayed hotels match the live ones
+     * @throws IOException if the journal or snapshot cannot be written or read
+     * @throws InterruptedException if interrupted while the load generator runs
+     */
+    public List<String> run() throws IOException, InterruptedException {
+        Path directory = Files.createTempDirectory("replay-check");
+        Path journalFile = directory.resolve("hotels.journal");
+        Path snapshotFile = directory.resolve("hotels.snapshot");
+        int today = CalendarDays.today();
+        List<String> live;
+        try (Journal journal = Journal.open(journalFile)) {
+            HotelController controller = new HotelController(journal.getHotels(), HotelView.headless());
+            controller.setJournal(journal);
+            LoadGenerator generator = new LoadGenerator();
+            generator.setHotelCount(HOTELS);
+            generator.setRoomsPerHotel(ROOMS);
+            generator.setDurationMillis(durationMillis / ROUNDS);
+            List<String> names = generator.populate(controller);
+
+            // A stay that checks in before the retired days, then a price change over it
+            HotelModel first = controller.findHotelByName(names.get(0));
+            controller.makeReservation(names.get(0), 101, today + 1, today + 11, "Retired Guest", null);
+            first.retireDaysBefore(today + 5);
+            controller.datePriceModifier(first, today + 1, today + 10, 150);
+
+            for (int round = 0; round < ROUNDS; round++) {
+                generator.setSeed(seed + round);
+                generator.run(controller, names);
+                for (String name : names) {
+                    controller.findHotelByName(name).retireDaysBefore(today + 5 + 3 * (round + 1));
+                }
+                if (round == ROUNDS / 2 && !controller.saveSnapshot(snapshotFile)) {
+                    throw new IOException("Could not save the snapshot " + snapshotFile);
+                }
+            }
+            live = describe(controller.getHotels(), today);
+        }
+
+        List<String> differences = new ArrayList<>();
+        try (Journal journal = Journal.open(journalFile)) {
+            compare("full replay", live, describe(journal.getHotels(), today), differences);
+        }
+        try (Journal journal = Journal.open(journalFile, snapshotFile)) {
+            compare("replay from the snapshot", live, describe(journal.getHotels(), today), differences);
+        }
+        Files.deleteIfExists(snapshotFile);
+        Files.deleteIfExists(journalFile);
+        Files.deleteIfExists(directory);
+        return differences;
+    }
+
+    /**
+     * @return one line per hotel and one per reservation, in a fixed order
+     */
+    private static List<String> describe(List<HotelModel> hotels, int today) {
+        List<String> lines = new ArrayList<>();
+        for (HotelModel hotel : hotels) {
+            StringBuilder line = new StringBuilder(hotel.getHotelName())
+                    .append(" firstOpenDay=").append(hotel.getFirstOpenDay())
+                    .append(" earnings=").append(Math.round(hotel.calculateEarnings() * 100))
+                    .append(" rooms=");
+            for (Room room : hotel.getRooms()) {
+                line.append(room.getRoomNumber()).append('/').append(room.getRoomType()).append('/')
+                        .append(room.getBasePrice()).append(' ');
+            }
+            line.append("modifiers=");
+            for (int day = today; day < today + SHOWN_DAYS; day++) {
+                line.append(hotel.getDayModifier(day)).append(',');
+            }
+            lines.add(line.toString());
+            List<Reservation> reservations = new ArrayList<>(hotel.getReservations());
+            reservations.sort(Comparator.comparingInt(Reservation::getId));
+            for (Reservation reservation : reservations) {
+                lines.add(hotel.getHotelName() + " #" + reservation.getId() + " room " + reservation.getRoomNumber()
+                        + " " + CalendarDays.format(reservation.getCheckInDate())
+                        + " to " + CalendarDays.format(reservation.getCheckOutDate())
+                        + " price=" + Math.round(reservation.getTotalPrice() * 100)
+                        + " code=" + reservation.getDiscountCode());
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * Adds a line to the differences for every line that is not the same in both descriptions
+     */
+    private static void compare(String how, List<String> live, List<String> replayed, List<String> differences) {
+        for (int i = 0; i < Math.max(live.size(), replayed.size()); i++) {
+            String expected = i < live.size() ? live.get(i) : "(nothing)";
+            String actual = i < replayed.size() ? replayed.get(i) : "(nothing)";
+            if (!expected.equals(actual)) {
+                differences.add(how + ": live " + expected + System.lineSeparator()
+                        + "    replayed " + actual);
+            }
+        }
+    }
+
+    /**
+     * Runs the check from the command line, printing what it found
+     *
+     * @param args options, as described on the class
+     * @throws IOException if the journal or snapshot cannot be written or read
+     * @throws InterruptedException if interrupted while running
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        ReplayCheck check = new ReplayCheck();
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            String name = equals < 0 ? arg : arg.substring(0, equals);
+            String value = equals < 0 ? "" : arg.substring(equals + 1);
+            switch (name) {
+                case "--seconds":
+                    check.durationMillis = (long) (Double.parseDouble(value) * 1000);
+                    break;
+                case "--seed":
+                    check.seed = Long.parseLong(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+        List<String> differences = check.run();
+        for (String difference : differences) {
+            System.out.println(difference);
+        }
+        if (!differences.isEmpty()) {
+            System.out.println(differences.size() + " differences");
+            System.exit(1);
+        }
+        System.out.println("Replayed hotels match the live ones");
+    }
+}
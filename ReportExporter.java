@@ -0,0 +1,471 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Writes reports on every hotel as CSV or JSON straight to a channel: occupancy grids,
+ * booked and available room lists, reservation ledgers and earnings. Rows are encoded
+ * into one reused buffer that is written out whenever it fills, so nothing is gathered
+ * in memory and exporting a chain of any size takes the same memory as one hotel's room.
+ *
+ * Each hotel is read from its latest snapshot without locking, so the rows of one hotel
+ * are consistent with each other even while bookings go on. CSV files start with a header
+ * row; JSON is an array with one object per row. The channel is not closed.
+ */
+public class ReportExporter {
+    /**
+     * Format the rows are written in
+     */
+    public enum Format {
+        CSV, JSON
+    }
+
+    /**
+     * Reports that can be exported
+     */
+    public enum Report {
+        OCCUPANCY("Occupancy grid"),
+        BOOKED_ROOMS("Booked rooms"),
+        AVAILABLE_ROOMS("Available rooms"),
+        RESERVATIONS("Reservation ledger"),
+        EARNINGS("Earnings");
+
+        private final String title;
+
+        Report(String title) {
+            this.title = title;
+        }
+
+        @Override
+        public String toString() {
+            return title;
+        }
+    }
+
+    private static final int BUFFER_BYTES = 64 * 1024;
+    private static final int MAX_CHAR_BYTES = 6; // a JSON-escaped control character
+    private static final int MAX_GRID_NIGHTS = 3660; // ten years of columns in an occupancy grid
+
+    private final WritableByteChannel channel;
+    private final Format format;
+    private final ByteBuffer buffer; // rows not written to the channel yet, reused until the export ends
+    private byte[] nights; // booked nights of the room being written in an occupancy grid, reused for every room
+    private boolean firstRecord;
+    private boolean firstField;
+    private long bytesWritten;
+
+    /**
+     * Constructs an exporter writing to a channel
+     *
+     * @param channel channel the reports are written to
+     * @param format  format to write the reports in
+     */
+    public ReportExporter(WritableByteChannel channel, Format format) {
+        this.channel = channel;
+        this.format = format;
+        this.buffer = ByteBuffer.allocate(BUFFER_BYTES);
+        this.nights = new byte[0];
+    }
+
+    /**
+     * @return bytes written to the channel so far
+     */
+    public long getBytesWritten() {
+        return bytesWritten + buffer.position();
+    }
+
+    /**
+     * Writes a report on every hotel
+     *
+     * @param report   the report to write
+     * @param hotels   hotels to report on, in the order they are written
+     * @param firstDay first night of the occupancy grid, or the night the room lists are for
+     * @param lastDay  last night of the occupancy grid, inclusive; ignored by the other reports
+     * @throws IOException if the channel cannot be written
+     */
+    public void export(Report report, Iterable<HotelModel> hotels, int firstDay, int lastDay) throws IOException {
+        switch (report) {
+            case OCCUPANCY:
+                exportOccupancy(hotels, firstDay, lastDay);
+                break;
+            case BOOKED_ROOMS:
+                exportRooms(hotels, firstDay, true);
+                break;
+            case AVAILABLE_ROOMS:
+                exportRooms(hotels, firstDay, false);
+                break;
+            case RESERVATIONS:
+                exportReservations(hotels);
+                break;
+            case EARNINGS:
+                exportEarnings(hotels);
+                break;
+        }
+    }
+
+    /**
+     * Writes one row per room with whether it is booked on each night of a range:
+     * in CSV a column of 1 or 0 per night, in JSON an array of them under "booked".
+     * The nights of each room are marked from its stays, in time linear in its stays and the nights.
+     *
+     * @param hotels   hotels to report on
+     * @param firstDay first night of the grid
+     * @param lastDay  last night of the grid, inclusive
+     * @throws IOException if the channel cannot be written
+     */
+    public void exportOccupancy(Iterable<HotelModel> hotels, int firstDay, int lastDay) throws IOException {
+        int days = lastDay - firstDay + 1;
+        if (days < 1 || days > MAX_GRID_NIGHTS) {
+            throw new IllegalArgumentException("Invalid range of nights: " + firstDay + " to " + lastDay);
+        }
+        if (nights.length < days) {
+            nights = new byte[days];
+        }
+        beginDocument();
+        if (format == Format.CSV) {
+            ascii("hotel,room,type");
+            for (int day = firstDay; day <= lastDay; day++) {
+                ascii(",");
+                date(day);
+            }
+            ascii("\n");
+        }
+        for (HotelModel hotel : hotels) {
+            HotelSnapshot snapshot = hotel.getSnapshot();
+            for (HotelSnapshot.RoomView room : snapshot.getRooms()) {
+                Arrays.fill(nights, 0, days, (byte) 0);
+                room.forEachStay(stay -> {
+                    int from = Math.max(stay.getCheckInDate(), firstDay);
+                    int to = Math.min(stay.getCheckOutDate(), lastDay + 1);
+                    if (from < to) {
+                        Arrays.fill(nights, from - firstDay, to - firstDay, (byte) 1);
+                    }
+                });
+                beginRecord();
+                textField("hotel", snapshot.getHotelName());
+                numberField("room", room.getRoomNumber());
+                textField("type", room.getRoomType());
+                if (format == Format.CSV) {
+                    for (int i = 0; i < days; i++) {
+                        ensure(2);
+                        buffer.put((byte) ',').put((byte) ('0' + nights[i]));
+                    }
+                } else {
+                    name("booked");
+                    ascii("[");
+                    for (int i = 0; i < days; i++) {
+                        ensure(2);
+                        if (i > 0) {
+                            buffer.put((byte) ',');
+                        }
+                        buffer.put((byte) ('0' + nights[i]));
+                    }
+                    ascii("]");
+                }
+                endRecord();
+            }
+        }
+        endDocument();
+    }
+
+    /**
+     * Writes one row per room booked, or per room available, on a night
+     *
+     * @param hotels hotels to report on
+     * @param date   the night
+     * @param booked true to list the booked rooms, false to list the available ones
+     * @throws IOException if the channel cannot be written
+     */
+    public void exportRooms(Iterable<HotelModel> hotels, int date, boolean booked) throws IOException {
+        beginDocument();
+        header("hotel,room,type,price,date\n");
+        for (HotelModel hotel : hotels) {
+            HotelSnapshot snapshot = hotel.getSnapshot();
+            for (HotelSnapshot.RoomView room : snapshot.getRooms()) {
+                if (room.isBookedOnDate(date) != booked) {
+                    continue;
+                }
+                beginRecord();
+                textField("hotel", snapshot.getHotelName());
+                numberField("room", room.getRoomNumber());
+                textField("type", room.getRoomType());
+                priceField("price", room.getPrice());
+                dateField("date", date);
+                endRecord();
+            }
+        }
+        endDocument();
+    }
+
+    /**
+     * Writes one row per reservation of every hotel, ordered by room and check-in date
+     *
+     * @param hotels hotels to report on
+     * @throws IOException if the channel cannot be written
+     */
+    public void exportReservations(Iterable<HotelModel> hotels) throws IOException {
+        beginDocument();
+        header("hotel,id,room,guest,check_in,check_out,nights,discount_code,total_price\n");
+        try {
+            for (HotelModel hotel : hotels) {
+                HotelSnapshot snapshot = hotel.getSnapshot();
+                String hotelName = snapshot.getHotelName();
+                for (HotelSnapshot.RoomView room : snapshot.getRooms()) {
+                    room.forEachStay(stay -> {
+                        try {
+                            beginRecord();
+                            textField("hotel", hotelName);
+                            numberField("id", stay.getId());
+                            numberField("room", stay.getRoomNumber());
+                            textField("guest", stay.getGuestName());
+                            dateField("check_in", stay.getCheckInDate());
+                            dateField("check_out", stay.getCheckOutDate());
+                            numberField("nights", stay.getCheckOutDate() - stay.getCheckInDate());
+                            textField("discount_code", stay.getDiscountCode());
+                            priceField("total_price", stay.getTotalPrice());
+                            endRecord();
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e); // Rethrown as it was below
+                        }
+                    });
+                }
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        endDocument();
+    }
+
+    /**
+     * Writes one row per hotel with its rooms, reservations and earnings
+     *
+     * @param hotels hotels to report on
+     * @throws IOException if the channel cannot be written
+     */
+    public void exportEarnings(Iterable<HotelModel> hotels) throws IOException {
+        beginDocument();
+        header("hotel,rooms,reservations,earnings\n");
+        for (HotelModel hotel : hotels) {
+            HotelSnapshot snapshot = hotel.getSnapshot();
+            beginRecord();
+            textField("hotel", snapshot.getHotelName());
+            numberField("rooms", snapshot.getRoomCount());
+            numberField("reservations", snapshot.getReservationCount());
+            priceField("earnings", snapshot.getEarnings());
+            endRecord();
+        }
+        endDocument();
+    }
+
+    private void beginDocument() throws IOException {
+        firstRecord = true;
+        if (format == Format.JSON) {
+            ascii("[");
+        }
+    }
+
+    private void header(String columns) throws IOException {
+        if (format == Format.CSV) {
+            ascii(columns);
+        }
+    }
+
+    private void endDocument() throws IOException {
+        if (format == Format.JSON) {
+            ascii(firstRecord ? "]\n" : "\n]\n");
+        }
+        flush();
+    }
+
+    private void beginRecord() throws IOException {
+        if (format == Format.JSON) {
+            ascii(firstRecord ? "\n{" : ",\n{");
+        }
+        firstRecord = false;
+        firstField = true;
+    }
+
+    private void endRecord() throws IOException {
+        ascii(format == Format.JSON ? "}" : "\n");
+    }
+
+    /**
+     * Starts a field: the comma before it and, in JSON, its name
+     */
+    private void name(String name) throws IOException {
+        if (!firstField) {
+            ascii(",");
+        }
+        firstField = false;
+        if (format == Format.JSON) {
+            ascii("\"");
+            ascii(name);
+            ascii("\":");
+        }
+    }
+
+    /**
+     * Writes a text field, quoted when needed in CSV and always in JSON; null is left empty, or null in JSON
+     */
+    private void textField(String name, String value) throws IOException {
+        name(name);
+        if (value == null) {
+            if (format == Format.JSON) {
+                ascii("null");
+            }
+            return;
+        }
+        boolean quoted = format == Format.JSON || needsQuotes(value);
+        if (quoted) {
+            ascii("\"");
+        }
+        for (int i = 0; i < value.length(); i++) {
+            ensure(MAX_CHAR_BYTES);
+            char c = value.charAt(i);
+            if (c == '"') {
+                buffer.put(format == Format.JSON ? (byte) '\\' : (byte) '"').put((byte) '"');
+            } else if (format == Format.JSON && (c == '\\' || c < 0x20)) {
+                escape(c);
+            } else if (c < 0x80) {
+                buffer.put((byte) c);
+            } else if (c < 0x800) {
+                buffer.put((byte) (0xC0 | c >> 6)).put((byte) (0x80 | c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int code = Character.toCodePoint(c, value.charAt(++i));
+                buffer.put((byte) (0xF0 | code >> 18)).put((byte) (0x80 | code >> 12 & 0x3F))
+                      .put((byte) (0x80 | code >> 6 & 0x3F)).put((byte) (0x80 | code & 0x3F));
+            } else {
+                buffer.put((byte) (0xE0 | c >> 12)).put((byte) (0x80 | c >> 6 & 0x3F)).put((byte) (0x80 | c & 0x3F));
+            }
+        }
+        if (quoted) {
+            ascii("\"");
+        }
+    }
+
+    private static boolean needsQuotes(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void escape(char c) {
+        buffer.put((byte) '\\');
+        switch (c) {
+            case '\\':
+                buffer.put((byte) '\\');
+                break;
+            case '\n':
+                buffer.put((byte) 'n');
+                break;
+            case '\r':
+                buffer.put((byte) 'r');
+                break;
+            case '\t':
+                buffer.put((byte) 't');
+                break;
+            default:
+                buffer.put((byte) 'u').put((byte) '0').put((byte) '0')
+                      .put((byte) Character.forDigit(c >> 4, 16)).put((byte) Character.forDigit(c & 0xF, 16));
+        }
+    }
+
+    private void numberField(String name, long value) throws IOException {
+        name(name);
+        number(value);
+    }
+
+    /**
+     * Writes a price with two decimals, from its whole number of cents
+     */
+    private void priceField(String name, double price) throws IOException {
+        name(name);
+        long cents = Math.round(price * 100);
+        if (cents < 0) {
+            ascii("-");
+            cents = -cents;
+        }
+        number(cents / 100);
+        ensure(3);
+        buffer.put((byte) '.').put((byte) ('0' + cents % 100 / 10)).put((byte) ('0' + cents % 10));
+    }
+
+    /**
+     * Writes a date as yyyy-mm-dd, quoted in JSON
+     */
+    private void dateField(String name, int day) throws IOException {
+        name(name);
+        if (format == Format.JSON) {
+            ascii("\"");
+            date(day);
+            ascii("\"");
+        } else {
+            date(day);
+        }
+    }
+
+    private void date(int day) throws IOException {
+        LocalDate date = CalendarDays.toDate(day);
+        ensure(10);
+        int year = date.getYear();
+        buffer.put((byte) ('0' + year / 1000 % 10)).put((byte) ('0' + year / 100 % 10))
+              .put((byte) ('0' + year / 10 % 10)).put((byte) ('0' + year % 10)).put((byte) '-')
+              .put((byte) ('0' + date.getMonthValue() / 10)).put((byte) ('0' + date.getMonthValue() % 10)).put((byte) '-')
+              .put((byte) ('0' + date.getDayOfMonth() / 10)).put((byte) ('0' + date.getDayOfMonth() % 10));
+    }
+
+    /**
+     * Writes a whole number without making a string of it
+     */
+    private void number(long value) throws IOException {
+        ensure(20);
+        if (value < 0) {
+            buffer.put((byte) '-');
+            value = -value;
+        }
+        int start = buffer.position();
+        do {
+            buffer.put((byte) ('0' + value % 10));
+            value /= 10;
+        } while (value > 0);
+        for (int low = start, high = buffer.position() - 1; low < high; low++, high--) { // Digits were written backwards
+            byte digit = buffer.get(low);
+            buffer.put(low, buffer.get(high));
+            buffer.put(high, digit);
+        }
+    }
+
+    /**
+     * Writes text that is known to be ASCII, such as names and punctuation
+     */
+    private void ascii(String text) throws IOException {
+        for (int i = 0; i < text.length(); i++) {
+            ensure(1);
+            buffer.put((byte) text.charAt(i));
+        }
+    }
+
+    /**
+     * Makes room for some bytes in the buffer, writing it out if it is too full
+     */
+    private void ensure(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush();
+        }
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            bytesWritten += channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
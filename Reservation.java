@@ -1,183 +1,282 @@
-/**
- * Represents a reservation made at the hotel
- */
-public class Reservation {
-    private String guestName;
-    private int roomNumber;
-    private Room room;
-    private int checkInDate;
-    private int checkOutDate;
-    private double totalPrice;
-    private String discountCode;
-    
-
-    /** 
-     * Constructs a reservation with a room, guest name, room number, check in date and check out date
-     * 
-     * @param room the room assigned for the reservation
-     * @param guestName the name of the guest who booked the reservation
-     * @param roomNumber the number of the room that was booked
-     * @param checkInDate the date to the check in
-     * @param checkOutDate the date to check out
-     */ 
-    public Reservation(Room room, String guestName, int roomNumber, int checkInDate, int checkOutDate) {
-        this.room = room;
-        this.guestName = guestName;
-        this.roomNumber = roomNumber;
-        this.checkInDate = checkInDate;
-        this.checkOutDate = checkOutDate;
-    }
-
-    /**
-     * @return check in date
-     */
-    public int getCheckInDate() {
-        return checkInDate;
-    }
-
-    /**
-     * @param checkInDate the date to check in
-     */
-    public void setCheckInDate(int checkInDate) {
-        this.checkInDate = checkInDate;
-    }
-
-    /**
-     * @return check out date
-     */
-    public int getCheckOutDate() {
-        return checkOutDate;
-    }
-
-    /**
-     * @param checkOutDate date to check out
-     */
-    public void setCheckOutDate(int checkOutDate) {
-        this.checkOutDate = checkOutDate;
-    }
-
-    /**
-     * @return guest's name
-     */
-    public String getGuestName() {
-        return guestName;
-    }
-
-    /**
-     * @return room number
-     */
-    public int getRoomNumber() {
-        return roomNumber;
-    }
-
-    /**
-     * @return room booked for reservation
-     */
-    public Room getRoom() {
-        return room;
-    }
-
-    /**
-     *  overrides the toString method by returning reservation details
-     */
-    @Override
-    public String toString() {
-        return "Reservation [guestName=" + guestName + ", roomNumber=" + roomNumber +
-                ", checkInDate=" + checkInDate + ", checkOutDate=" + checkOutDate + ", totalPrice=" + totalPrice +
-                ", discountCode=" + discountCode + "]";
-    }
-
-    /**
-     * @return total price of the reservation
-     */
-    public double getTotalPrice() {
-        return totalPrice;
-    }
-
-    /**
-     * @param totalPrice the total price of the reservation
-     */
-    public void setTotalPrice(double totalPrice) {
-        this.totalPrice = totalPrice;
-    }
-
-    /**
-     * Method to calculate total price based on room price and duration 
-    */ 
-    public void calculateTotalPrice(HotelModel hotel) {
-        double price=0;
-
-        for(int i=this.checkInDate; i<checkOutDate; i++){
-            int[] dates = hotel.getDayModifier();
-            price += room.getPrice() * ((double)(dates[i-1]/100.0));
-        }
-
-        setTotalPrice(price);
-    }
-
-    /**
-     * Method to calculate the number of nights between check-in and check-out dates
-     * @return total number of nights
-     */
-    private int calculateNumberOfNights() {
-        return checkOutDate - checkInDate + 1;
-    }
-
-    /**
-     * Method to calculate price per night
-     * @return price of each night
-     */
-    public double getPricePerNight() {
-        int numberOfNights = calculateNumberOfNights();
-        if (numberOfNights > 0) {
-            return totalPrice / numberOfNights;
-        } else {
-            return 0.0; // Handle division by zero gracefully, if needed
-        }
-    }
-
-    /**
-     * Method to apply a discount based on the provided discount code
-     * @param discountCode the discount code to apply
-     */
-    public void applyDiscount(String discountCode) {
-        this.discountCode = discountCode; // Convert to uppercase for case-sensitive matching
-    
-        switch (this.discountCode) {
-            case "I_WORK_HERE":
-                totalPrice *= 0.90; // Apply a 10% discount
-                break;
-            case "STAY4_GET1":
-                if (calculateNumberOfNights() >= 5) {
-                    double pricePerNight = room.getPrice(); // Assuming the price per night is fixed
-                    totalPrice -= pricePerNight; // Subtract the price of the first night
-                } else {
-                    // Display a message dialog indicating the discount is not applicable
-                    javax.swing.JOptionPane.showMessageDialog(null, 
-                        "The STAY4_GET1 discount is not applicable for stays less than 5 nights.", 
-                        "Discount Not Applicable", 
-                        javax.swing.JOptionPane.INFORMATION_MESSAGE);
-                }
-                break;
-            case "PAYDAY":
-                if ((checkInDate <= 15 && checkOutDate > 15) || (checkInDate <= 30 && checkOutDate > 30)) {
-                    totalPrice *= 0.93; // Apply a 7% discount
-                } else {
-                    // Display a message dialog indicating the discount is not applicable
-                    javax.swing.JOptionPane.showMessageDialog(null, 
-                        "The PAYDAY discount is only applicable for stays that include the 15th or the end of the month.", 
-                        "Discount Not Applicable", 
-                        javax.swing.JOptionPane.INFORMATION_MESSAGE);
-                }
-                break;
-            default:
-                // Invalid or unsupported discount code
-                javax.swing.JOptionPane.showMessageDialog(null, 
-                    "Invalid or unsupported discount code.", 
-                    "Error", 
-                    javax.swing.JOptionPane.ERROR_MESSAGE);
-                break;
-        }
-    }
-    
-}
+/**
+ * Represents a reservation made at the hotel
+ */
+public class Reservation {
+    private int id; // assigned by the hotel when the reservation is added, 0 until then
+    private String guestName;
+    private int roomNumber;
+    private Room room;
+    private int checkInDate;
+    private int checkOutDate;
+    private double totalPrice;
+    private String discountCode;
+    
+
+    /** 
+     * Constructs a reservation with a room, guest name, room number, check in date and check out date
+     * 
+     * @param room the room assigned for the reservation
+     * @param guestName the name of the guest who booked the reservation
+     * @param roomNumber the number of the room that was booked
+     * @param checkInDate the date to the check in
+     * @param checkOutDate the date to check out
+     */ 
+    public Reservation(Room room, String guestName, int roomNumber, int checkInDate, int checkOutDate) {
+        this.room = room;
+        this.guestName = guestName;
+        this.roomNumber = roomNumber;
+        this.checkInDate = checkInDate;
+        this.checkOutDate = checkOutDate;
+    }
+
+    /**
+     * @return the reservation's ID within its hotel, or 0 if it has not been added to a hotel
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * @param id the reservation's ID within its hotel
+     */
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    /**
+     * @return check in date
+     */
+    public int getCheckInDate() {
+        return checkInDate;
+    }
+
+    /**
+     * Rooms index reservations by date, so once the reservation is in a
+     * room, change its dates through HotelModel.modifyReservation instead.
+     * 
+     * @param checkInDate the date to check in
+     */
+    public void setCheckInDate(int checkInDate) {
+        this.checkInDate = checkInDate;
+    }
+
+    /**
+     * @return check out date
+     */
+    public int getCheckOutDate() {
+        return checkOutDate;
+    }
+
+    /**
+     * Rooms index reservations by date, so once the reservation is in a
+     * room, change its dates through HotelModel.modifyReservation instead.
+     * 
+     * @param checkOutDate date to check out
+     */
+    public void setCheckOutDate(int checkOutDate) {
+        this.checkOutDate = checkOutDate;
+    }
+
+    /**
+     * @return guest's name
+     */
+    public String getGuestName() {
+        return guestName;
+    }
+
+    /**
+     * @param guestName the name of the guest who booked the reservation
+     */
+    public void setGuestName(String guestName) {
+        this.guestName = guestName;
+    }
+
+    /**
+     * @return room number
+     */
+    public int getRoomNumber() {
+        return roomNumber;
+    }
+
+    /**
+     * @return room booked for reservation
+     */
+    public Room getRoom() {
+        return room;
+    }
+
+    /**
+     *  overrides the toString method by returning reservation details
+     */
+    @Override
+    public String toString() {
+        return "Reservation [id=" + id + ", guestName=" + guestName + ", roomNumber=" + roomNumber +
+                ", checkInDate=" + CalendarDays.format(checkInDate) + ", checkOutDate=" + CalendarDays.format(checkOutDate) + ", totalPrice=" + totalPrice +
+                ", discountCode=" + discountCode + "]";
+    }
+
+    /**
+     * @return total price of the reservation
+     */
+    public double getTotalPrice() {
+        return totalPrice;
+    }
+
+    /**
+     * @param totalPrice the total price of the reservation
+     */
+    public void setTotalPrice(double totalPrice) {
+        this.totalPrice = totalPrice;
+    }
+
+    /**
+     * @return the discount code given for the reservation, or null if none was given
+     */
+    public String getDiscountCode() {
+        return discountCode;
+    }
+
+    /**
+     * Sets the discount code without checking it or changing the price,
+     * as when a reservation is restored with the price it already had
+     * @param discountCode the discount code given for the reservation
+     */
+    public void setDiscountCode(String discountCode) {
+        this.discountCode = discountCode;
+    }
+
+    /**
+     * Method to calculate total price based on room price and duration.
+     * Costs the same for any number of nights, since the hotel keeps running totals of its day modifiers.
+    */ 
+    public void calculateTotalPrice(HotelModel hotel) {
+        setTotalPrice(room.getPrice() * hotel.getStayMultiplier(checkInDate, checkOutDate));
+    }
+
+    /**
+     * Method to recalculate the total price from the hotel's current rates,
+     * keeping the discount that was applied, without prompting the user
+     * @param hotel hotel whose day modifiers price the stay
+     */
+    public void reprice(HotelModel hotel) {
+        calculateTotalPrice(hotel);
+        if (isDiscountApplicable()) {
+            totalPrice = discountedPrice(totalPrice);
+        }
+    }
+
+    /**
+     * Method to calculate the number of nights between check-in and check-out dates
+     * @return total number of nights
+     */
+    private int calculateNumberOfNights() {
+        return checkOutDate - checkInDate + 1;
+    }
+
+    /**
+     * Method to calculate price per night
+     * @return price of each night
+     */
+    public double getPricePerNight() {
+        int numberOfNights = calculateNumberOfNights();
+        if (numberOfNights > 0) {
+            return totalPrice / numberOfNights;
+        } else {
+            return 0.0; // Handle division by zero gracefully, if needed
+        }
+    }
+
+    /**
+     * Method to apply a discount based on the provided discount code.
+     * An empty code means no discount.
+     * @param discountCode the discount code to apply
+     */
+    public void applyDiscount(String discountCode) {
+        if (discountCode == null || discountCode.trim().isEmpty()) {
+            return; // No discount code given
+        }
+        this.discountCode = discountCode;
+
+        if (isDiscountApplicable()) {
+            totalPrice = discountedPrice(totalPrice);
+            return;
+        }
+    
+        switch (this.discountCode) {
+            case "STAY4_GET1":
+                // Display a message dialog indicating the discount is not applicable
+                javax.swing.JOptionPane.showMessageDialog(null, 
+                    "The STAY4_GET1 discount is not applicable for stays less than 5 nights.", 
+                    "Discount Not Applicable", 
+                    javax.swing.JOptionPane.INFORMATION_MESSAGE);
+                break;
+            case "PAYDAY":
+                // Display a message dialog indicating the discount is not applicable
+                javax.swing.JOptionPane.showMessageDialog(null, 
+                    "The PAYDAY discount is only applicable for stays that include the 15th or the end of the month.", 
+                    "Discount Not Applicable", 
+                    javax.swing.JOptionPane.INFORMATION_MESSAGE);
+                break;
+            default:
+                // Invalid or unsupported discount code
+                javax.swing.JOptionPane.showMessageDialog(null, 
+                    "Invalid or unsupported discount code.", 
+                    "Error", 
+                    javax.swing.JOptionPane.ERROR_MESSAGE);
+                break;
+        }
+    }
+
+    /**
+     * Method to check whether the stored discount code applies to this stay
+     * @return true if the discount code is valid for this stay, false otherwise
+     */
+    public boolean isDiscountApplicable() {
+        if (discountCode == null) {
+            return false;
+        }
+        switch (discountCode) {
+            case "I_WORK_HERE":
+                return true;
+            case "STAY4_GET1":
+                return calculateNumberOfNights() >= 5;
+            case "PAYDAY":
+                return includesPayday();
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Method to check whether the stay includes a night on the 15th or the 30th of a month
+     * @return true if one of the nights is a payday, false otherwise
+     */
+    private boolean includesPayday() {
+        for (int day = checkInDate; day < checkOutDate; day++) {
+            int dayOfMonth = CalendarDays.toDate(day).getDayOfMonth();
+            if (dayOfMonth == 15 || dayOfMonth == 30) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Method to apply the stored discount code to a price
+     * @param price price before the discount
+     * @return price after the discount
+     */
+    private double discountedPrice(double price) {
+        switch (discountCode) {
+            case "I_WORK_HERE":
+                return price * 0.90; // Apply a 10% discount
+            case "STAY4_GET1":
+                return price - room.getPrice(); // Subtract the price of the first night
+            case "PAYDAY":
+                return price * 0.93; // Apply a 7% discount
+            default:
+                return price;
+        }
+    }
+    
+}
@@ -0,0 +1,74 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A JDK Flight Recorder event for one phase of a booking operation, such as
+ * finding the hotel, checking for overlapping stays, pricing or booking. A
+ * recording started with -XX:StartFlightRecording shows how long each phase took,
+ * for which hotel, room and stay, and how it ended. While no recording asks for
+ * these events, beginning and ending one does nothing, and the JIT removes the
+ * event object altogether.
+ */
+@Name("HotelReservation.Phase")
+@Label("Reservation Phase")
+@Category("Hotel Reservation")
+@Description("One phase of making or cancelling a reservation or estimating earnings")
+@StackTrace(false)
+public class ReservationEvent extends Event {
+    @Label("Operation")
+    @Description("Controller operation the phase belongs to")
+    String operation;
+
+    @Label("Phase")
+    String phase;
+
+    @Label("Hotel")
+    String hotel;
+
+    @Label("Room")
+    int room;
+
+    @Label("Nights")
+    int nights;
+
+    @Label("Outcome")
+    String outcome;
+
+    /**
+     * Starts timing a phase
+     *
+     * @param operation controller operation the phase belongs to
+     * @param phase     name of the phase
+     * @return the event, to be ended when the phase is over
+     */
+    public static ReservationEvent begin(String operation, String phase) {
+        ReservationEvent event = new ReservationEvent();
+        event.operation = operation;
+        event.phase = phase;
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Stops timing the phase and records it, if a recording wants it
+     *
+     * @param hotel   name of the hotel
+     * @param room    room number, or 0 if there is none
+     * @param nights  nights of the stay, or 0 if there is none
+     * @param outcome how the phase ended
+     */
+    public void end(String hotel, int room, int nights, String outcome) {
+        end();
+        if (shouldCommit()) {
+            this.hotel = hotel;
+            this.room = room;
+            this.nights = nights;
+            this.outcome = outcome;
+            commit();
+        }
+    }
+}
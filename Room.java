@@ -1,198 +1,351 @@
-import java.util.ArrayList;
-import java.util.List;
-
-/**
- * Represents a room at the hotel
- */
-public class Room {
-    protected int roomNumber;
-    protected double price;
-    protected boolean isBooked;
-    protected List<Reservation> reservations;
-
-    /**
-     * Constructs a room with a room number and a price
-     * 
-     * @param roomNumber a unique room number
-     * @param price the price of each room
-     */
-    public Room(int roomNumber, double price) {
-        this.roomNumber = roomNumber;
-        this.price = price;
-        this.isBooked = false;
-        this.reservations = new ArrayList<>();
-    }
-
-    // Getter and Setter methods for roomNumber, price, and isBooked
-
-    /**
-     * @return room number
-     */
-    public int getRoomNumber() {
-        return roomNumber;
-    }
-
-    /**
-     * @param roomNumber number assigned for the room
-     */
-    public void setRoomNumber(int roomNumber) {
-        this.roomNumber = roomNumber;
-    }
-
-    /**
-     * @return the price of the room
-     */
-    public double getPrice() {
-        return price;
-    }
-
-    /**
-     * @param price price of the room
-     */
-    public void setPrice(double price) {
-        this.price = price;
-    }
-
-    /**
-     * @return the availability of the room
-     */
-    public boolean isBooked() {
-        return isBooked;
-    }
-
-    /**
-     * @param isBooked the availability of the room
-     */
-    public void setBooked(boolean isBooked) {
-        this.isBooked = isBooked;
-    }
-
-    /**
-     * @return list of reservations for this rooom
-     */
-    public List<Reservation> getReservations() {
-        return reservations;
-    }
-
-    /**
-     * @param reservation reservation to be added
-     */
-    public void addReservation(Reservation reservation) {
-        this.reservations.add(reservation);
-        this.isBooked = true;
-    }
-
-    /**
-     * @param reservation reservation to be removed
-     */
-    public void removeReservation(Reservation reservation) {
-        this.reservations.remove(reservation);
-        this.isBooked = !this.reservations.isEmpty(); // Update isBooked status
-    }
-
-    /**
-     * Method to check if room is booked on a given date
-     * 
-     * @param date date that is being checked for availability
-     * @return availability of room, true of booked, false if not
-     */
-    public boolean isBookedOnDate(int date) {
-        for (Reservation reservation : reservations) {
-            if (reservation.getCheckInDate() <= date && reservation.getCheckOutDate() > date) {
-                return true;
-            }
-        }
-        return false;
-    }
-
-    /**
-     * Method to check if the room is booked in a given date range
-     * 
-     * @param checkInDate date to check into room
-     * @param checkOutDate date to check out of room
-     * @return availability of room, true of booked, false if not
-     */
-    public boolean isBooked(int checkInDate, int checkOutDate) {
-        for (Reservation reservation : reservations) {
-            if (checkInDate>=reservation.getCheckInDate() || checkInDate<reservation.getCheckOutDate())
-                return true;
-        }
-        return false;
-    }
-
-    /**
-     * Method to remove reservation by matching check-in and check-out dates
-     * 
-     * @param checkInDate date to check into room
-     * @param checkOutDate date to check out of room
-     */
-    public void removeReservation(int checkInDate, int checkOutDate) {
-        reservations.removeIf(reservation -> reservation.getCheckInDate()==checkInDate && reservation.getCheckOutDate()==checkOutDate);
-        this.isBooked = !this.reservations.isEmpty(); // Update isBooked status
-    }
-
-    /**
-     * Method to unbook the room
-     */
-    public void unbook() {
-        this.reservations.clear();
-        this.isBooked = false;
-    }
-
-    /**
-     * Method to check if the room is available for the given date range
-     * 
-     * @param checkInDate date to check into room
-     * @param checkOutDate date to check out of room
-     * @return availability of room, true of booked, false if not
-     */
-     public boolean isAvailable(int checkInDate, int checkOutDate) {
-        for (Reservation reservation : reservations) {
-            if ((checkInDate >= reservation.getCheckInDate() && checkInDate <= reservation.getCheckOutDate()) || 
-                (checkOutDate >= reservation.getCheckInDate() && checkOutDate <= reservation.getCheckOutDate()) ||
-                (checkInDate < reservation.getCheckInDate() && checkOutDate > reservation.getCheckOutDate())) {
-                return false;
-            }
-        }
-        return true;
-    }
-
-    /**
-     * Method to get availability across the specified month
-     * 
-     * @return availability of room, true of booked, false if not
-     */
-    public List<Room> getAvailabilityAcrossMonth() {
-        List<Room> availableRooms = new ArrayList<>();
-    
-        // Assume you have a way to fetch or mark rooms by day
-        for (int day = 1; day <= 31; day++) {
-            if (isAvailable(day, day)) {
-                availableRooms.add(this); // Assuming 'this' room is available, add it
-            }
-        }
-    
-        return availableRooms;
-    }
-    
-    /**
-     * Optionally, you can add a method to get room name if applicable.
-     * @return Room number as a string
-     */
-    public String getRoomName() {
-        return "Room " + roomNumber;
-    }
-
-    /**
-     * Getter method for room type
-     * @return the type of room as a string
-     */
-    public String getRoomType() {
-        if (this instanceof Deluxe)
-            return "Deluxe";
-        else if (this instanceof Executive)
-            return "Executive";
-        else
-            return "Standard";
-    }
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Represents a room at the hotel
+ */
+public class Room {
+    protected int roomNumber;
+    protected double price;
+    // Reservations keyed by check-in date. Stays never overlap, so this is a
+    // sorted set of disjoint half-open intervals [checkIn, checkOut).
+    // A reservation is only put here after its nights were claimed in bookedNights.
+    protected ConcurrentSkipListMap<Integer, Reservation> reservations;
+    protected NightBitmap bookedNights; // One bit per booked night, claimed with compare-and-set
+    protected int slot; // Position of the room in its hotel's occupancy calendar
+
+    /**
+     * Constructs a room with a room number and a price
+     * 
+     * @param roomNumber a unique room number
+     * @param price the price of each room
+     */
+    public Room(int roomNumber, double price) {
+        this.roomNumber = roomNumber;
+        this.price = price;
+        this.reservations = new ConcurrentSkipListMap<>();
+        this.bookedNights = new NightBitmap();
+        this.slot = -1;
+    }
+
+    // Getter and Setter methods for roomNumber and price
+
+    /**
+     * @return room number
+     */
+    public int getRoomNumber() {
+        return roomNumber;
+    }
+
+    /**
+     * Rooms already added to a hotel are indexed by number, so renumber
+     * a room only before adding it.
+     * 
+     * @param roomNumber number assigned for the room
+     */
+    public void setRoomNumber(int roomNumber) {
+        this.roomNumber = roomNumber;
+    }
+
+    /**
+     * @return the price of the room
+     */
+    public double getPrice() {
+        return price;
+    }
+
+    /**
+     * @return the price the room was given, before any markup of its type
+     */
+    public double getBasePrice() {
+        return price;
+    }
+
+    /**
+     * @param price price of the room
+     */
+    public void setPrice(double price) {
+        this.price = price;
+    }
+
+    /**
+     * @return true if the room has any reservation
+     */
+    public boolean isBooked() {
+        return !reservations.isEmpty();
+    }
+
+    /**
+     * @return slot of the room in its hotel's occupancy calendar, or -1 if not in a hotel
+     */
+    public int getSlot() {
+        return slot;
+    }
+
+    /**
+     * @param slot slot of the room in its hotel's occupancy calendar
+     */
+    public void setSlot(int slot) {
+        this.slot = slot;
+    }
+
+    /**
+     * @return list of reservations for this room, ordered by check-in date
+     */
+    public List<Reservation> getReservations() {
+        return Collections.unmodifiableList(new ArrayList<>(reservations.values()));
+    }
+
+    /**
+     * Adds a reservation unless it is empty, too long, on retired days or overlaps an existing stay.
+     * The nights are claimed without locking, and the reservation is only published to the room
+     * once the claim succeeds, so concurrent bookings of the same nights cannot both win.
+     * 
+     * @param reservation reservation to be added
+     * @return true if the reservation was added, false otherwise
+     */
+    public boolean addReservation(Reservation reservation) {
+        if (!claimNights(reservation.getCheckInDate(), reservation.getCheckOutDate())) {
+            return false;
+        }
+        addClaimedReservation(reservation);
+        return true;
+    }
+
+    /**
+     * Claims the nights of a stay without adding a reservation yet, so several
+     * rooms can be claimed first and their reservations published together.
+     * 
+     * @param checkInDate date to check into room
+     * @param checkOutDate date to check out of room
+     * @return true if the nights were claimed, false if the stay is invalid, on retired days or taken
+     */
+    public boolean claimNights(int checkInDate, int checkOutDate) {
+        return CalendarDays.isValidStay(checkInDate, checkOutDate) && bookedNights.covers(checkInDate)
+                && bookedNights.claim(checkInDate, checkOutDate);
+    }
+
+    /**
+     * Gives back nights claimed by claimNights that will not be booked after all
+     * 
+     * @param checkInDate date to check into room
+     * @param checkOutDate date to check out of room
+     */
+    public void releaseNights(int checkInDate, int checkOutDate) {
+        bookedNights.release(checkInDate, checkOutDate);
+    }
+
+    /**
+     * Publishes a reservation whose nights were already claimed by claimNights
+     * 
+     * @param reservation reservation to be added
+     */
+    public void addClaimedReservation(Reservation reservation) {
+        this.reservations.put(reservation.getCheckInDate(), reservation);
+    }
+
+    /**
+     * Moves a reservation of this room to new dates. Only the nights it does not already
+     * hold are claimed, and the nights it gives up are released once the move is done,
+     * so the room never looks free in between.
+     * 
+     * @param reservation reservation to be moved
+     * @param checkInDate new date to check into room
+     * @param checkOutDate new date to check out of room
+     * @return true if the reservation was moved, false if it is not in this room or the new nights are taken
+     */
+    public boolean moveReservation(Reservation reservation, int checkInDate, int checkOutDate) {
+        int oldCheckIn = reservation.getCheckInDate();
+        int oldCheckOut = reservation.getCheckOutDate();
+        if (!CalendarDays.isValidStay(checkInDate, checkOutDate) || !bookedNights.covers(checkInDate)
+                || reservations.get(oldCheckIn) != reservation
+                || !bookedNights.claim(checkInDate, checkOutDate, oldCheckIn, oldCheckOut)) {
+            return false;
+        }
+        reservations.remove(oldCheckIn, reservation);
+        reservation.setCheckInDate(checkInDate);
+        reservation.setCheckOutDate(checkOutDate);
+        reservations.put(checkInDate, reservation);
+        bookedNights.release(oldCheckIn, oldCheckOut, checkInDate, checkOutDate);
+        return true;
+    }
+
+    /**
+     * @param reservation reservation to be removed
+     */
+    public void removeReservation(Reservation reservation) {
+        if (this.reservations.remove(reservation.getCheckInDate(), reservation)) {
+            this.bookedNights.release(reservation.getCheckInDate(), reservation.getCheckOutDate());
+        }
+    }
+
+    /**
+     * Finds the reservation that overlaps the half-open range [checkInDate, checkOutDate).
+     * Since stays are disjoint, only the latest stay starting before checkOutDate
+     * can overlap, so this takes O(log k) for k reservations.
+     * 
+     * @param checkInDate first night of the range
+     * @param checkOutDate day after the last night of the range
+     * @return the overlapping reservation, or null if the range is free or empty
+     */
+    public Reservation findOverlapping(int checkInDate, int checkOutDate) {
+        if (checkOutDate <= checkInDate) {
+            return null;
+        }
+        Map.Entry<Integer, Reservation> latest = reservations.lowerEntry(checkOutDate);
+        if (latest != null && latest.getValue().getCheckOutDate() > checkInDate) {
+            return latest.getValue();
+        }
+        return null;
+    }
+
+    /**
+     * Finds every reservation with at least one night in [checkInDate, checkOutDate)
+     * 
+     * @param checkInDate first night of the range
+     * @param checkOutDate day after the last night of the range
+     * @return the overlapping reservations, ordered by check-in date
+     */
+    public List<Reservation> getReservationsBetween(int checkInDate, int checkOutDate) {
+        if (checkOutDate <= checkInDate) {
+            return Collections.emptyList();
+        }
+        Reservation first = findOverlapping(checkInDate, checkInDate + 1);
+        int from = first != null ? first.getCheckInDate() : checkInDate;
+        return new ArrayList<>(reservations.subMap(from, true, checkOutDate, false).values());
+    }
+
+    /**
+     * Finds the reservation with exactly the given check-in and check-out dates
+     * 
+     * @param checkInDate date to check into room
+     * @param checkOutDate date to check out of room
+     * @return the matching reservation, or null if there is none
+     */
+    public Reservation getReservation(int checkInDate, int checkOutDate) {
+        Reservation reservation = reservations.get(checkInDate);
+        if (reservation != null && reservation.getCheckOutDate() == checkOutDate) {
+            return reservation;
+        }
+        return null;
+    }
+
+    /**
+     * Method to check if room is booked on a given date
+     * 
+     * @param date date that is being checked for availability
+     * @return availability of room, true of booked, false if not
+     */
+    public boolean isBookedOnDate(int date) {
+        return !isAvailable(date, date + 1);
+    }
+
+    /**
+     * Method to check if the room is booked in a given date range
+     * 
+     * @param checkInDate date to check into room
+     * @param checkOutDate date to check out of room
+     * @return availability of room, true of booked, false if not
+     */
+    public boolean isBooked(int checkInDate, int checkOutDate) {
+        return !isAvailable(checkInDate, checkOutDate);
+    }
+
+    /**
+     * Method to remove reservation by matching check-in and check-out dates
+     * 
+     * @param checkInDate date to check into room
+     * @param checkOutDate date to check out of room
+     */
+    public void removeReservation(int checkInDate, int checkOutDate) {
+        Reservation reservation = getReservation(checkInDate, checkOutDate);
+        if (reservation != null) {
+            removeReservation(reservation);
+        }
+    }
+
+    /**
+     * Method to unbook the room
+     */
+    public void unbook() {
+        this.reservations.clear();
+        this.bookedNights.clearAll();
+    }
+
+    /**
+     * Method to check if the room is available for the given date range.
+     * Nights that were retired from the bitmap are checked against the reservations instead.
+     * 
+     * @param checkInDate date to check into room
+     * @param checkOutDate date to check out of room
+     * @return availability of room, true of booked, false if not
+     */
+     public boolean isAvailable(int checkInDate, int checkOutDate) {
+        if (!bookedNights.covers(checkInDate)) {
+            return findOverlapping(checkInDate, checkOutDate) == null;
+        }
+        return bookedNights.isClear(checkInDate, checkOutDate);
+    }
+
+    /**
+     * Method to stop tracking nights before a day in the room's bitmap
+     * 
+     * @param day first epoch day to keep tracking
+     */
+    public void retireDaysBefore(int day) {
+        bookedNights.retireBefore(day);
+    }
+
+    /**
+     * Method to get availability across the current month
+     * 
+     * @return availability of room, true of booked, false if not
+     */
+    public List<Room> getAvailabilityAcrossMonth() {
+        return getAvailabilityAcrossMonth(YearMonth.now());
+    }
+
+    /**
+     * Method to get availability across the specified month
+     * 
+     * @param month month to check
+     * @return availability of room, true of booked, false if not
+     */
+    public List<Room> getAvailabilityAcrossMonth(YearMonth month) {
+        List<Room> availableRooms = new ArrayList<>();
+    
+        int firstDay = CalendarDays.firstDayOf(month);
+        for (int day = firstDay; day < firstDay + month.lengthOfMonth(); day++) {
+            if (isAvailable(day, day + 1)) {
+                availableRooms.add(this); // Assuming 'this' room is available, add it
+            }
+        }
+    
+        return availableRooms;
+    }
+    
+    /**
+     * Optionally, you can add a method to get room name if applicable.
+     * @return Room number as a string
+     */
+    public String getRoomName() {
+        return "Room " + roomNumber;
+    }
+
+    /**
+     * Getter method for room type
+     * @return the type of room as a string
+     */
+    public String getRoomType() {
+        if (this instanceof Deluxe)
+            return "Deluxe";
+        else if (this instanceof Executive)
+            return "Executive";
+        else
+            return "Standard";
+    }
 }
\ No newline at end of file
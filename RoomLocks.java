@@ -0,0 +1,64 @@
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A fixed set of locks shared by the rooms of every hotel. Each (hotel, room number)
+ * pair maps to one stripe, so bookings on the same room always serialize while
+ * bookings on different rooms almost always take different locks. The number of
+ * locks stays the same however many rooms there are.
+ */
+public class RoomLocks {
+    private final ReentrantLock[] stripes;
+    private final int mask;
+
+    /**
+     * Constructs the locks
+     *
+     * @param stripeCount number of locks, rounded up to a power of two
+     */
+    public RoomLocks(int stripeCount) {
+        int count = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+        this.stripes = new ReentrantLock[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.mask = count - 1;
+    }
+
+    /**
+     * @return number of locks
+     */
+    public int getStripeCount() {
+        return stripes.length;
+    }
+
+    /**
+     * Finds the stripe guarding a room. Locks taken together should be taken
+     * in increasing stripe order so two callers can never wait on each other.
+     *
+     * @param hotel      hotel the room belongs to
+     * @param roomNumber number of the room
+     * @return index of the room's lock
+     */
+    public int stripeOf(HotelModel hotel, int roomNumber) {
+        int h = System.identityHashCode(hotel) * 31 + roomNumber;
+        h *= 0x9E3779B9; // Spread consecutive room numbers across the stripes
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    /**
+     * @param stripe index of the lock
+     * @return the lock at that index
+     */
+    public ReentrantLock lockAt(int stripe) {
+        return stripes[stripe];
+    }
+
+    /**
+     * @param hotel      hotel the room belongs to
+     * @param roomNumber number of the room
+     * @return the lock guarding the room
+     */
+    public ReentrantLock lockFor(HotelModel hotel, int roomNumber) {
+        return stripes[stripeOf(hotel, roomNumber)];
+    }
+}
@@ -0,0 +1,486 @@
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * A copy of every hotel at one moment, written to a binary file so the program can
+ * start from it instead of replaying the whole journal. Rooms, day modifier runs and
+ * reservations are stored as fixed-size records of plain numbers, with names and
+ * discount codes kept once each in a string table at the end of the hotel's section.
+ * Reading maps each hotel's section into memory and rebuilds the hotels in parallel,
+ * so millions of reservations load in well under a second.
+ *
+ * For each hotel the file keeps the length of the journal when the hotel was copied.
+ * Opening the journal with the snapshot replays only the records written after that,
+ * and the journal must be on disk up to there before the snapshot is, which write
+ * makes sure of. The file is written under a temporary name and then renamed, so a
+ * crash never leaves a snapshot half written.
+ *
+ * Layout, little-endian:
+ * <pre>
+ * header     magic "HSNP", version, journal length (long), next hotel ID, hotel count
+ * directory  per hotel: section offset (long), section length (long)
+ * section    journal length (long), journal ID, next reservation ID, room count,
+ *            modifier run count, reservation count, string table bytes, name, first open day
+ *            rooms        number, type, base price (double)
+ *            runs         first day, last day, modifier
+ *            stays        ID, room index, check-in day, check-out day, price (double), guest, discount code
+ *            strings      length (unsigned short), UTF-8 bytes
+ * </pre>
+ * Strings are referred to by their offset in the string table, or -1 for none. A hotel
+ * whose days were never retired has Integer.MIN_VALUE as its first open day.
+ */
+public final class SnapshotFile {
+    private static final int MAGIC = 0x504E5348; // "HSNP" in little-endian order
+    private static final int VERSION = 2;
+    private static final int HEADER_BYTES = 24;
+    private static final int DIRECTORY_BYTES = 16; // per hotel
+    private static final int SECTION_BYTES = 40;
+    private static final int ROOM_BYTES = 16;
+    private static final int RUN_BYTES = 12;
+    private static final int STAY_BYTES = 32;
+    private static final int NO_STRING = -1;
+    private static final int BUFFER_BYTES = 256 * 1024;
+
+    // Room types
+    private static final int STANDARD = 0;
+    private static final int DELUXE = 1;
+    private static final int EXECUTIVE = 2;
+
+    private final long journalOffset; // replay the journal from here
+    private final int nextHotelId;
+    private final List<HotelSnapshot> snapshots; // hotels to write, or null once read
+    private final List<HotelModel> hotels; // hotels read back, or null when captured
+    private final int[] journalIds;
+    private final long[] hotelOffsets; // journal length when each hotel was copied
+    private final int[] firstOpenDays; // first day each hotel had not retired, or null once read
+    private final Journal journal; // synced before writing
+    private final long loadNanos;
+
+    private SnapshotFile(long journalOffset, int nextHotelId, List<HotelSnapshot> snapshots, List<HotelModel> hotels,
+                         int[] journalIds, long[] hotelOffsets, int[] firstOpenDays, Journal journal, long loadNanos) {
+        this.journalOffset = journalOffset;
+        this.nextHotelId = nextHotelId;
+        this.snapshots = snapshots;
+        this.hotels = hotels;
+        this.journalIds = journalIds;
+        this.hotelOffsets = hotelOffsets;
+        this.firstOpenDays = firstOpenDays;
+        this.journal = journal;
+        this.loadNanos = loadNanos;
+    }
+
+    /**
+     * Copies the hotels for writing. Each hotel is copied from its published snapshot while
+     * its lock is held, together with the length of the journal, so every change to it
+     * after that is in the journal past that point. The caller keeps hotels from being
+     * added or removed until this returns.
+     *
+     * @param hotels  hotels to copy
+     * @param journal journal the hotels record their changes in, or null if there is none
+     * @return the copy, ready to be written
+     */
+    public static SnapshotFile capture(List<HotelModel> hotels, Journal journal) {
+        long journalOffset = journal == null ? 0 : journal.getEndOffset();
+        List<HotelSnapshot> snapshots = new ArrayList<>(hotels.size());
+        int[] journalIds = new int[hotels.size()];
+        long[] hotelOffsets = new long[hotels.size()];
+        int[] firstOpenDays = new int[hotels.size()];
+        for (int i = 0; i < hotels.size(); i++) {
+            HotelModel hotel = hotels.get(i);
+            synchronized (hotel) {
+                snapshots.add(hotel.getSnapshot());
+                journalIds[i] = hotel.getJournalId();
+                firstOpenDays[i] = hotel.getFirstOpenDay();
+                hotelOffsets[i] = journal == null ? 0 : journal.getEndOffset();
+            }
+        }
+        int nextHotelId = journal == null ? 1 : journal.getNextHotelId();
+        return new SnapshotFile(journalOffset, nextHotelId, snapshots, null, journalIds, hotelOffsets, firstOpenDays,
+                journal, 0);
+    }
+
+    /**
+     * Writes the copied hotels to a file, replacing it whole once written. The journal is
+     * synced first, since the snapshot relies on it for everything after the copy.
+     *
+     * @param file path of the snapshot file
+     * @throws IOException if the file cannot be written
+     */
+    public void write(Path file) throws IOException {
+        if (snapshots == null) {
+            throw new IllegalStateException("Only a captured snapshot can be written");
+        }
+        if (journal != null) {
+            journal.sync();
+        }
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            int count = snapshots.size();
+            ByteBuffer head = ByteBuffer.allocate(HEADER_BYTES + DIRECTORY_BYTES * count).order(ByteOrder.LITTLE_ENDIAN);
+            head.putInt(MAGIC).putInt(VERSION).putLong(journalOffset).putInt(nextHotelId).putInt(count);
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            long position = head.capacity();
+            channel.position(position);
+            for (int i = 0; i < count; i++) {
+                long length = writeSection(channel, buffer, i, position);
+                head.putLong(position).putLong(length);
+                position += length;
+            }
+            head.flip();
+            writeFully(channel, head, 0);
+            channel.force(true);
+        }
+        Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Writes one hotel's section at the channel's position, leaving the position at its end
+     *
+     * @return length of the section
+     */
+    private long writeSection(FileChannel channel, ByteBuffer buffer, int index, long start) throws IOException {
+        HotelSnapshot snapshot = snapshots.get(index);
+        List<HotelSnapshot.RoomView> rooms = snapshot.getRooms();
+        int[] runs = snapshot.getModifierRuns();
+        StringTable strings = new StringTable();
+        int nameRef = strings.add(snapshot.getHotelName());
+
+        channel.position(start + SECTION_BYTES); // The header follows once the counts are known
+        buffer.clear();
+        for (HotelSnapshot.RoomView room : rooms) {
+            buffer = ensure(channel, buffer, ROOM_BYTES);
+            buffer.putInt(room.getRoomNumber()).putInt(typeOf(room.getRoomType())).putDouble(room.getBasePrice());
+        }
+        for (int i = 0; i < runs.length; i += 3) {
+            buffer = ensure(channel, buffer, RUN_BYTES);
+            buffer.putInt(runs[i]).putInt(runs[i + 1]).putInt(runs[i + 2]);
+        }
+        int stayCount = 0;
+        for (int r = 0; r < rooms.size(); r++) {
+            for (HotelSnapshot.Stay stay : rooms.get(r).getStays()) {
+                buffer = ensure(channel, buffer, STAY_BYTES);
+                buffer.putInt(stay.getId()).putInt(r).putInt(stay.getCheckInDate()).putInt(stay.getCheckOutDate())
+                        .putDouble(stay.getTotalPrice()).putInt(strings.add(stay.getGuestName()))
+                        .putInt(strings.add(stay.getDiscountCode()));
+                stayCount++;
+            }
+        }
+        byte[] table = strings.bytes();
+        for (int offset = 0; offset < strings.size(); ) {
+            buffer = ensure(channel, buffer, 1);
+            int chunk = Math.min(buffer.remaining(), strings.size() - offset);
+            buffer.put(table, offset, chunk);
+            offset += chunk;
+        }
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        long end = channel.position();
+
+        ByteBuffer header = ByteBuffer.allocate(SECTION_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        header.putLong(hotelOffsets[index]).putInt(journalIds[index]).putInt(snapshot.getNextReservationId())
+                .putInt(rooms.size()).putInt(runs.length / 3).putInt(stayCount).putInt(strings.size()).putInt(nameRef)
+                .putInt(firstOpenDays[index]);
+        header.clear();
+        writeFully(channel, header, start);
+        return end - start;
+    }
+
+    /**
+     * Writes out the buffer if it has less room than needed
+     *
+     * @return the buffer, cleared if it was written out
+     */
+    private static ByteBuffer ensure(FileChannel channel, ByteBuffer buffer, int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+        return buffer;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer data, long position) throws IOException {
+        while (data.hasRemaining()) {
+            position += channel.write(data, position);
+        }
+    }
+
+    /**
+     * Reads a snapshot file and rebuilds its hotels, one task per hotel
+     *
+     * @param file path of the snapshot file
+     * @return the snapshot, holding the rebuilt hotels
+     * @throws IOException if the file cannot be read or is not a whole snapshot
+     */
+    public static SnapshotFile read(Path file) throws IOException {
+        long start = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES) {
+                throw new IOException(file + " is not a hotel snapshot");
+            }
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            if (header.getInt() != MAGIC) {
+                throw new IOException(file + " is not a hotel snapshot");
+            }
+            int version = header.getInt();
+            if (version != VERSION) {
+                throw new IOException("Snapshot " + file + " has unsupported version " + version);
+            }
+            long journalOffset = header.getLong();
+            int nextHotelId = header.getInt();
+            int count = header.getInt();
+            if (count < 0 || HEADER_BYTES + (long) DIRECTORY_BYTES * count > size) {
+                throw new IOException("Snapshot " + file + " is damaged");
+            }
+            ByteBuffer directory = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES, (long) DIRECTORY_BYTES * count)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            int[] journalIds = new int[count];
+            long[] hotelOffsets = new long[count];
+            List<Callable<HotelModel>> tasks = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                long offset = directory.getLong();
+                long length = directory.getLong();
+                if (offset < 0 || length < SECTION_BYTES || length > Integer.MAX_VALUE || offset + length > size) {
+                    throw new IOException("Snapshot " + file + " is damaged");
+                }
+                MappedByteBuffer section = channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+                int index = i;
+                tasks.add(() -> readSection(section, index, journalIds, hotelOffsets));
+            }
+            List<HotelModel> hotels = new ArrayList<>(count);
+            for (Future<HotelModel> task : ForkJoinPool.commonPool().invokeAll(tasks)) {
+                try {
+                    hotels.add(task.get());
+                } catch (ExecutionException e) {
+                    throw new IOException("Snapshot " + file + " is damaged", e.getCause());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while reading " + file);
+                }
+            }
+            return new SnapshotFile(journalOffset, nextHotelId, null, hotels, journalIds, hotelOffsets, null, null,
+                    System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Rebuilds one hotel from its section
+     */
+    private static HotelModel readSection(MappedByteBuffer mapped, int index, int[] journalIds, long[] hotelOffsets)
+            throws IOException {
+        ByteBuffer section = mapped.order(ByteOrder.LITTLE_ENDIAN);
+        try {
+            hotelOffsets[index] = section.getLong();
+            journalIds[index] = section.getInt();
+            int nextReservationId = section.getInt();
+            int roomCount = section.getInt();
+            int runCount = section.getInt();
+            int stayCount = section.getInt();
+            int stringBytes = section.getInt();
+            int nameRef = section.getInt();
+            int firstOpenDay = section.getInt();
+            long stringsAt = SECTION_BYTES + (long) roomCount * ROOM_BYTES + (long) runCount * RUN_BYTES
+                    + (long) stayCount * STAY_BYTES;
+            if (roomCount < 0 || runCount < 0 || stayCount < 0 || stringBytes < 0
+                    || stringsAt + stringBytes != section.capacity()) {
+                throw new IOException("Section sizes do not add up");
+            }
+            StringReader strings = new StringReader(section, (int) stringsAt);
+            section.position(SECTION_BYTES);
+
+            Room[] rooms = new Room[roomCount];
+            for (int r = 0; r < roomCount; r++) {
+                int roomNumber = section.getInt();
+                int type = section.getInt();
+                double price = section.getDouble();
+                rooms[r] = type == DELUXE ? new Deluxe(roomNumber, price)
+                        : type == EXECUTIVE ? new Executive(roomNumber, price) : new Room(roomNumber, price);
+            }
+            int[] runs = new int[runCount * 3];
+            for (int i = 0; i < runs.length; i++) {
+                runs[i] = section.getInt();
+            }
+            List<Reservation> reservations = new ArrayList<>(stayCount);
+            for (int s = 0; s < stayCount; s++) {
+                int id = section.getInt();
+                Room room = rooms[section.getInt()];
+                int checkInDate = section.getInt();
+                int checkOutDate = section.getInt();
+                double totalPrice = section.getDouble();
+                String guestName = strings.get(section.getInt());
+                String discountCode = strings.get(section.getInt());
+                Reservation reservation = new Reservation(room, guestName, room.getRoomNumber(), checkInDate, checkOutDate);
+                reservation.setId(id);
+                reservation.setTotalPrice(totalPrice);
+                reservation.setDiscountCode(discountCode);
+                reservations.add(reservation);
+            }
+
+            HotelModel hotel = new HotelModel(strings.get(nameRef));
+            hotel.restore(Arrays.asList(rooms), runs, reservations, nextReservationId);
+            hotel.retireDaysBefore(firstOpenDay); // After the stays, which may check in before it
+            return hotel;
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IOException("Section is cut short", e);
+        }
+    }
+
+    /**
+     * @return hotels read from the file, in the order they were written
+     */
+    public List<HotelModel> getHotels() {
+        return hotels;
+    }
+
+    /**
+     * @return number of hotels in the snapshot
+     */
+    public int getHotelCount() {
+        return journalIds.length;
+    }
+
+    /**
+     * @param index position of the hotel in the snapshot
+     * @return the hotel's ID in the journal, or 0 if it was not in one
+     */
+    public int getJournalId(int index) {
+        return journalIds[index];
+    }
+
+    /**
+     * @param index position of the hotel in the snapshot
+     * @return length of the journal when the hotel was copied; later records change it
+     */
+    public long getHotelOffset(int index) {
+        return hotelOffsets[index];
+    }
+
+    /**
+     * @return length of the journal before any hotel was copied, where replay starts
+     */
+    public long getJournalOffset() {
+        return journalOffset;
+    }
+
+    /**
+     * @return journal ID the next added hotel got when the snapshot was taken
+     */
+    public int getNextHotelId() {
+        return nextHotelId;
+    }
+
+    /**
+     * @return time taken to read the file and rebuild the hotels, in nanoseconds
+     */
+    public long getLoadNanos() {
+        return loadNanos;
+    }
+
+    private static int typeOf(String roomType) {
+        switch (roomType) {
+            case "Deluxe":
+                return DELUXE;
+            case "Executive":
+                return EXECUTIVE;
+            default:
+                return STANDARD;
+        }
+    }
+
+    /**
+     * Strings of a section being written, each stored once
+     */
+    private static final class StringTable {
+        private final Map<String, Integer> offsets = new HashMap<>();
+        private byte[] bytes = new byte[1024];
+        private int size;
+
+        /**
+         * @return offset of the string in the table, or NO_STRING for null
+         */
+        int add(String text) {
+            if (text == null) {
+                return NO_STRING;
+            }
+            Integer known = offsets.get(text);
+            if (known != null) {
+                return known;
+            }
+            byte[] encoded = text.getBytes(StandardCharsets.UTF_8);
+            int length = Math.min(encoded.length, 0xFFFF);
+            if (size + 2 + length > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + 2 + length));
+            }
+            int offset = size;
+            bytes[size++] = (byte) length;
+            bytes[size++] = (byte) (length >>> 8);
+            System.arraycopy(encoded, 0, bytes, size, length);
+            size += length;
+            offsets.put(text, offset);
+            return offset;
+        }
+
+        byte[] bytes() {
+            return bytes;
+        }
+
+        int size() {
+            return size;
+        }
+    }
+
+    /**
+     * Strings of a section being read, each decoded once however many stays share it
+     */
+    private static final class StringReader {
+        private final ByteBuffer section;
+        private final int start;
+        private final IntMap<String> decoded = new IntMap<>();
+
+        StringReader(ByteBuffer section, int start) {
+            this.section = section;
+            this.start = start;
+        }
+
+        String get(int ref) {
+            if (ref == NO_STRING) {
+                return null;
+            }
+            String text = decoded.get(ref);
+            if (text == null) {
+                int at = start + ref;
+                int length = Short.toUnsignedInt(section.getShort(at));
+                byte[] encoded = new byte[length];
+                section.get(at + 2, encoded);
+                text = new String(encoded, StandardCharsets.UTF_8);
+                decoded.put(ref, text);
+            }
+            return text;
+        }
+    }
+}